@@ -0,0 +1,44 @@
+package be.codewriter.dmx512demo.benchmark;
+
+import be.codewriter.dmx512.Main;
+import be.codewriter.dmx512.client.DMXClient;
+import be.codewriter.dmx512.ofl.OpenFormatLibraryParser;
+import be.codewriter.dmx512.ofl.model.Fixture;
+import be.codewriter.dmx512demo.output.DMXUniverse;
+import be.codewriter.dmx512demo.patch.Patch;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Builds a patch with the given number of PicoSpots in 11-channel mode, filling one universe after the other.
+ */
+final class BenchmarkPatch {
+    private static final String FIXTURE_FILE = "ofl/fun-generation/picospot-20-led.json";
+    private static final String MODE = "11-channel";
+
+    private BenchmarkPatch() {
+        // Hide constructor
+    }
+
+    static Patch create(int fixtureCount) throws IOException {
+        var fixture = loadFixture();
+        var mode = fixture.getModeByName(MODE);
+        var footprint = mode.channels().size();
+        var fixturesPerUniverse = DMXUniverse.SIZE / footprint;
+
+        var patch = new Patch();
+        for (int i = 0; i < fixtureCount; i++) {
+            var universe = 1 + i / fixturesPerUniverse;
+            var address = 1 + (i % fixturesPerUniverse) * footprint;
+            patch.add(universe, new DMXClient(fixture, mode, address), FIXTURE_FILE);
+        }
+        return patch;
+    }
+
+    private static Fixture loadFixture() throws IOException {
+        try (InputStream is = Main.class.getClassLoader().getResourceAsStream(FIXTURE_FILE)) {
+            return OpenFormatLibraryParser.parseFixture(is);
+        }
+    }
+}
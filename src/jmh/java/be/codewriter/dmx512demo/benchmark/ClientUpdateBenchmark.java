@@ -0,0 +1,75 @@
+package be.codewriter.dmx512demo.benchmark;
+
+import be.codewriter.dmx512.client.DMXClient;
+import be.codewriter.dmx512demo.output.ChannelBinding;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways to set the pan and tilt of all fixtures, as done by the PanTiltController.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientUpdateBenchmark {
+    private static final String[] KEYS = {"pan", "pan fine", "tilt", "tilt fine", "Pan/Tilt Speed"};
+
+    @Param({"10", "100", "1000"})
+    private int fixtureCount;
+
+    private List<DMXClient> clients;
+    private DMXOutputEngine output;
+    private ChannelBinding[] bindings;
+    private byte value;
+
+    @Setup
+    public void setup() throws IOException {
+        var patch = BenchmarkPatch.create(fixtureCount);
+        clients = patch.getClients();
+        output = new DMXOutputEngine(patch);
+        bindings = new ChannelBinding[KEYS.length];
+        for (int i = 0; i < KEYS.length; i++) {
+            bindings[i] = ChannelBinding.of(output, clients, KEYS[i]);
+        }
+    }
+
+    /**
+     * The update pattern the controllers used before the channel bindings.
+     */
+    @Benchmark
+    public void streamFilter() {
+        var v = value++;
+        for (String key : KEYS) {
+            clients.stream()
+                    .filter(c -> c.hasChannel(key))
+                    .forEach(c -> c.setValue(key, v));
+        }
+    }
+
+    @Benchmark
+    public void clientSetValue() {
+        var v = value++;
+        for (String key : KEYS) {
+            for (DMXClient client : clients) {
+                client.setValue(key, v);
+            }
+        }
+    }
+
+    @Benchmark
+    public void channelBinding() {
+        var v = value++;
+        try (var frame = output.beginFrame(bindings)) {
+            for (ChannelBinding binding : bindings) {
+                frame.setValue(binding, v);
+            }
+        }
+    }
+}
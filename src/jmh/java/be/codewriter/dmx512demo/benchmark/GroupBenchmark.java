@@ -0,0 +1,60 @@
+package be.codewriter.dmx512demo.benchmark;
+
+import be.codewriter.dmx512.client.DMXClient;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
+import be.codewriter.dmx512demo.output.FixtureGroup;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Setting the dimmer of a whole group, with the offsets of the group flattened per universe, compared to one
+ * client at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroupBenchmark {
+    private static final String GROUP = "All";
+    private static final String KEY = "Dimmer";
+
+    @Param({"10", "100", "500"})
+    private int fixtureCount;
+
+    private List<DMXClient> clients;
+    private DMXOutputEngine output;
+    private FixtureGroup group;
+    private byte value;
+
+    @Setup
+    public void setup() throws IOException {
+        var patch = BenchmarkPatch.create(fixtureCount);
+        clients = patch.getClients();
+        clients.forEach(c -> patch.addToGroup(GROUP, c));
+        output = new DMXOutputEngine(patch);
+        group = output.getGroup(GROUP);
+        // Resolve the binding outside of the measurement
+        group.getBinding(KEY);
+    }
+
+    @Benchmark
+    public void clientSetValue() {
+        var v = value++;
+        for (DMXClient client : clients) {
+            client.setValue(KEY, v);
+        }
+    }
+
+    @Benchmark
+    public void groupSetValue() {
+        var v = value++;
+        try (var _ = output.getProgrammer().beginFrame(group.getBinding(KEY))) {
+            group.setValue(KEY, v);
+        }
+    }
+}
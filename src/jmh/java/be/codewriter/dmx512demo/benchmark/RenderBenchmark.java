@@ -0,0 +1,84 @@
+package be.codewriter.dmx512demo.benchmark;
+
+import be.codewriter.dmx512.client.DMXClient;
+import be.codewriter.dmx512.controller.ip.DMXIPController;
+import be.codewriter.dmx512demo.output.ArtNetOutput;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
+import be.codewriter.dmx512demo.output.DMXUniverse;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends one full universe to a UDP receiver on the loopback interface,
+ * through the controller of the DMX512 library and through the Art-Net output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderBenchmark {
+    private DatagramChannel receiver;
+    private Thread receiverThread;
+    private List<DMXClient> clients;
+    private DMXIPController controller;
+    private DMXUniverse universe;
+    private ArtNetOutput artNetOutput;
+    private byte value;
+
+    @Setup
+    public void setup() throws IOException {
+        var loopback = InetAddress.getLoopbackAddress();
+
+        // Drain everything that is sent, so the socket buffers never fill up
+        receiver = DatagramChannel.open();
+        receiver.bind(new InetSocketAddress(loopback, ArtNetOutput.PORT));
+        receiverThread = Thread.ofPlatform().daemon().start(() -> {
+            var buffer = ByteBuffer.allocateDirect(1024);
+            while (receiver.isOpen()) {
+                try {
+                    buffer.clear();
+                    receiver.receive(buffer);
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+
+        var patch = BenchmarkPatch.create(DMXUniverse.SIZE / 11);
+        clients = patch.getClients();
+        controller = new DMXIPController(loopback);
+
+        var output = new DMXOutputEngine(patch);
+        universe = output.getUniverse(1);
+        artNetOutput = new ArtNetOutput(universe, loopback, 0);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        artNetOutput.close();
+        receiver.close();
+        receiverThread.interrupt();
+    }
+
+    @Benchmark
+    public void controllerRender() {
+        var v = value++;
+        clients.forEach(c -> c.setValue("Dimmer", v));
+        controller.render(clients);
+    }
+
+    @Benchmark
+    public boolean artNetOutput() throws IOException {
+        universe.setValue(1, value++);
+        return artNetOutput.send(System.nanoTime(), 0);
+    }
+}
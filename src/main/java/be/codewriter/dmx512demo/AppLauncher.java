@@ -1,12 +1,31 @@
 package be.codewriter.dmx512demo;
 
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * The AppLauncher class provides the main entry point
  * for launching the application.
+ * <p>
+ * With --headless, only the output is started, without JavaFX, and with --replay &lt;file&gt; a recording is
+ * replayed to the outputs.
  */
 public class AppLauncher {
-    public static void main(String[] args) {
-        var app = new DMX512DemoApp();
-        app.run();
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = Arrays.asList(args);
+        var replay = arguments.indexOf("--replay");
+        if (replay >= 0) {
+            if (replay + 1 >= args.length) {
+                throw new IllegalArgumentException("--replay needs the file of a recording");
+            }
+            new HeadlessApp().run(Path.of(args[replay + 1]));
+        } else if (arguments.contains("--headless")) {
+            new HeadlessApp().run(null);
+        } else {
+            // Only this path loads JavaFX
+            var app = new DMX512DemoApp();
+            app.run();
+        }
     }
-}
\ No newline at end of file
+}
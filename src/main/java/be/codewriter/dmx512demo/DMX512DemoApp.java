@@ -1,15 +1,16 @@
 package be.codewriter.dmx512demo;
 
-import be.codewriter.dmx512.Main;
-import be.codewriter.dmx512.client.DMXClient;
-import be.codewriter.dmx512.controller.ip.DMXIPController;
-import be.codewriter.dmx512.ofl.OpenFormatLibraryParser;
-import be.codewriter.dmx512.ofl.model.Fixture;
+import be.codewriter.dmx512demo.client.CueListController;
+import be.codewriter.dmx512demo.client.FadeController;
 import be.codewriter.dmx512demo.connection.ConnectionMonitor;
 import be.codewriter.dmx512demo.fixture.FixturesView;
+import be.codewriter.dmx512demo.logging.LoggingMenu;
+import be.codewriter.dmx512demo.metrics.MetricsView;
+import be.codewriter.dmx512demo.recording.RecordingMenu;
 import be.codewriter.dmx512demo.window.AboutWindow;
 import be.codewriter.dmx512demo.window.IPDiscoveryWindow;
 import be.codewriter.dmx512demo.window.SerialDiscoveryWindow;
+import be.codewriter.dmx512demo.window.UniverseMonitorWindow;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -18,28 +19,19 @@ import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Priority;
 import javafx.stage.Stage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.InputStream;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
-import java.util.List;
-
 public class DMX512DemoApp extends Application {
     private static final Logger LOGGER = LogManager.getLogger(DMX512DemoApp.class.getName());
     private BorderPane holder;
-
-    private static Fixture getFixture(FixtureFile fixtureFile) {
-        try (InputStream is = Main.class.getClassLoader().getResourceAsStream(fixtureFile.getFileName())) {
-            return OpenFormatLibraryParser.parseFixture(is);
-        } catch (Exception ex) {
-            LOGGER.error("Error parsing fixture: {}", ex.getMessage());
-        }
-
-        return null;
-    }
+    private ShowRuntime runtime;
+    private RecordingMenu recordingMenu;
+    private UniverseMonitorWindow monitorWindow;
 
     public void run() {
         LOGGER.info("Starting UI...");
@@ -47,28 +39,40 @@ public class DMX512DemoApp extends Application {
     }
 
     @Override
-    public void start(Stage stage) throws UnknownHostException {
+    public void start(Stage stage) {
         holder = new BorderPane();
         holder.setPadding(new Insets(10));
-        holder.setTop(getMenuBar(stage));
 
-        var controller = new DMXIPController(InetAddress.getByName("172.16.1.144"));
-        holder.setBottom(new ConnectionMonitor(controller));
-
-        var ledPartyTclSpot = getFixture(FixtureFile.LED_PARTY_TCL_SPOT);
-        var picoSpot20Led = getFixture(FixtureFile.PICOSPOT_20_LED);
-
-        if (ledPartyTclSpot != null && picoSpot20Led != null) {
-            var picoSpot1 = new DMXClient(picoSpot20Led, picoSpot20Led.getModeByName("11-channel"), 1);
-            var picoSpot2 = new DMXClient(picoSpot20Led, picoSpot20Led.getModeByName("11-channel"), 12);
-            var ledPartyTclSpot1 = new DMXClient(ledPartyTclSpot, ledPartyTclSpot.getModeByName("5-Channel"), 23);
-            var ledPartyTclSpot2 = new DMXClient(ledPartyTclSpot, ledPartyTclSpot.getModeByName("5-Channel"), 28);
-
-            var clients = List.of(ledPartyTclSpot1, ledPartyTclSpot2, picoSpot1, picoSpot2);
+        var patch = ShowRuntime.loadPatch();
+        runtime = new ShowRuntime(patch);
+        var outputEngine = runtime.getOutputEngine();
+        var fadeEngine = runtime.getFadeEngine();
+        holder.setTop(getMenuBar(stage));
 
-            holder.setCenter(new FixturesView(controller, List.of(ledPartyTclSpot, picoSpot20Led), clients));
+        var connections = new HBox();
+        patch.getOutputs().stream()
+                .filter(output -> patch.getUniverses().contains(output.universe()))
+                .forEach(output -> {
+                    var controller = runtime.getControllers().get(output);
+                    connections.getChildren().add(controller != null
+                            ? new ConnectionMonitor(controller)
+                            : new ConnectionMonitor(output));
+                });
+        var spacer = new Pane();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        holder.setBottom(new HBox(connections, new MetricsView(outputEngine.getMetrics()), spacer,
+                new FadeController(fadeEngine)));
+
+        if (!patch.getClients().isEmpty()) {
+            holder.setCenter(new FixturesView(outputEngine, runtime.getEffectEngine(), fadeEngine, patch.getFixtures()));
+            var cueList = new CueListController(runtime.getCuePlayer());
+            BorderPane.setMargin(cueList, new Insets(0, 0, 0, 10));
+            holder.setRight(cueList);
         }
 
+        // Start sending after the controllers have set their initial values
+        runtime.start();
+
         var scene = new Scene(holder, 1400, 850);
         stage.setScene(scene);
         stage.setTitle("DMX512 Demo");
@@ -78,6 +82,8 @@ public class DMX512DemoApp extends Application {
 
         stage.setOnCloseRequest(event -> {
             LOGGER.info("Closing application...");
+            runtime.stop();
+            recordingMenu.stopRecording();
             Platform.exit();
             System.exit(0);
         });
@@ -98,6 +104,12 @@ public class DMX512DemoApp extends Application {
         Menu devicesMenu = new Menu("Devices");
         devicesMenu.getItems().addAll(detectSerialItem, detectIPItem);
 
+        // Create View menu
+        MenuItem monitorItem = new MenuItem("Universe Monitor");
+        monitorItem.setOnAction(e -> showUniverseMonitor(stage));
+        Menu viewMenu = new Menu("View");
+        viewMenu.getItems().add(monitorItem);
+
         // Create About menu item
         MenuItem aboutItem = new MenuItem("About...");
         aboutItem.setOnAction(e -> showAbout(stage));
@@ -106,7 +118,9 @@ public class DMX512DemoApp extends Application {
         Menu helpMenu = new Menu("Help");
         helpMenu.getItems().add(aboutItem);
 
-        menuBar.getMenus().addAll(devicesMenu, helpMenu);
+        recordingMenu = new RecordingMenu(stage, runtime.getOutputEngine());
+
+        menuBar.getMenus().addAll(devicesMenu, viewMenu, new LoggingMenu(), recordingMenu, helpMenu);
 
         return menuBar;
     }
@@ -121,23 +135,17 @@ public class DMX512DemoApp extends Application {
         window.show();
     }
 
+    private void showUniverseMonitor(Stage stage) {
+        // Kept when closed, so the canvas is only built once
+        if (monitorWindow == null) {
+            monitorWindow = new UniverseMonitorWindow(stage, runtime.getOutputEngine());
+        }
+        monitorWindow.show();
+    }
+
     private void showAbout(Stage stage) {
         var window = new AboutWindow(stage);
         window.show();
     }
 
-    private enum FixtureFile {
-        LED_PARTY_TCL_SPOT("ofl/led-party-tcl-spot.json"),
-        PICOSPOT_20_LED("ofl/picospot-20-led.json");
-
-        private final String fileName;
-
-        FixtureFile(String fileName) {
-            this.fileName = fileName;
-        }
-
-        public String getFileName() {
-            return fileName;
-        }
-    }
 }
@@ -0,0 +1,50 @@
+package be.codewriter.dmx512demo;
+
+import be.codewriter.dmx512demo.output.UniverseOutput;
+import be.codewriter.dmx512demo.recording.FramePlayer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Runs the output of the patch without UI, and without loading JavaFX, e.g. on a rack server.
+ * The show is controlled through the {@link be.codewriter.dmx512demo.control.ControlServer}, or a recording
+ * is replayed to the outputs.
+ */
+public class HeadlessApp {
+    private static final Logger LOGGER = LogManager.getLogger(HeadlessApp.class.getName());
+
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    /**
+     * Run until the process is stopped, or until the end of the recording.
+     *
+     * @param replay a recording of a {@link be.codewriter.dmx512demo.recording.FrameRecorder}, or null
+     */
+    public void run(Path replay) throws Exception {
+        LOGGER.info("Starting headless...");
+        var runtime = new ShowRuntime(ShowRuntime.loadPatch());
+        if (replay != null) {
+            // The recording is sent straight to the outputs, the output engine must not run at the same time
+            new FramePlayer(replay).play(runtime.getOutputEngine().getOutputs());
+            runtime.getOutputEngine().getOutputs().forEach(UniverseOutput::close);
+            return;
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            LOGGER.info("Stopping headless...");
+            runtime.stop();
+            stopped.countDown();
+        }, "shutdown"));
+        runtime.start();
+        ProcessHandle.current().info().startInstant().ifPresent(started ->
+                LOGGER.info("Headless output started in {}ms", Duration.between(started, Instant.now()).toMillis()));
+
+        // The output and servers run on daemon threads
+        stopped.await();
+    }
+}
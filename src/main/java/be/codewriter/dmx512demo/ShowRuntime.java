@@ -0,0 +1,202 @@
+package be.codewriter.dmx512demo;
+
+import be.codewriter.dmx512.controller.ip.DMXIPController;
+import be.codewriter.dmx512demo.control.ControlServer;
+import be.codewriter.dmx512demo.control.OscServer;
+import be.codewriter.dmx512demo.control.ShowControl;
+import be.codewriter.dmx512demo.control.WebSocketServer;
+import be.codewriter.dmx512demo.cue.CuePlayer;
+import be.codewriter.dmx512demo.effect.EffectEngine;
+import be.codewriter.dmx512demo.fade.FadeEngine;
+import be.codewriter.dmx512demo.fade.FadeTime;
+import be.codewriter.dmx512demo.input.ArtNetInput;
+import be.codewriter.dmx512demo.library.FixtureIndex;
+import be.codewriter.dmx512demo.library.FixtureLibrary;
+import be.codewriter.dmx512demo.metrics.MetricsServer;
+import be.codewriter.dmx512demo.output.ArtNetOutput;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
+import be.codewriter.dmx512demo.patch.Patch;
+import be.codewriter.dmx512demo.patch.PatchLoader;
+import be.codewriter.dmx512demo.patch.PatchOutput;
+import be.codewriter.dmx512demo.patch.PatchTrigger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Everything that is needed to send DMX from a patch, without any JavaFX class: the output with its engines and
+ * cue list, the Art-Net input and the servers for metrics and remote control. Used by the UI and by the {@link HeadlessApp}.
+ */
+public class ShowRuntime {
+    private static final Logger LOGGER = LogManager.getLogger(ShowRuntime.class.getName());
+    private static final String PATCH_FILE = "/patch/demo.patch";
+
+    private final Patch patch;
+    private final DMXOutputEngine outputEngine;
+    private final FadeEngine fadeEngine;
+    private final EffectEngine effectEngine;
+    private final CuePlayer cuePlayer;
+    private final Map<PatchOutput, DMXIPController> controllers = new LinkedHashMap<>();
+    private final MetricsServer metricsServer;
+    private final ControlServer controlServer;
+    private final OscServer oscServer;
+    private final WebSocketServer webSocketServer;
+    private ArtNetInput input;
+
+    public ShowRuntime(Patch patch) {
+        this.patch = patch;
+        this.outputEngine = new DMXOutputEngine(patch);
+        // Fades are processed first, so a running effect is not overwritten by them
+        this.fadeEngine = new FadeEngine(outputEngine);
+        this.effectEngine = new EffectEngine(outputEngine);
+        this.cuePlayer = new CuePlayer(outputEngine, fadeEngine);
+
+        // Wheels and programs select a function per value range, fading through them makes no sense
+        fadeEngine.setFadeTime("Color Wheel", FadeTime.NONE);
+        fadeEngine.setFadeTime("Gobo Wheel", FadeTime.NONE);
+        fadeEngine.setFadeTime("Program", FadeTime.NONE);
+
+        patch.getOutputs().forEach(output -> {
+            if (!patch.getUniverses().contains(output.universe())) {
+                LOGGER.warn("No fixtures patched in universe {}, output {} is not used", output.universe(), output.address());
+                return;
+            }
+            switch (output.type()) {
+                case DMX512 -> {
+                    var controller = new DMXIPController(output.address());
+                    outputEngine.setController(output.universe(), controller);
+                    controllers.put(output, controller);
+                }
+                case ART_NET -> outputEngine.setArtNetOutput(output.universe(), output.address());
+            }
+        });
+
+        this.metricsServer = new MetricsServer(outputEngine.getMetrics(), MetricsServer.DEFAULT_PORT);
+        var control = new ShowControl(outputEngine, cuePlayer);
+        var settings = patch.getControl();
+        this.controlServer = new ControlServer(outputEngine, cuePlayer, control, settings.origins(),
+                ControlServer.DEFAULT_PORT);
+        this.oscServer = new OscServer(control, settings.address(), OscServer.DEFAULT_PORT);
+        this.webSocketServer = new WebSocketServer(control, settings.address(), settings.origins(),
+                WebSocketServer.DEFAULT_PORT);
+    }
+
+    /**
+     * @return the demo patch, or an empty patch if it can't be loaded
+     */
+    public static Patch loadPatch() {
+        var library = new FixtureLibrary(FixtureIndex.load(), FixtureLibrary.DEFAULT_CACHE_SIZE);
+        try (InputStream is = ShowRuntime.class.getResourceAsStream(PATCH_FILE)) {
+            return PatchLoader.load(is, library::load);
+        } catch (Exception ex) {
+            LOGGER.error("Error loading patch: {}", ex.getMessage());
+        }
+
+        return new Patch();
+    }
+
+    public Patch getPatch() {
+        return patch;
+    }
+
+    public DMXOutputEngine getOutputEngine() {
+        return outputEngine;
+    }
+
+    public FadeEngine getFadeEngine() {
+        return fadeEngine;
+    }
+
+    public EffectEngine getEffectEngine() {
+        return effectEngine;
+    }
+
+    public CuePlayer getCuePlayer() {
+        return cuePlayer;
+    }
+
+    /**
+     * @return the controller of each output that is sent through the DMX512 library
+     */
+    public Map<PatchOutput, DMXIPController> getControllers() {
+        return Collections.unmodifiableMap(controllers);
+    }
+
+    /**
+     * Start the servers and the input, and then the output. The initial values must be set before.
+     */
+    public void start() {
+        try {
+            metricsServer.start();
+        } catch (Exception ex) {
+            LOGGER.error("Error starting metrics server: {}", ex.getMessage());
+        }
+        try {
+            controlServer.start();
+        } catch (Exception ex) {
+            LOGGER.error("Error starting control server: {}", ex.getMessage());
+        }
+        try {
+            oscServer.start();
+        } catch (Exception ex) {
+            LOGGER.error("Error starting OSC server: {}", ex.getMessage());
+        }
+        try {
+            webSocketServer.start();
+        } catch (Exception ex) {
+            LOGGER.error("Error starting WebSocket server: {}", ex.getMessage());
+        }
+        if (!patch.getInputs().isEmpty()) {
+            startInput();
+        }
+        outputEngine.start();
+    }
+
+    public void stop() {
+        if (input != null) {
+            input.stop();
+        }
+        controlServer.stop();
+        oscServer.stop();
+        webSocketServer.stop();
+        outputEngine.stop();
+        metricsServer.stop();
+    }
+
+    private void startInput() {
+        // Added as the last source, so a console wins from the other sources when they change a slot together
+        input = new ArtNetInput(outputEngine.addSource(ArtNetInput.SOURCE_NAME));
+        patch.getInputs().forEach(i -> {
+            if (!patch.getUniverses().contains(i.universe())) {
+                LOGGER.warn("No fixtures patched in universe {}, input {} is not used", i.universe(), i.portAddress());
+                return;
+            }
+            input.route(i.portAddress(), i.universe());
+        });
+        for (var output : outputEngine.getOutputs()) {
+            if (output instanceof ArtNetOutput artNetOutput) {
+                input.ignoreOwnOutput(artNetOutput.getPortAddress());
+            }
+        }
+        for (var trigger : patch.getTriggers()) {
+            var patchInput = patch.getInputs().stream()
+                    .filter(i -> i.universe() == trigger.universe() && patch.getUniverses().contains(i.universe()))
+                    .findFirst();
+            if (patchInput.isEmpty()) {
+                LOGGER.warn("No input for universe {}, trigger at {} is not used", trigger.universe(), trigger.address());
+                continue;
+            }
+            Runnable action = trigger.action() == PatchTrigger.Action.GO ? cuePlayer::go : cuePlayer::back;
+            input.addTrigger(patchInput.get().portAddress(), trigger.address(), action);
+        }
+        try {
+            input.start();
+        } catch (Exception ex) {
+            LOGGER.error("Error starting Art-Net input: {}", ex.getMessage());
+        }
+    }
+}
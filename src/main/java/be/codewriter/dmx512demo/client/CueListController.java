@@ -0,0 +1,115 @@
+package be.codewriter.dmx512demo.client;
+
+import be.codewriter.dmx512demo.cue.Cue;
+import be.codewriter.dmx512demo.cue.CuePlayer;
+import be.codewriter.dmx512demo.fade.FadeCurve;
+import be.codewriter.dmx512demo.fade.FadeTime;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+public class CueListController extends VBox {
+    private final CuePlayer player;
+    private final TableView<Cue> table;
+    private final TextField nameField;
+    private final Spinner<Double> fadeTime;
+    private final Spinner<Double> followTime;
+
+    public CueListController(CuePlayer player) {
+        this.player = player;
+
+        setSpacing(10);
+        setPrefWidth(320);
+
+        table = new TableView<>();
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_ALL_COLUMNS);
+        VBox.setVgrow(table, Priority.ALWAYS);
+
+        TableColumn<Cue, Integer> columnNumber = new TableColumn<>("#");
+        columnNumber.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(table.getItems().indexOf(c.getValue()) + 1));
+        columnNumber.setMaxWidth(40);
+
+        TableColumn<Cue, String> columnName = new TableColumn<>("Name");
+        columnName.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().name()));
+
+        TableColumn<Cue, String> columnFade = new TableColumn<>("Fade (s)");
+        columnFade.setCellValueFactory(c -> new ReadOnlyStringWrapper(
+                String.valueOf(c.getValue().fadeTime().fadeInMillis() / 1000.0)));
+
+        TableColumn<Cue, String> columnFollow = new TableColumn<>("Follow (s)");
+        columnFollow.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().hasFollow()
+                ? String.valueOf(c.getValue().followMillis() / 1000.0) : ""));
+
+        table.getColumns().addAll(columnNumber, columnName, columnFade, columnFollow);
+
+        nameField = new TextField();
+        fadeTime = new Spinner<>(0, 60, 2, 0.5);
+        fadeTime.setEditable(true);
+        // 0 means the cue waits for a GO
+        followTime = new Spinner<>(0.0, 600.0, 0.0, 1.0);
+        followTime.setEditable(true);
+
+        var settings = new GridPane(5, 5);
+        settings.addRow(0, new Label("Name"), nameField);
+        settings.addRow(1, new Label("Fade (s)"), fadeTime);
+        settings.addRow(2, new Label("Follow (s)"), followTime);
+
+        var recordButton = new Button("Record");
+        recordButton.setOnAction(_ -> record());
+
+        var deleteButton = new Button("Delete");
+        deleteButton.setOnAction(_ -> player.remove(table.getSelectionModel().getSelectedIndex()));
+
+        var backButton = new Button("BACK");
+        backButton.setOnAction(_ -> player.back());
+
+        var goButton = new Button("GO");
+        goButton.setOnAction(_ -> player.go());
+
+        var buttons = new HBox(5, recordButton, deleteButton, backButton, goButton);
+        buttons.setAlignment(Pos.CENTER_LEFT);
+
+        // Double-click on a cue to jump to it
+        table.setOnMouseClicked(event -> {
+            if (event.getClickCount() == 2 && table.getSelectionModel().getSelectedIndex() >= 0) {
+                player.goTo(table.getSelectionModel().getSelectedIndex());
+            }
+        });
+
+        player.addListener(index -> Platform.runLater(() -> updateTable(index)));
+
+        getChildren().addAll(new Label("Cues"), table, settings, buttons);
+        updateTable(player.getCurrentIndex());
+    }
+
+    private void record() {
+        var name = nameField.getText().isBlank() ? "Cue " + (table.getItems().size() + 1) : nameField.getText();
+        var millis = Math.round(fadeTime.getValue() * 1000);
+        var follow = Math.round(followTime.getValue() * 1000);
+        try {
+            player.record(name, new FadeTime(millis, millis, FadeCurve.LINEAR), follow > 0 ? follow : Cue.NO_FOLLOW);
+            nameField.clear();
+        } catch (IllegalStateException e) {
+            // Keep the name, so the same cue can be recorded again
+            var alert = new Alert(Alert.AlertType.ERROR, e.getMessage());
+            alert.setHeaderText("Cue '" + name + "' is not recorded");
+            alert.show();
+        }
+    }
+
+    private void updateTable(int index) {
+        table.getItems().setAll(player.getCues());
+        if (index >= 0) {
+            table.getSelectionModel().select(index);
+            table.scrollTo(index);
+        } else {
+            table.getSelectionModel().clearSelection();
+        }
+    }
+}
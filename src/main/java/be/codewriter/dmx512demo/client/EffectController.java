@@ -0,0 +1,64 @@
+package be.codewriter.dmx512demo.client;
+
+import be.codewriter.dmx512.client.DMXClient;
+import be.codewriter.dmx512demo.effect.EffectEngine;
+import be.codewriter.dmx512demo.effect.Waveform;
+import be.codewriter.dmx512demo.effect.WaveformEffect;
+import be.codewriter.dmx512demo.output.ChannelBinding;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
+import javafx.geometry.Pos;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Slider;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.layout.VBox;
+
+import java.util.List;
+
+public class EffectController extends VBox {
+    private final WaveformEffect effect;
+
+    public EffectController(DMXOutputEngine output, EffectEngine effects, List<DMXClient> clients, String key) {
+        var binding = ChannelBinding.of(output.getEffects(), clients, key);
+        effect = new WaveformEffect(binding, Waveform.SINE);
+
+        setAlignment(Pos.TOP_CENTER);
+        setSpacing(10);
+        setPrefWidth(150);
+
+        var title = new Label(key + " Effect");
+
+        var waveformSelector = new ComboBox<Waveform>();
+        waveformSelector.getItems().addAll(Waveform.values());
+        waveformSelector.setValue(Waveform.SINE);
+        waveformSelector.valueProperty().addListener((_, _, newVal) -> effect.setWaveform(newVal));
+
+        // Speed in cycles per second
+        var speedSlider = new Slider(0.1, 5, 0.5);
+        speedSlider.setShowTickLabels(true);
+        speedSlider.setMajorTickUnit(1);
+        speedSlider.valueProperty().addListener((_, _, newVal) -> effect.setSpeed(newVal.doubleValue()));
+        effect.setSpeed(speedSlider.getValue());
+
+        // Spread the fixtures over one cycle, each fixture in its own group
+        var spreadSlider = new Slider(0, 100, 0);
+        spreadSlider.setShowTickLabels(true);
+        spreadSlider.setMajorTickUnit(25);
+        spreadSlider.valueProperty().addListener((_, _, newVal) ->
+                effect.setPhaseSpread(newVal.doubleValue() / 100, binding.size()));
+
+        var runButton = new ToggleButton("Run");
+        runButton.selectedProperty().addListener((_, _, selected) -> {
+            if (selected) {
+                effects.start(effect);
+            } else {
+                effects.stop(effect);
+            }
+        });
+
+        getChildren().addAll(title, waveformSelector,
+                new Label("Speed (Hz)"), speedSlider,
+                new Label("Phase Spread (%)"), spreadSlider,
+                runButton);
+    }
+}
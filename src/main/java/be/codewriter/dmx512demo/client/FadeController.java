@@ -0,0 +1,56 @@
+package be.codewriter.dmx512demo.client;
+
+import be.codewriter.dmx512demo.fade.FadeCurve;
+import be.codewriter.dmx512demo.fade.FadeEngine;
+import be.codewriter.dmx512demo.fade.FadeTime;
+import javafx.geometry.Pos;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
+import javafx.scene.layout.HBox;
+
+/**
+ * Sets the default fade time, used by all channels that don't have their own.
+ */
+public class FadeController extends HBox {
+    private final FadeEngine fades;
+    private final Spinner<Double> fadeIn;
+    private final Spinner<Double> fadeOut;
+    private final ComboBox<FadeCurve> curveSelector;
+
+    public FadeController(FadeEngine fades) {
+        this.fades = fades;
+
+        setAlignment(Pos.CENTER_LEFT);
+        setSpacing(5);
+
+        var current = fades.getDefaultFadeTime();
+
+        // Times in seconds
+        fadeIn = new Spinner<>(0, 10, current.fadeInMillis() / 1000.0, 0.1);
+        fadeIn.setPrefWidth(75);
+        fadeIn.setEditable(true);
+        fadeIn.valueProperty().addListener((_, _, _) -> updateFadeTime());
+
+        fadeOut = new Spinner<>(0, 10, current.fadeOutMillis() / 1000.0, 0.1);
+        fadeOut.setPrefWidth(75);
+        fadeOut.setEditable(true);
+        fadeOut.valueProperty().addListener((_, _, _) -> updateFadeTime());
+
+        curveSelector = new ComboBox<>();
+        curveSelector.getItems().addAll(FadeCurve.values());
+        curveSelector.setValue(current.curve());
+        curveSelector.valueProperty().addListener((_, _, _) -> updateFadeTime());
+
+        getChildren().addAll(new Label("Fade in (s)"), fadeIn,
+                new Label("Fade out (s)"), fadeOut,
+                curveSelector);
+    }
+
+    private void updateFadeTime() {
+        fades.setDefaultFadeTime(new FadeTime(
+                Math.round(fadeIn.getValue() * 1000),
+                Math.round(fadeOut.getValue() * 1000),
+                curveSelector.getValue()));
+    }
+}
@@ -1,8 +1,10 @@
 package be.codewriter.dmx512demo.client;
 
 import be.codewriter.dmx512.client.DMXClient;
-import be.codewriter.dmx512.controller.DMXController;
 import be.codewriter.dmx512demo.client.data.ListItem;
+import be.codewriter.dmx512demo.fade.FadeEngine;
+import be.codewriter.dmx512demo.output.ChannelBinding;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -16,15 +18,19 @@ import javafx.scene.text.Text;
 
 import java.util.List;
 
+/**
+ * A list of values for one channel. The item of the value the channel has in the programmer is selected at the
+ * start, the controller itself doesn't change the output until an item is clicked.
+ */
 public class ListController extends ListView<ListItem> {
     public static final int LIST_ITEM_HEIGHT = 25;
-    private final DMXController controller;
-    private final List<DMXClient> clients;
+    private final FadeEngine fades;
+    private final ChannelBinding binding;
     private final ObservableList<ListItem> observableItems;
 
-    public ListController(DMXController controller, List<DMXClient> clients, String key, List<ListItem> items) {
-        this.controller = controller;
-        this.clients = clients;
+    public ListController(DMXOutputEngine output, FadeEngine fades, List<DMXClient> clients, String key, List<ListItem> items) {
+        this.fades = fades;
+        this.binding = ChannelBinding.of(output.getProgrammer(), clients, key);
         observableItems = FXCollections.observableArrayList(items);
         setItems(observableItems);
 
@@ -41,22 +47,30 @@ public class ListController extends ListView<ListItem> {
         setOnMouseClicked(event -> {
             ListItem selectedItem = getSelectionModel().getSelectedItem();
             if (selectedItem != null) {
-                updateClients(key, selectedItem.value());
+                updateClients(selectedItem.value());
             }
         });
 
-        // Select first item and update clients
         if (!items.isEmpty()) {
-            getSelectionModel().select(0);
-            updateClients(key, items.getFirst().value());
+            getSelectionModel().select(getItemIndex(items, binding.getValue()));
         }
     }
 
-    private void updateClients(String key, byte value) {
-        clients.stream()
-                .filter(c -> c.hasChannel(key))
-                .forEach(c -> c.setValue(key, value));
-        controller.render(clients);
+    /**
+     * @return the last item of which the value is not higher than the given one, as each item starts a range
+     */
+    private static int getItemIndex(List<ListItem> items, int value) {
+        var index = 0;
+        for (int i = 0; i < items.size(); i++) {
+            if ((items.get(i).value() & 0xFF) <= value) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    private void updateClients(byte value) {
+        fades.fadeTo(binding, value);
     }
 
     static class ColorItemCell extends ListCell<ListItem> {
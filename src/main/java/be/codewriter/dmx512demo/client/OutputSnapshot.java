@@ -0,0 +1,176 @@
+package be.codewriter.dmx512demo.client;
+
+import be.codewriter.dmx512demo.output.ChannelBinding;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
+import be.codewriter.dmx512demo.output.DMXUniverse;
+import be.codewriter.dmx512demo.output.UniverseSnapshot;
+import javafx.animation.AnimationTimer;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Samples the values of channels once per JavaFX pulse, for the controls that show them. A listener is only called
+ * in a pulse in which one of its values changed, so the cost of refreshing the UI is bounded by the screen refresh
+ * rate, not by how often the values change, e.g. during a fade or an effect.
+ * <p>
+ * The values are copied from the {@link UniverseSnapshot}s of the output, once per universe per pulse, without
+ * holding up the output thread. All values of a universe in a pulse come from the same frame, so a coarse/fine pair
+ * is always consistent.
+ * <p>
+ * Only used on the JavaFX application thread.
+ */
+public final class OutputSnapshot {
+    private static final OutputSnapshot DEFAULT = new OutputSnapshot();
+
+    private final List<Watch> watches = new ArrayList<>();
+    private final Map<UniverseSnapshot, Source> sources = new IdentityHashMap<>();
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            for (Source source : sources.values()) {
+                source.copy();
+            }
+            // By index, as a listener can remove a control from its scene
+            for (int i = 0; i < watches.size(); i++) {
+                watches.get(i).sample();
+            }
+        }
+    };
+
+    private OutputSnapshot() {
+        // Hide constructor
+    }
+
+    public static OutputSnapshot getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Call the listener in the next pulse, and in every pulse after which one of the values changed, as long as the
+     * owner is in a scene. A control that is removed from its scene is no longer sampled or kept by the watch.
+     *
+     * @param bindings the channels to sample on the output, the value of the first client of each is used
+     */
+    public Watch watch(Node owner, DMXOutputEngine output, Runnable listener, ChannelBinding... bindings) {
+        var watch = new Watch(output, listener, bindings);
+        owner.sceneProperty().addListener((_, _, scene) -> {
+            if (scene == null) {
+                unwatch(watch);
+            } else {
+                add(watch);
+            }
+        });
+        if (owner.getScene() != null) {
+            add(watch);
+        }
+        return watch;
+    }
+
+    public void unwatch(Watch watch) {
+        if (!watches.remove(watch)) {
+            return;
+        }
+        for (Source source : watch.sources) {
+            if (source != null && --source.users == 0) {
+                sources.remove(source.snapshot);
+            }
+        }
+        if (watches.isEmpty()) {
+            timer.stop();
+        }
+    }
+
+    private void add(Watch watch) {
+        if (watches.contains(watch)) {
+            return;
+        }
+        for (int i = 0; i < watch.snapshots.length; i++) {
+            if (watch.snapshots[i] != null) {
+                var source = sources.computeIfAbsent(watch.snapshots[i], Source::new);
+                source.users++;
+                watch.sources[i] = source;
+            }
+        }
+        // Not a valid value, so the listener is called in the first pulse
+        Arrays.fill(watch.values, Integer.MIN_VALUE);
+        watches.add(watch);
+        if (watches.size() == 1) {
+            timer.start();
+        }
+    }
+
+    public static final class Watch {
+        private final Runnable listener;
+        private final UniverseSnapshot[] snapshots;
+        private final Source[] sources;
+        private final int[] offsets;
+        private final int[] values;
+
+        private Watch(DMXOutputEngine output, Runnable listener, ChannelBinding[] bindings) {
+            this.listener = listener;
+            this.snapshots = new UniverseSnapshot[bindings.length];
+            this.sources = new Source[bindings.length];
+            this.offsets = new int[bindings.length];
+            this.values = new int[bindings.length];
+            for (int i = 0; i < bindings.length; i++) {
+                var universe = bindings[i].getFirstUniverse();
+                if (universe != null) {
+                    snapshots[i] = output.getSnapshot(universe.getId());
+                    offsets[i] = bindings[i].getFirstOffset();
+                }
+            }
+        }
+
+        /**
+         * @return the value of the binding at the given index in the last pulse, from 0 to 255, or -1 if no client
+         * has the channel
+         */
+        public int getValue(int index) {
+            return values[index];
+        }
+
+        private void sample() {
+            var changed = false;
+            for (int i = 0; i < sources.length; i++) {
+                var value = sources[i] == null ? -1 : sources[i].values[offsets[i]] & 0xFF;
+                if (value != values[i]) {
+                    values[i] = value;
+                    changed = true;
+                }
+            }
+            if (changed) {
+                listener.run();
+            }
+        }
+    }
+
+    /**
+     * The copy of one universe in the current pulse, shared by all watches on it.
+     */
+    private static final class Source {
+        private final UniverseSnapshot snapshot;
+        private byte[] values = new byte[DMXUniverse.SIZE];
+        private byte[] next = new byte[DMXUniverse.SIZE];
+        private int users;
+
+        private Source(UniverseSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        /**
+         * Keep the values of the previous pulse when no consistent copy could be made.
+         */
+        private void copy() {
+            if (snapshot.copyTo(next)) {
+                var previous = values;
+                values = next;
+                next = previous;
+            }
+        }
+    }
+}
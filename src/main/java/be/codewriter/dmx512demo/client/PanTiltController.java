@@ -1,9 +1,14 @@
 package be.codewriter.dmx512demo.client;
 
 import be.codewriter.dmx512.client.DMXClient;
-import be.codewriter.dmx512.controller.DMXController;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import be.codewriter.dmx512demo.effect.EffectEngine;
+import be.codewriter.dmx512demo.effect.PositionEffect;
+import be.codewriter.dmx512demo.effect.PositionShape;
+import be.codewriter.dmx512demo.fade.FadeEngine;
+import be.codewriter.dmx512demo.fade.FadeTime;
+import be.codewriter.dmx512demo.output.ChannelBinding;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
+import javafx.animation.AnimationTimer;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -11,6 +16,7 @@ import javafx.beans.property.SimpleDoubleProperty;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.Slider;
 import javafx.scene.layout.Pane;
@@ -18,12 +24,10 @@ import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Rectangle;
-import javafx.util.Duration;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.List;
-import java.util.Random;
 
 public class PanTiltController extends VBox {
     private static final Logger LOGGER = LogManager.getLogger(PanTiltController.class.getName());
@@ -31,8 +35,13 @@ public class PanTiltController extends VBox {
     private static final double KNOB_RADIUS = 15;
     private static final double MIN_ANIMATION_AREA_SIZE = 20;
 
-    private final DMXController controller;
-    private final List<DMXClient> clients;
+    private final EffectEngine effects;
+    private final FadeEngine fades;
+    private final ChannelBinding pan;
+    private final ChannelBinding panFine;
+    private final ChannelBinding tilt;
+    private final ChannelBinding tiltFine;
+    private final ChannelBinding panTiltSpeed;
     private final DoubleProperty panValue = new SimpleDoubleProperty(127);
     private final DoubleProperty tiltValue = new SimpleDoubleProperty(127);
     private final DoubleProperty animationSpeedValue = new SimpleDoubleProperty(50);
@@ -45,17 +54,34 @@ public class PanTiltController extends VBox {
     private final Button autoAnimationButton;
     private final Slider speedSlider;
     private final Slider animationSpeedSlider;
-    private final Random random = new Random();
+    private final PositionEffect positionEffect;
+    private final AnimationTimer animationTimer;
+    private final OutputSnapshot.Watch outputValues;
     private boolean isDragging = false;
     private boolean isResizingAnimationArea = false;
     private String resizeMode = "";
-    private Timeline animationTimeline;
-    private double targetX, targetY; // Target position for animation
-    private double currentX, currentY; // Current position during animation
 
-    public PanTiltController(DMXController controller, List<DMXClient> clients) {
-        this.controller = controller;
-        this.clients = clients;
+    public PanTiltController(DMXOutputEngine output, EffectEngine effects, FadeEngine fades, List<DMXClient> clients) {
+        this.effects = effects;
+        this.fades = fades;
+        var programmer = output.getProgrammer();
+        this.pan = ChannelBinding.of(programmer, clients, "pan");
+        this.panFine = ChannelBinding.of(programmer, clients, "pan fine");
+        this.tilt = ChannelBinding.of(programmer, clients, "tilt");
+        this.tiltFine = ChannelBinding.of(programmer, clients, "tilt fine");
+        this.panTiltSpeed = ChannelBinding.of(programmer, clients, "Pan/Tilt Speed");
+        // The effect writes in its own layer, which is released when it stops
+        var effectSource = output.getEffects();
+        this.positionEffect = new PositionEffect(
+                ChannelBinding.of(effectSource, clients, "pan"), ChannelBinding.of(effectSource, clients, "pan fine"),
+                ChannelBinding.of(effectSource, clients, "tilt"), ChannelBinding.of(effectSource, clients, "tilt fine"),
+                PositionShape.RANDOM);
+
+        // The label shows the output, also while the position is faded or animated, sampled once per pulse while shown
+        this.outputValues = OutputSnapshot.getDefault().watch(this, output, this::updateValueLabel,
+                ChannelBinding.of(output, clients, "pan"), ChannelBinding.of(output, clients, "pan fine"),
+                ChannelBinding.of(output, clients, "tilt"), ChannelBinding.of(output, clients, "tilt fine"),
+                ChannelBinding.of(output, clients, "Pan/Tilt Speed"));
 
         setSpacing(10);
         setAlignment(Pos.CENTER);
@@ -91,42 +117,82 @@ public class PanTiltController extends VBox {
         joystick = new Circle(KNOB_RADIUS);
         joystick.getStyleClass().add("joystick-knob");
 
-        // Position joystick at center initially
-        moveJoystickTo(AREA_SIZE / 2, AREA_SIZE / 2);
-
         // Add joystick to the area
         joystickArea.getChildren().addAll(animationArea, joystick);
 
         // Setup mouse events
         setupMouseHandling();
 
-        // Create speed slider
-        speedSlider = new Slider(0, 255, 127);
+        // Create speed slider, starting at the value in the programmer
+        speedSlider = new Slider(0, 255, Math.max(0, panTiltSpeed.getValue()));
         speedSlider.setShowTickLabels(true);
         speedSlider.setShowTickMarks(true);
         speedSlider.setMajorTickUnit(25);
 
+        // Start from the position in the programmer, without sending it again
+        if (pan.isEmpty() || tilt.isEmpty()) {
+            showPosition(32767, 32767);
+        } else {
+            showPosition(get16Bit(pan, panFine), get16Bit(tilt, tiltFine));
+        }
+
         // Create auto-animation controls
         autoAnimationButton = new Button("Enable Auto-Animation");
         autoAnimationButton.setOnAction(e -> toggleAutoAnimation());
 
+        var shapeSelector = new ComboBox<PositionShape>();
+        shapeSelector.getItems().addAll(PositionShape.values());
+        shapeSelector.setValue(PositionShape.RANDOM);
+        shapeSelector.valueProperty().addListener((_, _, newVal) -> positionEffect.setShape(newVal));
+
         animationSpeedSlider = new Slider(1, 100, 50);
         animationSpeedSlider.setShowTickLabels(true);
         animationSpeedSlider.setShowTickMarks(true);
         animationSpeedSlider.setMajorTickUnit(25);
         animationSpeedSlider.disableProperty().bind(autoAnimationEnabled.not());
         animationSpeedValue.bind(animationSpeedSlider.valueProperty());
+        animationSpeedValue.addListener((_, _, newVal) -> positionEffect.setSpeed(newVal.doubleValue() / 100));
+        positionEffect.setSpeed(animationSpeedValue.get() / 100);
 
         Label animationSpeedLabel = new Label("Animation Speed:");
         animationSpeedLabel.disableProperty().bind(autoAnimationEnabled.not());
 
+        // Spread the movement of the fixtures over one cycle
+        var spreadSlider = new Slider(0, 100, 0);
+        spreadSlider.setShowTickLabels(true);
+        spreadSlider.setMajorTickUnit(25);
+        spreadSlider.valueProperty().addListener((_, _, newVal) ->
+                positionEffect.setPhaseSpread(newVal.doubleValue() / 100, pan.size()));
+
+        Label spreadLabel = new Label("Phase Spread (%):");
+
+        // Show the position calculated by the effect, once per pulse
+        animationTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                showEffectPosition();
+            }
+        };
+
+        // The timer only runs while the control is in a scene, the effect itself keeps running in the engine
+        sceneProperty().addListener((_, _, scene) -> {
+            if (scene == null) {
+                animationTimer.stop();
+            } else if (autoAnimationEnabled.get()) {
+                animationTimer.start();
+            }
+        });
+
         // Add components to layout
         getChildren().addAll(
                 joystickArea,
                 speedSlider,
                 autoAnimationButton,
+                shapeSelector,
                 animationSpeedLabel,
                 animationSpeedSlider,
+                spreadLabel,
+                spreadSlider,
                 valueLabel
         );
 
@@ -137,13 +203,8 @@ public class PanTiltController extends VBox {
             LOGGER.error("Error while loading stylesheets: {}", e.getMessage());
         }
 
-        // Send value changes to devices
-        panValue.addListener((_, _, _) -> updateClients());
-        tiltValue.addListener((_, _, _) -> updateClients());
+        // Send speed changes to devices, pan and tilt are sent together by moveJoystickTo
         speedSlider.valueProperty().addListener((_, _, _) -> updateClients());
-
-        // Send initial values
-        updateClients();
     }
 
     private void toggleAutoAnimation() {
@@ -159,71 +220,48 @@ public class PanTiltController extends VBox {
         autoAnimationEnabled.set(true);
         autoAnimationButton.setText("Disable Auto-Animation");
 
-        // Set initial position to current joystick position
-        currentX = joystick.getCenterX();
-        currentY = joystick.getCenterY();
-
-        // Generate first random target
-        generateRandomTarget();
-
-        animationTimeline = new Timeline(new KeyFrame(Duration.millis(50), e -> updateAnimation()));
-        animationTimeline.setCycleCount(Timeline.INDEFINITE);
-        animationTimeline.play();
+        updateEffectArea();
+        effects.start(positionEffect);
+        animationTimer.start();
     }
 
-    private void generateRandomTarget() {
-        double areaX = animationArea.getX();
-        double areaY = animationArea.getY();
-        double areaWidth = animationArea.getWidth();
-        double areaHeight = animationArea.getHeight();
+    private void stopAutoAnimation() {
+        autoAnimationEnabled.set(false);
+        autoAnimationButton.setText("Enable Auto-Animation");
 
-        // Generate random target within animation area bounds
-        targetX = areaX + (random.nextDouble() * areaWidth);
-        targetY = areaY + (random.nextDouble() * areaHeight);
+        effects.stop(positionEffect);
+        animationTimer.stop();
 
-        // Ensure target is within joystick bounds
-        targetX = Math.max(KNOB_RADIUS, Math.min(targetX, AREA_SIZE - KNOB_RADIUS));
-        targetY = Math.max(KNOB_RADIUS, Math.min(targetY, AREA_SIZE - KNOB_RADIUS));
+        // Continue manual control from the last position of the effect
+        showEffectPosition();
+        moveJoystickTo(joystick.getCenterX(), joystick.getCenterY());
     }
 
-    private void updateAnimation() {
-        double speed = animationSpeedValue.get() / 1000.0; // Convert to reasonable animation speed
-
-        // Calculate direction to target
-        double deltaX = targetX - currentX;
-        double deltaY = targetY - currentY;
-        double distance = Math.sqrt(deltaX * deltaX + deltaY * deltaY);
-
-        if (distance < 2.0) {
-            // Reached target, generate new random target
-            generateRandomTarget();
-            return;
-        }
-
-        // Move towards target
-        double normalizedDeltaX = deltaX / distance;
-        double normalizedDeltaY = deltaY / distance;
-
-        double moveDistance = speed * 20; // Adjust multiplier for desired speed
-        currentX += normalizedDeltaX * moveDistance;
-        currentY += normalizedDeltaY * moveDistance;
-
-        // Ensure current position stays within bounds
-        currentX = Math.max(KNOB_RADIUS, Math.min(currentX, AREA_SIZE - KNOB_RADIUS));
-        currentY = Math.max(KNOB_RADIUS, Math.min(currentY, AREA_SIZE - KNOB_RADIUS));
-
-        moveJoystickTo(currentX, currentY);
+    /**
+     * Convert the animation area to the part of the pan and tilt range the effect must use.
+     */
+    private void updateEffectArea() {
+        double range = AREA_SIZE - 2 * KNOB_RADIUS;
+        double centerX = animationArea.getX() + animationArea.getWidth() / 2;
+        double centerY = animationArea.getY() + animationArea.getHeight() / 2;
+        positionEffect.setArea((centerX - KNOB_RADIUS) / range, (centerY - KNOB_RADIUS) / range,
+                animationArea.getWidth() / range, animationArea.getHeight() / range);
     }
 
+    private void showEffectPosition() {
+        showPosition(positionEffect.getLastPan(), positionEffect.getLastTilt());
+    }
 
-    private void stopAutoAnimation() {
-        autoAnimationEnabled.set(false);
-        autoAnimationButton.setText("Enable Auto-Animation");
+    private void showPosition(int panPosition, int tiltPosition) {
+        double range = AREA_SIZE - 2 * KNOB_RADIUS;
+        joystick.setCenterX(KNOB_RADIUS + (panPosition / 65535.0) * range);
+        joystick.setCenterY(KNOB_RADIUS + (tiltPosition / 65535.0) * range);
+        panValue.set(panPosition);
+        tiltValue.set(tiltPosition);
+    }
 
-        if (animationTimeline != null) {
-            animationTimeline.stop();
-            animationTimeline = null;
-        }
+    private static int get16Bit(ChannelBinding coarse, ChannelBinding fine) {
+        return coarse.getValue() << 8 | Math.max(0, fine.getValue());
     }
 
     private void setupMouseHandling() {
@@ -398,6 +436,7 @@ public class PanTiltController extends VBox {
         animationArea.setY(newY);
         animationArea.setWidth(newWidth);
         animationArea.setHeight(newHeight);
+        updateEffectArea();
     }
 
 
@@ -412,38 +451,28 @@ public class PanTiltController extends VBox {
 
         panValue.set(normalizedX * 65535);
         tiltValue.set(normalizedY * 65535);
+
+        updateClients();
+    }
+
+    private void updateValueLabel() {
+        var panDegrees = Math.round(get16Bit(0, 1) / 65535.0 * 360);
+        var tiltDegrees = 180 - Math.round(get16Bit(2, 3) / 65535.0 * 180);
+        var speed = Math.max(0, outputValues.getValue(4));
+
+        valueLabel.setText("Pan: " + panDegrees + "°, Tilt: " + tiltDegrees + "°, Speed: " + speed);
+    }
+
+    private int get16Bit(int coarse, int fine) {
+        return Math.max(0, outputValues.getValue(coarse)) << 8 | Math.max(0, outputValues.getValue(fine));
     }
 
     private void updateClients() {
-        var currentPanValue = panValue.getValue().intValue();
-        int panCoarse = currentPanValue / 256;
-        int panFine = currentPanValue % 256;
-        double panDegrees = ((currentPanValue * 1.0) / 65535) * 360;
-
-        var currentTiltValue = tiltValue.getValue().intValue();
-        int tiltCoarse = currentTiltValue / 256;
-        int tiltFine = currentTiltValue % 256;
-        double tiltDegrees = 180 - ((currentTiltValue * 1.0) / 65535) * 180;
-
-        valueLabel.setText(String.format("Pan: %.0f°, Tilt: %.0f°, Speed: %.0f",
-                panDegrees, tiltDegrees, speedSlider.getValue()));
-
-        clients.stream()
-                .filter(c -> c.hasChannel("pan"))
-                .forEach(c -> c.setValue("pan", (byte) panCoarse));
-        clients.stream()
-                .filter(c -> c.hasChannel("pan fine"))
-                .forEach(c -> c.setValue("pan fine", (byte) panFine));
-        clients.stream()
-                .filter(c -> c.hasChannel("tilt"))
-                .forEach(c -> c.setValue("tilt", (byte) tiltCoarse));
-        clients.stream()
-                .filter(c -> c.hasChannel("tilt fine"))
-                .forEach(c -> c.setValue("tilt fine", (byte) tiltFine));
-        clients.stream()
-                .filter(c -> c.hasChannel("Pan/Tilt Speed"))
-                .forEach(c -> c.setValue("Pan/Tilt Speed", (byte) speedSlider.getValue()));
-
-        controller.render(clients);
+        // Pan and tilt are faded as 16-bit values, one batch starts them and sets the speed in the same frame
+        fades.batch()
+                .fadeTo(pan, panFine, panValue.getValue().intValue())
+                .fadeTo(tilt, tiltFine, tiltValue.getValue().intValue())
+                .fadeTo(panTiltSpeed, (byte) speedSlider.getValue(), FadeTime.NONE)
+                .submit();
     }
 }
\ No newline at end of file
@@ -1,56 +1,90 @@
 package be.codewriter.dmx512demo.client;
 
 import be.codewriter.dmx512.client.DMXClient;
-import be.codewriter.dmx512.controller.DMXController;
-import be.codewriter.dmx512demo.helper.ColorHelper;
+import be.codewriter.dmx512demo.fade.FadeEngine;
+import be.codewriter.dmx512demo.output.ChannelBinding;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
 import javafx.geometry.Insets;
 import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.control.Slider;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.Border;
+import javafx.scene.layout.BorderStroke;
+import javafx.scene.layout.BorderStrokeStyle;
+import javafx.scene.layout.BorderWidths;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 
 import java.util.List;
-import java.util.function.IntConsumer;
 
+/**
+ * The color boxes show the output, sampled once per pulse by the {@link OutputSnapshot}. They are drawn with
+ * backgrounds and borders that are created once, instead of CSS styles that are parsed on every change.
+ * <p>
+ * The sliders start at the values in the programmer, the controller itself doesn't change the output until a slider
+ * is moved.
+ */
 public class RGBController extends VBox {
-    private final DMXController controller;
+    private static final BorderWidths BORDER_WIDTH = new BorderWidths(2);
+    private static final String[] KEYS = {"Red", "Green", "Blue"};
+    private static final Color[] COLORS = {Color.RED, Color.GREEN, Color.BLUE};
+
+    private final DMXOutputEngine output;
     private final List<DMXClient> clients;
+    private final FadeEngine fades;
+    private final Region[] levels = new Region[KEYS.length];
+    private final Region rgbColorBox;
+    private final OutputSnapshot.Watch outputValues;
 
-    public RGBController(DMXController controller, List<DMXClient> clients) {
-        this.controller = controller;
+    public RGBController(DMXOutputEngine output, FadeEngine fades, List<DMXClient> clients) {
+        this.output = output;
         this.clients = clients;
-        var rgbColorBox = new RGBColorBox(255, 255, 255);
-        var red = getSlider(rgbColorBox::setRed, "Red", Color.RED);
-        var green = getSlider(rgbColorBox::setGreen, "Green", Color.GREEN);
-        var blue = getSlider(rgbColorBox::setBlue, "Blue", Color.BLUE);
-        var sliders = new HBox(red, green, blue);
+        this.fades = fades;
+
+        rgbColorBox = new Region();
+        rgbColorBox.setPrefHeight(20);
+        rgbColorBox.setBorder(getBorder(Color.BLACK));
+
+        var sliders = new HBox();
+        var displayed = new ChannelBinding[KEYS.length];
+        for (int i = 0; i < KEYS.length; i++) {
+            sliders.getChildren().add(getSlider(i));
+            displayed[i] = ChannelBinding.of(output, clients, KEYS[i]);
+        }
         sliders.setAlignment(Pos.CENTER);
         getChildren().addAll(rgbColorBox, sliders);
+
+        outputValues = OutputSnapshot.getDefault().watch(this, output, this::showOutput, displayed);
+    }
+
+    private static Border getBorder(Color color) {
+        return new Border(new BorderStroke(color, BorderStrokeStyle.SOLID, null, BORDER_WIDTH));
     }
 
-    private static String getColorBoxStyle(Color color1, double opacity1, Color color2, double opacity2) {
-        return "-fx-background-color: " + ColorHelper.getCssRGBA(color1, opacity1) + ";"
-                + "-fx-border-color: " + ColorHelper.getCssRGBA(color2, opacity2) + ";"
-                + "-fx-border-width: 2px;";
+    private static Background getBackground(Color color) {
+        return new Background(new BackgroundFill(color, null, null));
     }
 
-    private VBox getSlider(IntConsumer colorSetter, String key, Color color) {
+    private VBox getSlider(int index) {
         var holder = new VBox();
         holder.setPrefWidth(50);
         holder.setSpacing(10);
         holder.setAlignment(Pos.TOP_CENTER);
-        holder.getChildren().add(new Label(key));
+        holder.getChildren().add(new Label(KEYS[index]));
 
-        // For this approach, a Pane or Region works better than a Box
-        var colorBox = new StackPane();
+        // The border keeps the full color, the level inside it shows the output value as opacity
+        var level = new Region();
+        level.setBackground(getBackground(COLORS[index]));
+        levels[index] = level;
+        var colorBox = new StackPane(level);
         colorBox.setPrefHeight(20);
-
-        // Apply style with border
-        colorBox.setStyle(getColorBoxStyle(color, 1, color, 1));
+        colorBox.setBorder(getBorder(COLORS[index]));
 
         // Make colorBox fill the width of the holder
         colorBox.setMaxWidth(Double.MAX_VALUE);
@@ -58,70 +92,32 @@ public class RGBController extends VBox {
 
         holder.getChildren().add(colorBox);
 
-        var slider = new Slider(0, 255, 255);
+        var binding = ChannelBinding.of(output.getProgrammer(), clients, KEYS[index]);
+
+        var slider = new Slider(0, 255, Math.max(0, binding.getValue()));
         slider.setOrientation(Orientation.VERTICAL);
         slider.setShowTickLabels(true);
         slider.setShowTickMarks(true);
         slider.setMajorTickUnit(25);
         holder.getChildren().add(slider);
 
-        // Bind opacity of the colorBox material to the slider value
-        slider.valueProperty().addListener((obs, oldVal, newVal) -> {
-            // Convert slider value (0-100) to opacity (0-1)
-            double sliderPercentage = slider.getValue() / slider.getMax();
-
-            // Update the style with new opacity
-            colorBox.setStyle(getColorBoxStyle(color, sliderPercentage, color, 1));
-
-            // Update the color value through the setter
-            colorSetter.accept((int) (255.0 * sliderPercentage));
-
-            // Update the client values
-            updateClients(key, (byte) (255.0 * sliderPercentage));
-        });
-
-        updateClients(key, (byte) (255.0 * (slider.getValue() / slider.getMax())));
+        // Only the client values are updated on every change, the color boxes follow in the next pulse
+        slider.valueProperty().addListener((_, _, _) ->
+                updateClients(binding, (byte) (255.0 * (slider.getValue() / slider.getMax()))));
 
         return holder;
     }
 
-    private void updateClients(String key, byte value) {
-        clients.stream()
-                .filter(c -> c.hasChannel(key))
-                .forEach(c -> c.setValue(key, value));
-        controller.render(clients);
-    }
-
-    private static class RGBColorBox extends StackPane {
-        private int red;
-        private int green;
-        private int blue;
-
-        public RGBColorBox(int red, int green, int blue) {
-            this.red = red;
-            this.green = green;
-            this.blue = blue;
-            updateColor();
-            setPrefHeight(20);
-        }
-
-        public void setRed(int red) {
-            this.red = red;
-            updateColor();
-        }
-
-        public void setGreen(int green) {
-            this.green = green;
-            updateColor();
-        }
-
-        public void setBlue(int blue) {
-            this.blue = blue;
-            updateColor();
+    private void showOutput() {
+        var rgb = new int[KEYS.length];
+        for (int i = 0; i < KEYS.length; i++) {
+            rgb[i] = Math.max(0, outputValues.getValue(i));
+            levels[i].setOpacity(rgb[i] / 255.0);
         }
+        rgbColorBox.setBackground(getBackground(Color.rgb(rgb[0], rgb[1], rgb[2])));
+    }
 
-        private void updateColor() {
-            setStyle(getColorBoxStyle(Color.color(red / 255.0, green / 255.0, blue / 255.0), 1, Color.BLACK, 1));
-        }
+    private void updateClients(ChannelBinding binding, byte value) {
+        fades.fadeTo(binding, value);
     }
 }
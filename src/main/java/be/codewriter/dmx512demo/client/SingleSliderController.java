@@ -1,7 +1,9 @@
 package be.codewriter.dmx512demo.client;
 
 import be.codewriter.dmx512.client.DMXClient;
-import be.codewriter.dmx512.controller.DMXController;
+import be.codewriter.dmx512demo.fade.FadeEngine;
+import be.codewriter.dmx512demo.output.ChannelBinding;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
 import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
@@ -10,21 +12,32 @@ import javafx.scene.layout.VBox;
 
 import java.util.List;
 
+/**
+ * A slider for one channel. It starts at the value the channel has in the programmer, the controller itself doesn't
+ * change the output until the slider is moved.
+ */
 public class SingleSliderController extends VBox {
-    private final DMXController controller;
-    private final List<DMXClient> clients;
+    private final FadeEngine fades;
+    private final ChannelBinding binding;
 
-    public SingleSliderController(DMXController controller, List<DMXClient> clients, String key, int defaultValue, Orientation orientation) {
-        this.controller = controller;
-        this.clients = clients;
+    public SingleSliderController(DMXOutputEngine output, FadeEngine fades, List<DMXClient> clients, String key, Orientation orientation) {
+        this(fades, ChannelBinding.of(output.getProgrammer(), clients, key), key, orientation);
+    }
+
+    /**
+     * Control an existing binding, e.g. the channel of a {@link be.codewriter.dmx512demo.output.FixtureGroup}.
+     */
+    public SingleSliderController(FadeEngine fades, ChannelBinding binding, String title, Orientation orientation) {
+        this.fades = fades;
+        this.binding = binding;
 
         setAlignment(Pos.TOP_CENTER);
         setSpacing(10);
 
-        var title = new Label(key);
+        var label = new Label(title);
 
 
-        var slider = new Slider(0, 255, defaultValue);
+        var slider = new Slider(0, 255, Math.max(0, binding.getValue()));
         slider.setOrientation(orientation);
         slider.setShowTickLabels(true);
         slider.setShowTickMarks(true);
@@ -35,19 +48,13 @@ public class SingleSliderController extends VBox {
             double sliderPercentage = slider.getValue() / slider.getMax();
 
             // Update the client values
-            updateClients(key, (byte) (255.0 * sliderPercentage));
+            updateClients((byte) (255.0 * sliderPercentage));
         });
 
-        updateClients(key, (byte) (255.0 * (slider.getValue() / slider.getMax())));
-
-        getChildren().addAll(title, slider);
+        getChildren().addAll(label, slider);
     }
 
-    private void updateClients(String key, byte value) {
-        clients.stream()
-                .filter(c -> c.hasChannel(key))
-                .forEach(c -> c.setValue(key, value));
-
-        controller.render(clients);
+    private void updateClients(byte value) {
+        fades.fadeTo(binding, value);
     }
 }
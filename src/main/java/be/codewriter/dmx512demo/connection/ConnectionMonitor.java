@@ -1,6 +1,7 @@
 package be.codewriter.dmx512demo.connection;
 
 import be.codewriter.dmx512.controller.DMXController;
+import be.codewriter.dmx512demo.patch.PatchOutput;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
@@ -10,6 +11,18 @@ public class ConnectionMonitor extends HBox {
     public ConnectionMonitor(DMXController controller) {
         this.getChildren().addAll(new Label(controller.getType() + " connection " + controller.getAddress()),
                 new OnOffIndicator("Is connected", controller));
+        initLayout();
+    }
+
+    /**
+     * Art-Net is sent over UDP without connection, so only the destination is shown.
+     */
+    public ConnectionMonitor(PatchOutput output) {
+        this.getChildren().add(new Label("Art-Net universe " + output.universe() + " to " + output.address().getHostAddress()));
+        initLayout();
+    }
+
+    private void initLayout() {
         this.setPrefWidth(250);
         this.setPadding(new Insets(10));
         this.setSpacing(10);
@@ -0,0 +1,56 @@
+package be.codewriter.dmx512demo.control;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One message to an address of the {@link ShowControl}, with its values.
+ *
+ * @param levels true if the values are levels from 0.0 to 1.0, false if they are DMX values from 0 to 255
+ */
+public record ControlCommand(String address, float[] values, boolean levels) {
+    private static final float[] NO_VALUES = new float[0];
+
+    /**
+     * Parse the text format, a command per line with its values separated by spaces, e.g.
+     * <pre>
+     * /group/Pars/red,green,blue 1.0 0.5 0.0
+     * /universe/1/12 255
+     * /cue/go
+     * </pre>
+     * A value with a decimal point is a level, so all values of a line must use the same notation.
+     *
+     * @throws IllegalArgumentException if a value is not a number
+     */
+    public static List<ControlCommand> parse(String text) {
+        var commands = new ArrayList<ControlCommand>();
+        for (String line : text.split("\n")) {
+            var fields = line.strip().split("\\s+");
+            if (fields[0].isEmpty() || fields[0].startsWith("#")) {
+                continue;
+            }
+            var values = fields.length == 1 ? NO_VALUES : new float[fields.length - 1];
+            var levels = false;
+            for (int i = 1; i < fields.length; i++) {
+                values[i - 1] = Float.parseFloat(fields[i]);
+                levels |= fields[i].indexOf('.') >= 0;
+            }
+            commands.add(new ControlCommand(fields[0], values, levels));
+        }
+        return commands;
+    }
+
+    /**
+     * @return the value as a DMX value
+     */
+    public byte getValue(int index) {
+        var value = levels ? Math.clamp(values[index], 0, 1) * 255 : Math.clamp(values[index], 0, 255);
+        return (byte) Math.round(value);
+    }
+
+    @Override
+    public String toString() {
+        return address + " " + Arrays.toString(values);
+    }
+}
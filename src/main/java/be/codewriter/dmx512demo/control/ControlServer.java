@@ -0,0 +1,233 @@
+package be.codewriter.dmx512demo.control;
+
+import be.codewriter.dmx512demo.cue.Cue;
+import be.codewriter.dmx512demo.cue.CuePlayer;
+import be.codewriter.dmx512demo.fade.FadeCurve;
+import be.codewriter.dmx512demo.fade.FadeTime;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+/**
+ * Controls the show over HTTP on http://localhost:&lt;port&gt;, so it can be used without the UI:
+ * <pre>
+ * GET  /status                                  the cues and groups
+ * POST /cue/go
+ * POST /cue/back
+ * POST /cue/goto?index=&lt;cue number&gt;
+ * POST /cue/record?name=&lt;name&gt;[&amp;fade=&lt;milliseconds&gt;][&amp;follow=&lt;milliseconds&gt;]
+ * POST /group/&lt;name&gt;?channel=&lt;channel&gt;&amp;level=&lt;0 to 1&gt;
+ * POST /release                                 give up all values of the programmer
+ * POST /batch                                   commands of {@link ShowControl} in the body, applied in one frame
+ * </pre>
+ * Only bound to the loopback address, like the metrics. A browser still sends a POST from any web page that is open
+ * on this machine, so the requests that change the show must have the {@value #CONTROL_HEADER} header, which a page
+ * can't add without the consent of this server, and an Origin header, if any, of an allowed page:
+ * <pre>
+ * curl -X POST -H "X-Show-Control: 1" http://localhost:9465/cue/go
+ * </pre>
+ */
+public class ControlServer {
+    public static final int DEFAULT_PORT = 9465;
+    public static final String CONTROL_HEADER = "X-Show-Control";
+    private static final Logger LOGGER = LogManager.getLogger(ControlServer.class.getName());
+    private static final int MAX_BATCH_SIZE = 64 * 1024;
+
+    private final DMXOutputEngine output;
+    private final CuePlayer cuePlayer;
+    private final ShowControl control;
+    private final Set<String> origins;
+    private final int port;
+    private HttpServer server;
+
+    /**
+     * @param origins the allowed Origin headers, see {@link be.codewriter.dmx512demo.patch.PatchControl}
+     */
+    public ControlServer(DMXOutputEngine output, CuePlayer cuePlayer, ShowControl control, Set<String> origins,
+                         int port) {
+        this.output = output;
+        this.cuePlayer = cuePlayer;
+        this.control = control;
+        this.origins = Set.copyOf(origins);
+        this.port = port;
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/status", exchange -> handle(exchange, "GET", this::status));
+        server.createContext("/cue/go", exchange -> handle(exchange, "POST", _ -> {
+            cuePlayer.go();
+            return "";
+        }));
+        server.createContext("/cue/back", exchange -> handle(exchange, "POST", _ -> {
+            cuePlayer.back();
+            return "";
+        }));
+        server.createContext("/cue/goto", exchange -> handle(exchange, "POST", this::goTo));
+        server.createContext("/cue/record", exchange -> handle(exchange, "POST", this::record));
+        server.createContext("/group/", exchange -> handle(exchange, "POST", this::setGroup));
+        server.createContext("/release", exchange -> handle(exchange, "POST", _ -> {
+            output.getProgrammer().release();
+            return "";
+        }));
+        server.createContext("/batch", exchange -> handle(exchange, "POST", this::batch));
+        server.start();
+        LOGGER.info("Control available on http://localhost:{}", port);
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        server = null;
+    }
+
+    private String status(HttpExchange exchange) {
+        var sb = new StringBuilder();
+        var cues = cuePlayer.getCues();
+        var current = cuePlayer.getCurrentIndex();
+        for (int i = 0; i < cues.size(); i++) {
+            sb.append(i == current ? "> " : "  ").append("cue ").append(i + 1).append(' ')
+                    .append(cues.get(i).name()).append('\n');
+        }
+        output.getGroups().forEach(g -> sb.append("group ").append(g.getName())
+                .append(" (").append(g.size()).append(" fixtures)\n"));
+        return sb.toString();
+    }
+
+    private String goTo(HttpExchange exchange) {
+        cuePlayer.goTo(Integer.parseInt(getParameter(exchange, "index")) - 1);
+        return "";
+    }
+
+    private String record(HttpExchange exchange) {
+        var parameters = getParameters(exchange);
+        var fade = Long.parseLong(parameters.getOrDefault("fade", "0"));
+        var follow = parameters.containsKey("follow") ? Long.parseLong(parameters.get("follow")) : Cue.NO_FOLLOW;
+        var name = parameters.getOrDefault("name", "Cue " + (cuePlayer.getCues().size() + 1));
+        cuePlayer.record(name, new FadeTime(fade, fade, FadeCurve.LINEAR), follow);
+        return "";
+    }
+
+    private String setGroup(HttpExchange exchange) {
+        var name = decode(exchange.getRequestURI().getRawPath().substring("/group/".length()));
+        var group = output.getGroup(name);
+        if (group == null) {
+            throw new StatusException(404, "Unknown group: " + name);
+        }
+        group.setLevel(getParameter(exchange, "channel"), Double.parseDouble(getParameter(exchange, "level")));
+        return "";
+    }
+
+    private String batch(HttpExchange exchange) throws IOException {
+        var body = exchange.getRequestBody().readNBytes(MAX_BATCH_SIZE + 1);
+        if (body.length > MAX_BATCH_SIZE) {
+            throw new StatusException(413, "Batch larger than " + MAX_BATCH_SIZE + " bytes");
+        }
+        control.apply(ControlCommand.parse(new String(body, StandardCharsets.UTF_8)));
+        return "";
+    }
+
+    private void handle(HttpExchange exchange, String method, Action action) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals(method)) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            if (method.equals("POST") && !isAllowed(exchange)) {
+                LOGGER.warn("Control request {} from origin {} refused", exchange.getRequestURI().getPath(),
+                        exchange.getRequestHeaders().getFirst("Origin"));
+                exchange.sendResponseHeaders(403, -1);
+                return;
+            }
+            String response;
+            int status;
+            try {
+                response = action.run(exchange);
+                status = 200;
+            } catch (StatusException e) {
+                response = e.getMessage() + "\n";
+                status = e.status;
+            } catch (IllegalArgumentException e) {
+                // Also thrown for numbers that can't be parsed
+                response = e.getMessage() + "\n";
+                status = 400;
+            } catch (IllegalStateException e) {
+                // The output is busy, e.g. no consistent frame to record a cue from
+                response = e.getMessage() + "\n";
+                status = 503;
+            }
+            var body = response.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    /**
+     * The same rule as the WebSocket handshake for the Origin, and a header that a simple request from a web page
+     * can't have, so the browser asks this server first, which doesn't answer with CORS headers.
+     */
+    private boolean isAllowed(HttpExchange exchange) {
+        var headers = exchange.getRequestHeaders();
+        var origin = headers.getFirst("Origin");
+        return (origin == null || origins.contains(origin)) && headers.containsKey(CONTROL_HEADER);
+    }
+
+    private static String getParameter(HttpExchange exchange, String name) {
+        var value = getParameters(exchange).get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    private static Map<String, String> getParameters(HttpExchange exchange) {
+        var parameters = new HashMap<String, String>();
+        var query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            var separator = parameter.indexOf('=');
+            if (separator > 0) {
+                parameters.put(decode(parameter.substring(0, separator)), decode(parameter.substring(separator + 1)));
+            }
+        }
+        return parameters;
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private interface Action {
+        String run(HttpExchange exchange) throws IOException;
+    }
+
+    private static class StatusException extends RuntimeException {
+        private final int status;
+
+        private StatusException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package be.codewriter.dmx512demo.control;
+
+import be.codewriter.dmx512demo.logging.SampledLogger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Receives Open Sound Control messages over UDP, e.g. from a tablet app or a show-control system, and applies them
+ * with the {@link ShowControl}. Int arguments are DMX values, float arguments are levels.
+ * <p>
+ * All messages of one packet are applied in one frame, so a bundle, or a message to several channels like
+ * /group/Pars/red,green,blue with three arguments, changes the output at once. Time tags of bundles are ignored,
+ * bundles are applied when they arrive.
+ * <p>
+ * The packets are received on a virtual thread into one reused buffer. OSC has no authentication, so the server
+ * only listens on the loopback address, unless another address is set in the patch.
+ */
+public class OscServer {
+    public static final int DEFAULT_PORT = 9000;
+    private static final Logger LOGGER = LogManager.getLogger(OscServer.class.getName());
+    private static final SampledLogger ERROR_LOGGER = new SampledLogger("control.osc", Duration.ofSeconds(5));
+    private static final String BUNDLE = "#bundle";
+    private static final int MAX_PACKET_SIZE = 65_507;
+
+    private final ShowControl control;
+    private final InetAddress address;
+    private final int port;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_PACKET_SIZE);
+    private final List<ControlCommand> commands = new ArrayList<>();
+    private DatagramChannel channel;
+    private Thread thread;
+
+    /**
+     * @param address the local address to listen on, see {@link be.codewriter.dmx512demo.patch.PatchControl}
+     */
+    public OscServer(ShowControl control, InetAddress address, int port) {
+        this.control = control;
+        this.address = address;
+        this.port = port;
+    }
+
+    public synchronized void start() throws IOException {
+        if (thread != null) {
+            return;
+        }
+        channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(address, port));
+        thread = Thread.ofVirtual().name("osc-server").start(this::run);
+        LOGGER.info("OSC control available on UDP {}:{}", address.getHostAddress(), port);
+    }
+
+    public synchronized void stop() {
+        if (thread == null) {
+            return;
+        }
+        try {
+            // Also ends the blocking receive
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Error closing OSC channel: {}", e.getMessage());
+        }
+        thread = null;
+    }
+
+    private void run() {
+        while (channel.isOpen()) {
+            try {
+                channel.receive(buffer.clear());
+                buffer.flip();
+                commands.clear();
+                parsePacket(buffer, commands);
+                control.apply(commands);
+            } catch (AsynchronousCloseException e) {
+                return;
+            } catch (Exception e) {
+                ERROR_LOGGER.warn("Invalid OSC packet: {}", e.getMessage(), null);
+            }
+        }
+    }
+
+    /**
+     * @param packet a message or a bundle, from its position up to its limit
+     */
+    static void parsePacket(ByteBuffer packet, List<ControlCommand> commands) {
+        var address = getString(packet);
+        if (!address.equals(BUNDLE)) {
+            commands.add(parseMessage(address, packet));
+            return;
+        }
+        // Time tag
+        packet.getLong();
+        while (packet.hasRemaining()) {
+            var size = packet.getInt();
+            if (size < 0 || size > packet.remaining()) {
+                throw new IllegalArgumentException("Invalid bundle element size " + size);
+            }
+            var end = packet.position() + size;
+            var limit = packet.limit();
+            parsePacket(packet.limit(end), commands);
+            packet.limit(limit).position(end);
+        }
+    }
+
+    private static ControlCommand parseMessage(String address, ByteBuffer packet) {
+        var tags = packet.hasRemaining() ? getString(packet) : ",";
+        var values = new float[tags.length() - 1];
+        var count = 0;
+        var levels = false;
+        for (int i = 1; i < tags.length(); i++) {
+            switch (tags.charAt(i)) {
+                case 'i' -> values[count++] = packet.getInt();
+                case 'h' -> values[count++] = packet.getLong();
+                case 'f' -> {
+                    values[count++] = packet.getFloat();
+                    levels = true;
+                }
+                case 'd' -> {
+                    values[count++] = (float) packet.getDouble();
+                    levels = true;
+                }
+                case 'T' -> values[count++] = 1;
+                case 'F' -> values[count++] = 0;
+                case 's', 'S' -> getString(packet);
+                case 'b' -> {
+                    var size = packet.getInt();
+                    if (size < 0 || align(size) > packet.remaining()) {
+                        throw new IllegalArgumentException("Invalid OSC blob size " + size);
+                    }
+                    packet.position(packet.position() + align(size));
+                }
+                case 'N', 'I' -> {
+                    // No data
+                }
+                default -> throw new IllegalArgumentException("Unsupported OSC type " + tags.charAt(i));
+            }
+        }
+        return new ControlCommand(address, count == values.length ? values : Arrays.copyOf(values, count), levels);
+    }
+
+    /**
+     * Read a string that ends with a zero and is padded to a multiple of four bytes.
+     */
+    private static String getString(ByteBuffer packet) {
+        var start = packet.position();
+        var end = start;
+        while (end < packet.limit() && packet.get(end) != 0) {
+            end++;
+        }
+        if (end == packet.limit()) {
+            throw new IllegalArgumentException("Unterminated OSC string");
+        }
+        var bytes = new byte[end - start];
+        packet.get(bytes);
+        packet.position(start + align(end - start + 1));
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static int align(int size) {
+        return (size + 3) & ~3;
+    }
+}
@@ -0,0 +1,202 @@
+package be.codewriter.dmx512demo.control;
+
+import be.codewriter.dmx512demo.cue.CuePlayer;
+import be.codewriter.dmx512demo.logging.SampledLogger;
+import be.codewriter.dmx512demo.output.ChannelBinding;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
+import be.codewriter.dmx512demo.output.DMXUniverse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies the {@link ControlCommand}s of the remote control servers to the programmer and the cue list,
+ * without going through the UI. The addresses are:
+ * <pre>
+ * /group/&lt;name&gt;/&lt;channel&gt;[,&lt;channel&gt;...]   a value per channel, for all fixtures of the group
+ * /universe/&lt;universe&gt;/&lt;address&gt;             values from the address on
+ * /cue/go
+ * /cue/back
+ * /cue/goto                                   the cue number as value
+ * /release                                    give up all values of the programmer
+ * </pre>
+ * Each address is resolved once to its channel bindings, for up to 1024 addresses, unknown ones included. All
+ * channel values of a batch are written in one frame, so they are sent together. The frame only holds the universes
+ * the batch writes to. A button that sends its release as 0 doesn't trigger a GO or BACK.
+ */
+public class ShowControl {
+    private static final SampledLogger ERROR_LOGGER = new SampledLogger("control.error", Duration.ofSeconds(5));
+    private static final String GROUP = "group";
+    private static final String UNIVERSE = "universe";
+    private static final int MAX_TARGETS = 1024;
+    // Kept for addresses that can't be resolved, so they're not resolved again for every message
+    private static final ActionTarget UNKNOWN = _ -> {
+    };
+
+    private final DMXOutputEngine output;
+    private final CuePlayer cuePlayer;
+    private final Map<String, Target> targets = new ConcurrentHashMap<>();
+
+    public ShowControl(DMXOutputEngine output, CuePlayer cuePlayer) {
+        this.output = output;
+        this.cuePlayer = cuePlayer;
+    }
+
+    /**
+     * Apply the commands in order, unknown addresses are skipped.
+     */
+    public void apply(List<ControlCommand> commands) {
+        // Channel values are written while holding the universes they're on, cue actions after, as they take
+        // other locks
+        var resolved = new ArrayList<Target>(commands.size());
+        var universes = new ArrayList<DMXUniverse>();
+        for (ControlCommand command : commands) {
+            var target = getTarget(command.address());
+            if (target instanceof ChannelTarget channels) {
+                channels.addUniverses(universes);
+            }
+            resolved.add(target);
+        }
+        if (!universes.isEmpty()) {
+            try (var _ = output.getProgrammer().beginFrame(universes)) {
+                for (int i = 0; i < commands.size(); i++) {
+                    if (resolved.get(i) instanceof ChannelTarget channels) {
+                        channels.apply(commands.get(i));
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < commands.size(); i++) {
+            if (resolved.get(i) instanceof ActionTarget action) {
+                action.apply(commands.get(i));
+            }
+        }
+    }
+
+    /**
+     * @return the target of the address, {@link #UNKNOWN} if it can't be resolved
+     */
+    private Target getTarget(String address) {
+        var target = targets.get(address);
+        if (target != null) {
+            return target;
+        }
+        try {
+            target = resolve(address);
+        } catch (RuntimeException e) {
+            ERROR_LOGGER.warn("Unknown control address {}: {}", address, e.getMessage());
+            target = UNKNOWN;
+        }
+        // The addresses are chosen by the sender, so only a limited number is kept
+        if (targets.size() < MAX_TARGETS) {
+            targets.putIfAbsent(address, target);
+        }
+        return target;
+    }
+
+    private Target resolve(String address) {
+        var parts = address.split("/");
+        if (parts.length < 2 || !parts[0].isEmpty()) {
+            throw new IllegalArgumentException("not an address");
+        }
+        return switch (parts[1]) {
+            case GROUP -> {
+                var group = output.getGroup(parts.length == 4 ? parts[2] : null);
+                if (group == null) {
+                    throw new IllegalArgumentException("no such group");
+                }
+                var keys = parts[3].split(",");
+                var bindings = new ChannelBinding[keys.length];
+                for (int i = 0; i < keys.length; i++) {
+                    bindings[i] = group.getBinding(keys[i]);
+                    if (bindings[i].isEmpty()) {
+                        throw new IllegalArgumentException("no such channel " + keys[i]);
+                    }
+                }
+                yield new GroupTarget(bindings);
+            }
+            case UNIVERSE -> {
+                var universe = output.getProgrammer().getUniverse(parts.length == 4 ? Integer.parseInt(parts[2]) : -1);
+                var start = parts.length == 4 ? Integer.parseInt(parts[3]) : 0;
+                if (universe == null || start < 1 || start > DMXUniverse.SIZE) {
+                    throw new IllegalArgumentException("no such slot");
+                }
+                yield new SlotTarget(universe, start);
+            }
+            case "cue" -> switch (parts.length == 3 ? parts[2] : "") {
+                case "go" -> (ActionTarget) command -> {
+                    if (isPressed(command)) {
+                        cuePlayer.go();
+                    }
+                };
+                case "back" -> (ActionTarget) command -> {
+                    if (isPressed(command)) {
+                        cuePlayer.back();
+                    }
+                };
+                case "goto" -> (ActionTarget) command -> {
+                    if (command.values().length > 0) {
+                        cuePlayer.goTo(Math.round(command.values()[0]) - 1);
+                    }
+                };
+                default -> throw new IllegalArgumentException("no such cue action");
+            };
+            case "release" -> (ActionTarget) command -> {
+                if (isPressed(command)) {
+                    output.getProgrammer().release();
+                }
+            };
+            default -> throw new IllegalArgumentException("no such target");
+        };
+    }
+
+    private static boolean isPressed(ControlCommand command) {
+        return command.values().length == 0 || command.values()[0] != 0;
+    }
+
+    private sealed interface Target permits ChannelTarget, ActionTarget {
+        void apply(ControlCommand command);
+    }
+
+    private sealed interface ChannelTarget extends Target permits GroupTarget, SlotTarget {
+        void addUniverses(List<DMXUniverse> universes);
+    }
+
+    private record GroupTarget(ChannelBinding[] bindings) implements ChannelTarget {
+        @Override
+        public void apply(ControlCommand command) {
+            for (int i = 0; i < Math.min(bindings.length, command.values().length); i++) {
+                bindings[i].setValue(command.getValue(i));
+            }
+        }
+
+        @Override
+        public void addUniverses(List<DMXUniverse> universes) {
+            for (ChannelBinding binding : bindings) {
+                universes.addAll(binding.getUniverses());
+            }
+        }
+    }
+
+    private record SlotTarget(DMXUniverse universe, int start) implements ChannelTarget {
+        @Override
+        public void apply(ControlCommand command) {
+            var count = Math.min(command.values().length, DMXUniverse.SIZE - start + 1);
+            for (int i = 0; i < count; i++) {
+                universe.setValue(start + i, command.getValue(i));
+            }
+        }
+
+        @Override
+        public void addUniverses(List<DMXUniverse> universes) {
+            universes.add(universe);
+        }
+    }
+
+    @FunctionalInterface
+    private non-sealed interface ActionTarget extends Target {
+    }
+}
@@ -0,0 +1,305 @@
+package be.codewriter.dmx512demo.control;
+
+import be.codewriter.dmx512demo.logging.SampledLogger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A WebSocket endpoint on ws://&lt;host&gt;:&lt;port&gt;/, for browsers and tablets. Every text message contains
+ * one or more commands in the text format of {@link ControlCommand#parse(String)}, that are applied in one frame.
+ * An invalid message is answered with a text message that starts with "error".
+ * <p>
+ * Only the parts of RFC 6455 that are needed for text messages are implemented, without extensions.
+ * Every connection is handled on its own virtual thread.
+ * <p>
+ * There is no authentication, so the server only listens on the loopback address, unless another address is set in
+ * the patch. A browser sends the page it runs on as Origin, a handshake from a page that is not allowed is refused,
+ * so any web site that is open on this machine can't control the show.
+ */
+public class WebSocketServer {
+    public static final int DEFAULT_PORT = 9466;
+    private static final Logger LOGGER = LogManager.getLogger(WebSocketServer.class.getName());
+    private static final SampledLogger ERROR_LOGGER = new SampledLogger("control.websocket", Duration.ofSeconds(5));
+    private static final String GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final int MAX_MESSAGE_SIZE = 64 * 1024 - 1;
+    private static final int MAX_LINE_SIZE = 8192;
+    private static final int MAX_HANDSHAKE_SIZE = 16 * 1024;
+    private static final int OP_CONTINUATION = 0x0;
+    private static final int OP_TEXT = 0x1;
+    private static final int OP_CLOSE = 0x8;
+    private static final int OP_PING = 0x9;
+    private static final int OP_PONG = 0xA;
+    private static final int CLOSE_PROTOCOL_ERROR = 1002;
+    private static final int CLOSE_UNSUPPORTED = 1003;
+    private static final int CLOSE_TOO_BIG = 1009;
+
+    private final ShowControl control;
+    private final InetAddress address;
+    private final Set<String> origins;
+    private final int port;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private ServerSocket server;
+
+    /**
+     * @param address the local address to listen on, see {@link be.codewriter.dmx512demo.patch.PatchControl}
+     * @param origins the allowed Origin headers, clients that don't send one, like apps, are always allowed
+     */
+    public WebSocketServer(ShowControl control, InetAddress address, Set<String> origins, int port) {
+        this.control = control;
+        this.address = address;
+        this.origins = Set.copyOf(origins);
+        this.port = port;
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        server = new ServerSocket();
+        server.bind(new InetSocketAddress(address, port));
+        var serverSocket = server;
+        Thread.ofVirtual().name("websocket-server").start(() -> accept(serverSocket));
+        LOGGER.info("WebSocket control available on ws://{}:{}/", address.getHostAddress(), port);
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        try {
+            server.close();
+            for (Socket socket : connections) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Error closing WebSocket server: {}", e.getMessage());
+        }
+        server = null;
+    }
+
+    private void accept(ServerSocket serverSocket) {
+        while (!serverSocket.isClosed()) {
+            try {
+                var socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.add(socket);
+                Thread.ofVirtual().name("websocket-" + socket.getRemoteSocketAddress()).start(() -> handle(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    ERROR_LOGGER.warn("Error accepting WebSocket connection: {}", e.getMessage(), null);
+                }
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket) {
+            var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            var out = socket.getOutputStream();
+            if (!handshake(in, out)) {
+                return;
+            }
+            LOGGER.info("WebSocket control connected from {}", socket.getRemoteSocketAddress());
+            readMessages(in, out);
+        } catch (EOFException | SocketException e) {
+            // Closed by the other side or on stop
+        } catch (IOException e) {
+            ERROR_LOGGER.warn("Error on WebSocket connection {}: {}", socket.getRemoteSocketAddress(), e.getMessage());
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * @return false if the connection was refused
+     * @throws IOException also when the request is larger than {@value #MAX_HANDSHAKE_SIZE} bytes
+     */
+    boolean handshake(DataInputStream in, OutputStream out) throws IOException {
+        var requestLine = readLine(in);
+        var size = requestLine.length() + 2;
+        String key = null;
+        String origin = null;
+        var upgrade = false;
+        String line;
+        while (!(line = readLine(in)).isEmpty()) {
+            size += line.length() + 2;
+            if (size > MAX_HANDSHAKE_SIZE) {
+                throw new IOException("Handshake larger than " + MAX_HANDSHAKE_SIZE + " bytes");
+            }
+            var separator = line.indexOf(':');
+            if (separator < 0) {
+                continue;
+            }
+            var name = line.substring(0, separator).strip().toLowerCase(Locale.ROOT);
+            var value = line.substring(separator + 1).strip();
+            switch (name) {
+                case "sec-websocket-key" -> key = value;
+                case "upgrade" -> upgrade = value.equalsIgnoreCase("websocket");
+                case "origin" -> origin = value;
+                default -> {
+                    // Not needed
+                }
+            }
+        }
+        if (!requestLine.startsWith("GET ") || !upgrade || key == null) {
+            out.write("HTTP/1.1 400 Bad Request\r\nContent-Length: 0\r\nConnection: close\r\n\r\n"
+                    .getBytes(StandardCharsets.US_ASCII));
+            return false;
+        }
+        if (origin != null && !origins.contains(origin)) {
+            ERROR_LOGGER.warn("WebSocket connection from origin {} refused", origin, null);
+            out.write("HTTP/1.1 403 Forbidden\r\nContent-Length: 0\r\nConnection: close\r\n\r\n"
+                    .getBytes(StandardCharsets.US_ASCII));
+            return false;
+        }
+        out.write(("HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + getAccept(key) + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return true;
+    }
+
+    private void readMessages(DataInputStream in, OutputStream out) throws IOException {
+        var message = new ByteArrayOutputStream();
+        String text;
+        while ((text = readMessage(in, out, message)) != null) {
+            apply(text, out);
+        }
+    }
+
+    /**
+     * Read frames up to the end of the next text message, pings and pongs in between are handled.
+     *
+     * @param message collects the fragments of the message, empty when this returns
+     * @return the text of the message, or null if the connection must be closed, the close frame is already sent
+     */
+    static String readMessage(DataInputStream in, OutputStream out, ByteArrayOutputStream message) throws IOException {
+        var mask = new byte[4];
+        while (true) {
+            var first = in.readUnsignedByte();
+            var second = in.readUnsignedByte();
+            var fin = (first & 0x80) != 0;
+            var opcode = first & 0x0F;
+            long length = second & 0x7F;
+            if (length == 126) {
+                length = in.readUnsignedShort();
+            } else if (length == 127) {
+                length = in.readLong();
+            }
+            // Frames from a client must be masked
+            if ((second & 0x80) == 0) {
+                close(out, CLOSE_PROTOCOL_ERROR);
+                return null;
+            }
+            if (length < 0 || length > MAX_MESSAGE_SIZE || message.size() + length > MAX_MESSAGE_SIZE) {
+                close(out, CLOSE_TOO_BIG);
+                return null;
+            }
+            in.readFully(mask);
+            var payload = new byte[(int) length];
+            in.readFully(payload);
+            for (int i = 0; i < payload.length; i++) {
+                payload[i] ^= mask[i & 3];
+            }
+
+            switch (opcode) {
+                case OP_TEXT, OP_CONTINUATION -> {
+                    message.write(payload);
+                    if (fin) {
+                        var text = message.toString(StandardCharsets.UTF_8);
+                        message.reset();
+                        return text;
+                    }
+                }
+                case OP_PING -> send(out, OP_PONG, payload);
+                case OP_PONG -> {
+                    // Answer to a ping we never send
+                }
+                case OP_CLOSE -> {
+                    send(out, OP_CLOSE, payload);
+                    return null;
+                }
+                default -> {
+                    close(out, CLOSE_UNSUPPORTED);
+                    return null;
+                }
+            }
+        }
+    }
+
+    private void apply(String text, OutputStream out) throws IOException {
+        try {
+            control.apply(ControlCommand.parse(text));
+        } catch (IllegalArgumentException e) {
+            send(out, OP_TEXT, ("error: " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void close(OutputStream out, int code) throws IOException {
+        send(out, OP_CLOSE, new byte[]{(byte) (code >> 8), (byte) code});
+    }
+
+    /**
+     * Server frames are not masked and never fragmented.
+     */
+    private static void send(OutputStream out, int opcode, byte[] payload) throws IOException {
+        out.write(0x80 | opcode);
+        if (payload.length < 126) {
+            out.write(payload.length);
+        } else {
+            out.write(126);
+            out.write(payload.length >> 8);
+            out.write(payload.length & 0xFF);
+        }
+        out.write(payload);
+        out.flush();
+    }
+
+    private static String readLine(DataInputStream in) throws IOException {
+        var line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c < 0) {
+                throw new EOFException("Connection closed during handshake");
+            }
+            if (c != '\r') {
+                line.append((char) c);
+            }
+            if (line.length() > MAX_LINE_SIZE) {
+                throw new IOException("Handshake line too long");
+            }
+        }
+        return line.toString();
+    }
+
+    private static String getAccept(String key) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-1")
+                    .digest((key + GUID).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is required by the JDK", e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package be.codewriter.dmx512demo.cue;
+
+import be.codewriter.dmx512demo.fade.FadeTime;
+
+/**
+ * A recorded look: the values of all patched slots, stored per universe in the order of the {@link CueLayout}.
+ *
+ * @param followMillis time after the GO of this cue to go to the next one automatically, or {@link #NO_FOLLOW}
+ */
+public record Cue(String name, FadeTime fadeTime, long followMillis, byte[][] values) {
+    public static final long NO_FOLLOW = -1;
+
+    public Cue {
+        if (followMillis < 0 && followMillis != NO_FOLLOW) {
+            throw new IllegalArgumentException("Invalid follow time: " + followMillis);
+        }
+    }
+
+    public boolean hasFollow() {
+        return followMillis != NO_FOLLOW;
+    }
+}
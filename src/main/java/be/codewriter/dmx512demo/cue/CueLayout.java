@@ -0,0 +1,141 @@
+package be.codewriter.dmx512demo.cue;
+
+import be.codewriter.dmx512demo.fade.FadeTarget;
+import be.codewriter.dmx512demo.library.ModeLayout;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
+import be.codewriter.dmx512demo.output.DMXUniverse;
+import be.codewriter.dmx512demo.output.UniverseSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The patched slots of each universe, in the order their values are stored in a {@link Cue}.
+ * The slots and the fine channel of each coarse channel are taken once from the {@link ModeLayout}s,
+ * so turning a cue into fade targets is only a loop over arrays.
+ */
+final class CueLayout {
+    private static final int MAX_ATTEMPTS = 10;
+    private static final long RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // The snapshots of the output, to record what is on stage, and the playback layer that cues are faded in
+    private final UniverseSnapshot[] snapshots;
+    private final DMXUniverse[] playbackUniverses;
+    // Per universe, all patched slots
+    private final int[][] offsets;
+    // Per universe, the positions in offsets of the slots that are faded, and of their fine slot or -1
+    private final int[][] fadedSlots;
+    private final int[][] fineSlots;
+
+    private CueLayout(UniverseSnapshot[] snapshots, DMXUniverse[] playbackUniverses, int[][] offsets,
+                      int[][] fadedSlots, int[][] fineSlots) {
+        this.snapshots = snapshots;
+        this.playbackUniverses = playbackUniverses;
+        this.offsets = offsets;
+        this.fadedSlots = fadedSlots;
+        this.fineSlots = fineSlots;
+    }
+
+    static CueLayout of(DMXOutputEngine output) {
+        var universeList = output.getUniverses();
+        var universes = universeList.toArray(new DMXUniverse[0]);
+        var snapshots = new UniverseSnapshot[universes.length];
+        var playbackUniverses = new DMXUniverse[universes.length];
+        var offsets = new int[universes.length][];
+        var fadedSlots = new int[universes.length][];
+        var fineSlots = new int[universes.length][];
+
+        for (int u = 0; u < universes.length; u++) {
+            snapshots[u] = output.getSnapshot(universes[u].getId());
+            playbackUniverses[u] = output.getPlayback().getUniverse(universes[u].getId());
+            var allOffsets = new ArrayList<Integer>();
+            var faded = new ArrayList<Integer>();
+            var fine = new ArrayList<Integer>();
+            for (var entry : output.getPatch().getUniversePatch(universes[u].getId()).getEntries()) {
+                var layout = ModeLayout.of(entry);
+                var first = allOffsets.size();
+                for (int c = 0; c < layout.getChannelCount(); c++) {
+                    allOffsets.add(entry.start() - 1 + c);
+                }
+                for (int c = 0; c < layout.getChannelCount(); c++) {
+                    if (!layout.isFine(c)) {
+                        var fineOffset = layout.getFineOffset(c);
+                        faded.add(first + c);
+                        fine.add(fineOffset < 0 ? -1 : first + fineOffset);
+                    }
+                }
+            }
+            offsets[u] = allOffsets.stream().mapToInt(Integer::intValue).toArray();
+            fadedSlots[u] = faded.stream().mapToInt(Integer::intValue).toArray();
+            fineSlots[u] = fine.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new CueLayout(snapshots, playbackUniverses, offsets, fadedSlots, fineSlots);
+    }
+
+    /**
+     * Copied from the snapshots of the output, retried until all universes come from the same frame, so a cue never
+     * holds half of a change that spans universes.
+     *
+     * @return the values of all patched slots after the last frame, per universe
+     * @throws IllegalStateException if no consistent frame could be copied
+     */
+    byte[][] record() {
+        var copies = new byte[snapshots.length][DMXUniverse.SIZE];
+        var attempt = 0;
+        while (!copyFrame(copies)) {
+            if (++attempt == MAX_ATTEMPTS) {
+                throw new IllegalStateException("No consistent frame of the output to record");
+            }
+            LockSupport.parkNanos(RETRY_NANOS);
+        }
+        var values = new byte[snapshots.length][];
+        for (int u = 0; u < snapshots.length; u++) {
+            values[u] = new byte[offsets[u].length];
+            for (int i = 0; i < offsets[u].length; i++) {
+                values[u][i] = copies[u][offsets[u][i]];
+            }
+        }
+        return values;
+    }
+
+    private boolean copyFrame(byte[][] copies) {
+        long frame = -1;
+        for (int u = 0; u < snapshots.length; u++) {
+            var copied = snapshots[u].copyFrameTo(copies[u]);
+            if (copied < 0 || (u > 0 && copied != frame)) {
+                return false;
+            }
+            frame = copied;
+        }
+        return true;
+    }
+
+    /**
+     * Convert the recorded values into the targets to fade to, with each fine channel merged into its coarse one.
+     */
+    List<FadeTarget> getTargets(byte[][] values) {
+        var targets = new ArrayList<FadeTarget>(snapshots.length);
+        for (int u = 0; u < snapshots.length; u++) {
+            var slots = fadedSlots[u];
+            var targetOffsets = new int[slots.length];
+            var targetFineOffsets = new int[slots.length];
+            var targetValues = new int[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                var coarse = values[u][slots[i]] & 0xFF;
+                var fine = fineSlots[u][i];
+                targetOffsets[i] = offsets[u][slots[i]];
+                if (fine < 0) {
+                    targetFineOffsets[i] = -1;
+                    targetValues[i] = coarse * 257;
+                } else {
+                    targetFineOffsets[i] = offsets[u][fine];
+                    targetValues[i] = (coarse << 8) | (values[u][fine] & 0xFF);
+                }
+            }
+            targets.add(new FadeTarget(playbackUniverses[u], targetOffsets, targetFineOffsets, targetValues));
+        }
+        return targets;
+    }
+}
@@ -0,0 +1,12 @@
+package be.codewriter.dmx512demo.cue;
+
+/**
+ * Notified when another cue is started, or the list of cues is changed. Can be called from any thread.
+ */
+@FunctionalInterface
+public interface CueListener {
+    /**
+     * @param index position of the active cue, or -1 if no cue was started yet
+     */
+    void onCueChanged(int index);
+}
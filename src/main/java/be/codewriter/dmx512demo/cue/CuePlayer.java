@@ -0,0 +1,136 @@
+package be.codewriter.dmx512demo.cue;
+
+import be.codewriter.dmx512demo.fade.FadeEngine;
+import be.codewriter.dmx512demo.fade.FadeTarget;
+import be.codewriter.dmx512demo.fade.FadeTime;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
+import be.codewriter.dmx512demo.output.FrameProcessor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A list of cues that is played back with GO and BACK, through the {@link FadeEngine}.
+ * <p>
+ * The fade targets of the next cue are prepared as soon as a cue is started, so a GO only hands them
+ * to the fade engine. A cue with a follow time starts the next one on the clock of the {@link DMXOutputEngine}.
+ */
+public class CuePlayer implements FrameProcessor {
+    private static final Logger LOGGER = LogManager.getLogger(CuePlayer.class.getName());
+
+    private final FadeEngine fades;
+    private final CueLayout layout;
+    private final List<Cue> cues = new CopyOnWriteArrayList<>();
+    private final List<CueListener> listeners = new CopyOnWriteArrayList<>();
+    private int current = -1;
+    private long startedAt;
+    private int preloadedIndex = -1;
+    private List<FadeTarget> preloaded;
+
+    public CuePlayer(DMXOutputEngine output, FadeEngine fades) {
+        this.fades = fades;
+        this.layout = CueLayout.of(output);
+        output.addProcessor(this);
+    }
+
+    public void addListener(CueListener listener) {
+        listeners.add(listener);
+    }
+
+    public List<Cue> getCues() {
+        return List.copyOf(cues);
+    }
+
+    public synchronized int getCurrentIndex() {
+        return current;
+    }
+
+    /**
+     * Store the current values of all patched slots as a new cue at the end of the list.
+     *
+     * @throws IllegalStateException if the values of one frame could not be copied
+     */
+    public Cue record(String name, FadeTime fadeTime, long followMillis) {
+        // Copied outside the lock, the retries must not hold up the frame loop in process()
+        var cue = new Cue(name, fadeTime, followMillis, layout.record());
+        synchronized (this) {
+            cues.add(cue);
+            LOGGER.info("Recorded cue {} '{}'", cues.size(), name);
+            preload(current + 1);
+            notifyListeners();
+        }
+        return cue;
+    }
+
+    public synchronized void remove(int index) {
+        if (index < 0 || index >= cues.size()) {
+            return;
+        }
+        cues.remove(index);
+        if (index <= current) {
+            current--;
+        }
+        preload(current + 1);
+        notifyListeners();
+    }
+
+    public synchronized void go() {
+        goTo(current + 1);
+    }
+
+    public synchronized void back() {
+        if (current > 0) {
+            goTo(current - 1);
+        }
+    }
+
+    /**
+     * Fade to the cue at the given position, with the fade time of that cue.
+     */
+    public synchronized void goTo(int index) {
+        start(index, System.nanoTime());
+    }
+
+    @Override
+    public synchronized void process(long now) {
+        if (current < 0 || current >= cues.size()) {
+            return;
+        }
+        var cue = cues.get(current);
+        if (cue.hasFollow() && current + 1 < cues.size()
+                && now - startedAt >= TimeUnit.MILLISECONDS.toNanos(cue.followMillis())) {
+            start(current + 1, now);
+        }
+    }
+
+    private void start(int index, long now) {
+        if (index < 0 || index >= cues.size()) {
+            return;
+        }
+        var cue = cues.get(index);
+        var targets = index == preloadedIndex ? preloaded : layout.getTargets(cue.values());
+        fades.fadeTo(targets, cue.fadeTime());
+        current = index;
+        startedAt = now;
+        LOGGER.info("GO cue {} '{}'", index + 1, cue.name());
+        preload(index + 1);
+        notifyListeners();
+    }
+
+    private void preload(int index) {
+        if (index >= 0 && index < cues.size()) {
+            preloaded = layout.getTargets(cues.get(index).values());
+            preloadedIndex = index;
+        } else {
+            preloaded = null;
+            preloadedIndex = -1;
+        }
+    }
+
+    private void notifyListeners() {
+        listeners.forEach(l -> l.onCueChanged(current));
+    }
+}
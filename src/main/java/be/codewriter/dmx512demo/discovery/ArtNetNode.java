@@ -0,0 +1,12 @@
+package be.codewriter.dmx512demo.discovery;
+
+import java.net.InetAddress;
+
+/**
+ * A node that answered an ArtPoll.
+ *
+ * @param identity  MAC address and bind index of the node, the same node can answer on more than one interface
+ * @param portCount number of DMX ports, which is the number of universes the node handles
+ */
+public record ArtNetNode(String identity, InetAddress address, String shortName, String longName, int portCount) {
+}
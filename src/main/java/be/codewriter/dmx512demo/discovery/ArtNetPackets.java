@@ -0,0 +1,95 @@
+package be.codewriter.dmx512demo.discovery;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Builds and parses the Art-Net packets used to find nodes on the network.
+ */
+final class ArtNetPackets {
+    static final int PORT = 6454;
+    static final int OP_POLL = 0x2000;
+    static final int OP_POLL_REPLY = 0x2100;
+
+    private static final byte[] ID = "Art-Net\0".getBytes(StandardCharsets.US_ASCII);
+    private static final int PROTOCOL_VERSION = 14;
+    private static final int SHORT_NAME_OFFSET = 26;
+    private static final int SHORT_NAME_LENGTH = 18;
+    private static final int LONG_NAME_OFFSET = 44;
+    private static final int LONG_NAME_LENGTH = 64;
+    private static final int NUM_PORTS_OFFSET = 172;
+    private static final int MAC_OFFSET = 201;
+    private static final int BIND_INDEX_OFFSET = 211;
+
+    private ArtNetPackets() {
+        // Hide constructor
+    }
+
+    /**
+     * @return an ArtPoll that asks all nodes to reply
+     */
+    static byte[] poll() {
+        var buffer = ByteBuffer.allocate(14);
+        buffer.put(ID)
+                .order(ByteOrder.LITTLE_ENDIAN).putShort((short) OP_POLL)
+                .order(ByteOrder.BIG_ENDIAN).putShort((short) PROTOCOL_VERSION)
+                .put((byte) 0) // Flags
+                .put((byte) 0); // Diagnostics priority
+        return buffer.array();
+    }
+
+    /**
+     * @return the op code of the packet, or -1 if it isn't an Art-Net packet
+     */
+    static int getOpCode(byte[] data, int length) {
+        if (length < ID.length + 2 || !Arrays.equals(data, 0, ID.length, ID, 0, ID.length)) {
+            return -1;
+        }
+        return (data[8] & 0xFF) | (data[9] & 0xFF) << 8;
+    }
+
+    /**
+     * @return the node that sent the ArtPollReply, or null if the packet is too short
+     */
+    static ArtNetNode parsePollReply(byte[] data, int length) throws UnknownHostException {
+        if (length < NUM_PORTS_OFFSET + 2) {
+            return null;
+        }
+        var address = InetAddress.getByAddress(Arrays.copyOfRange(data, 10, 14));
+        var shortName = getString(data, SHORT_NAME_OFFSET, SHORT_NAME_LENGTH);
+        var longName = getString(data, LONG_NAME_OFFSET, LONG_NAME_LENGTH);
+        var portCount = (data[NUM_PORTS_OFFSET] & 0xFF) << 8 | (data[NUM_PORTS_OFFSET + 1] & 0xFF);
+
+        // Older nodes don't send a MAC address, for those the IP address is the best identity
+        String identity;
+        if (length > BIND_INDEX_OFFSET && !isZero(data, MAC_OFFSET, 6)) {
+            identity = HexFormat.ofDelimiter(":").formatHex(data, MAC_OFFSET, MAC_OFFSET + 6)
+                    + "/" + (data[BIND_INDEX_OFFSET] & 0xFF);
+        } else {
+            identity = address.getHostAddress();
+        }
+        return new ArtNetNode(identity, address, shortName, longName, portCount);
+    }
+
+    private static String getString(byte[] data, int offset, int maxLength) {
+        var end = offset;
+        while (end < offset + maxLength && data[end] != 0) {
+            end++;
+        }
+        return new String(data, offset, end - offset, StandardCharsets.US_ASCII).trim();
+    }
+
+    private static boolean isZero(byte[] data, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (data[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
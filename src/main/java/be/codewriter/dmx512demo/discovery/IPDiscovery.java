@@ -0,0 +1,162 @@
+package be.codewriter.dmx512demo.discovery;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Finds Art-Net nodes by sending an ArtPoll on all local IPv4 interfaces at the same time, each on its own
+ * virtual thread. Every node is reported as soon as its reply arrives, once, even when it answers on more than
+ * one interface. The discovery ends after the timeout, or when it's cancelled.
+ */
+public class IPDiscovery {
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(3);
+    private static final Logger LOGGER = LogManager.getLogger(IPDiscovery.class.getName());
+    private static final int MAX_PACKET_SIZE = 1024;
+
+    private final Consumer<ArtNetNode> listener;
+    private final Map<String, ArtNetNode> nodes = new ConcurrentHashMap<>();
+    private final List<DatagramSocket> sockets = new CopyOnWriteArrayList<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final CompletableFuture<List<ArtNetNode>> completion = new CompletableFuture<>();
+    private volatile boolean cancelled;
+
+    private IPDiscovery(Consumer<ArtNetNode> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Start a discovery in the background.
+     *
+     * @param listener called for each new node, on the thread of the interface that received the reply
+     */
+    public static IPDiscovery start(Duration timeout, Consumer<ArtNetNode> listener) {
+        var discovery = new IPDiscovery(listener);
+        discovery.run(timeout);
+        return discovery;
+    }
+
+    /**
+     * @return completes with all the found nodes when the discovery has ended
+     */
+    public CompletableFuture<List<ArtNetNode>> getCompletion() {
+        return completion;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Stop waiting for replies. The completion is done immediately with the nodes found so far.
+     */
+    public void cancel() {
+        cancelled = true;
+        finish();
+    }
+
+    private void run(Duration timeout) {
+        var deadline = System.nanoTime() + timeout.toNanos();
+        var tasks = new ArrayList<Future<?>>();
+        try {
+            for (var address : getBroadcastAddresses()) {
+                tasks.add(executor.submit(() -> poll(address, deadline)));
+            }
+        } catch (SocketException e) {
+            LOGGER.error("Error listing the network interfaces: {}", e.getMessage());
+        }
+        if (tasks.isEmpty()) {
+            LOGGER.warn("No network interface available for discovery");
+        }
+        // Wait for all interfaces on a separate virtual thread, so the caller is never blocked
+        Thread.ofVirtual().name("ip-discovery").start(() -> {
+            for (Future<?> task : tasks) {
+                try {
+                    task.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException | CancellationException e) {
+                    // Already logged by the task, or cancelled
+                }
+            }
+            finish();
+        });
+    }
+
+    private void poll(InterfaceAddress address, long deadline) {
+        try (var socket = new DatagramSocket(null)) {
+            sockets.add(socket);
+            // Replies are sent to the Art-Net port, which can be in use by another receiver on this machine
+            socket.setReuseAddress(true);
+            socket.setBroadcast(true);
+            socket.bind(new InetSocketAddress(address.getAddress(), ArtNetPackets.PORT));
+
+            var poll = ArtNetPackets.poll();
+            socket.send(new DatagramPacket(poll, poll.length, address.getBroadcast(), ArtNetPackets.PORT));
+            LOGGER.debug("ArtPoll sent on {}", address.getAddress().getHostAddress());
+
+            var buffer = new byte[MAX_PACKET_SIZE];
+            var packet = new DatagramPacket(buffer, buffer.length);
+            while (!cancelled) {
+                var remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    break;
+                }
+                socket.setSoTimeout((int) remaining);
+                try {
+                    socket.receive(packet);
+                } catch (SocketTimeoutException e) {
+                    break;
+                }
+                if (ArtNetPackets.getOpCode(buffer, packet.getLength()) == ArtNetPackets.OP_POLL_REPLY) {
+                    report(ArtNetPackets.parsePollReply(buffer, packet.getLength()));
+                }
+                packet.setLength(buffer.length);
+            }
+        } catch (Exception e) {
+            // Closing the socket to cancel the discovery also ends up here
+            if (!cancelled) {
+                LOGGER.error("Error discovering on {}: {}", address.getAddress().getHostAddress(), e.getMessage());
+            }
+        } finally {
+            sockets.removeIf(DatagramSocket::isClosed);
+        }
+    }
+
+    private void report(ArtNetNode node) {
+        if (node != null && !cancelled && nodes.putIfAbsent(node.identity(), node) == null) {
+            LOGGER.info("Found Art-Net node {} at {}", node.shortName(), node.address().getHostAddress());
+            listener.accept(node);
+        }
+    }
+
+    private void finish() {
+        // Unblock the interfaces that are still waiting for a reply
+        sockets.forEach(DatagramSocket::close);
+        executor.shutdownNow();
+        completion.complete(List.copyOf(nodes.values()));
+    }
+
+    private static List<InterfaceAddress> getBroadcastAddresses() throws SocketException {
+        var addresses = new ArrayList<InterfaceAddress>();
+        for (var networkInterface : NetworkInterface.networkInterfaces().toList()) {
+            if (!networkInterface.isUp() || networkInterface.isLoopback()) {
+                continue;
+            }
+            for (var address : networkInterface.getInterfaceAddresses()) {
+                if (address.getAddress() instanceof Inet4Address && address.getBroadcast() != null) {
+                    addresses.add(address);
+                }
+            }
+        }
+        return addresses;
+    }
+}
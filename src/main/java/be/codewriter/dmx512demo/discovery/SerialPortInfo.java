@@ -0,0 +1,12 @@
+package be.codewriter.dmx512demo.discovery;
+
+/**
+ * A serial port, with the USB device behind it when it could be identified.
+ *
+ * @param usbDevice location of the USB device the port belongs to, empty if not known
+ * @param usbId     vendor and product id, and serial number if the device has one, empty if not known
+ * @param product   manufacturer and product name reported by the USB device, empty if not known
+ */
+public record SerialPortInfo(String path, String name, String description,
+                             String usbDevice, String usbId, String product) {
+}
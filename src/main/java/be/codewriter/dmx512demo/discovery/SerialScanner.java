@@ -0,0 +1,187 @@
+package be.codewriter.dmx512demo.discovery;
+
+import be.codewriter.dmx512.controller.serial.DMXSerialDiscoverTool;
+import be.codewriter.dmx512.serial.SerialConnection;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Watches the serial ports in the background, by listing them at a fixed interval.
+ * <p>
+ * Each port is identified on its own virtual thread with a timeout, so a hanging adapter only delays its own
+ * result. Identified ports are cached for the lifetime of the application, keyed by port path and the USB device
+ * behind it, so a known adapter is not identified again and a new scanner can show the known ports immediately.
+ * <p>
+ * The USB details are read from sysfs, so they are only available on Linux.
+ */
+public class SerialScanner {
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(2);
+    public static final Duration PROBE_TIMEOUT = Duration.ofSeconds(2);
+    private static final Logger LOGGER = LogManager.getLogger(SerialScanner.class.getName());
+    private static final Path SYS_CLASS_TTY = Path.of("/sys/class/tty");
+    private static final Map<String, SerialPortInfo> CACHE = new ConcurrentHashMap<>();
+
+    private final Consumer<List<SerialPortInfo>> listener;
+    private final ExecutorService probes = Executors.newVirtualThreadPerTaskExecutor();
+    private ScheduledExecutorService watcher;
+    // Null until the first scan is done, so the first result is always reported
+    private volatile List<SerialPortInfo> lastPorts;
+
+    /**
+     * @param listener called with all the ports, sorted on path, every time the list changes
+     */
+    public SerialScanner(Consumer<List<SerialPortInfo>> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return the ports identified by any scanner so far, sorted on path
+     */
+    public static List<SerialPortInfo> getCachedPorts() {
+        return CACHE.values().stream()
+                .sorted(Comparator.comparing(SerialPortInfo::path))
+                .toList();
+    }
+
+    /**
+     * Start scanning at the given interval, the first scan starts immediately.
+     */
+    public synchronized void start(Duration interval) {
+        if (watcher != null) {
+            return;
+        }
+        lastPorts = null;
+        watcher = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("serial-scanner").factory());
+        watcher.scheduleWithFixedDelay(this::scan, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (watcher == null) {
+            return;
+        }
+        watcher.shutdownNow();
+        watcher = null;
+    }
+
+    /**
+     * Scan again without waiting for the interval, e.g. on request of the user.
+     */
+    public synchronized void scanNow() {
+        if (watcher != null) {
+            watcher.execute(this::scan);
+        }
+    }
+
+    private void scan() {
+        // An exception would cancel the scheduled task, so it must never leave this method
+        try {
+            var listing = probes.submit(DMXSerialDiscoverTool::getAvailablePorts);
+            List<SerialConnection> connections;
+            try {
+                connections = listing.get(PROBE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                listing.cancel(true);
+                LOGGER.warn("Listing the serial ports took more than {}ms, keeping the previous result",
+                        PROBE_TIMEOUT.toMillis());
+                return;
+            }
+
+            // All ports are identified at the same time, each one within the same deadline
+            var deadline = System.nanoTime() + PROBE_TIMEOUT.toNanos();
+            var identifications = connections.stream()
+                    .map(c -> probes.submit(() -> identify(c)))
+                    .toList();
+            var ports = new ArrayList<SerialPortInfo>();
+            for (int i = 0; i < connections.size(); i++) {
+                ports.add(getResult(identifications.get(i), connections.get(i), deadline));
+            }
+            ports.sort(Comparator.comparing(SerialPortInfo::path));
+
+            if (!ports.equals(lastPorts)) {
+                lastPorts = List.copyOf(ports);
+                listener.accept(lastPorts);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOGGER.error("Error scanning serial ports: {}", e.getMessage());
+        }
+    }
+
+    private SerialPortInfo getResult(Future<SerialPortInfo> identification, SerialConnection connection,
+                                     long deadline) throws InterruptedException {
+        try {
+            return identification.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            identification.cancel(true);
+            LOGGER.warn("Serial port {} could not be identified in time", connection.path());
+        } catch (ExecutionException e) {
+            LOGGER.warn("Serial port {} could not be identified: {}", connection.path(), e.getMessage());
+        }
+        return new SerialPortInfo(connection.path(), connection.name(), connection.description(), "", "", "");
+    }
+
+    private static SerialPortInfo identify(SerialConnection connection) {
+        var usbDevice = findUsbDevice(connection.path());
+        var cached = CACHE.get(connection.path());
+        if (cached != null && cached.usbDevice().equals(usbDevice)) {
+            return cached;
+        }
+
+        var usbId = "";
+        var product = "";
+        if (!usbDevice.isEmpty()) {
+            var device = Path.of(usbDevice);
+            usbId = String.join(":", read(device, "idVendor"), read(device, "idProduct"));
+            var serial = read(device, "serial");
+            if (!serial.isEmpty()) {
+                usbId += " " + serial;
+            }
+            product = (read(device, "manufacturer") + " " + read(device, "product")).trim();
+        }
+        var info = new SerialPortInfo(connection.path(), connection.name(), connection.description(),
+                usbDevice, usbId, product);
+        CACHE.put(connection.path(), info);
+        LOGGER.info("Identified serial port {} as {}", info.path(), info.product().isEmpty() ? info.description() : info.product());
+        return info;
+    }
+
+    /**
+     * @return the sysfs directory of the USB device of the port, or an empty string if it's not a USB port
+     */
+    private static String findUsbDevice(String portPath) {
+        var device = SYS_CLASS_TTY.resolve(Path.of(portPath).getFileName().toString()).resolve("device");
+        if (!Files.exists(device)) {
+            return "";
+        }
+        try {
+            // The device is the USB interface, or a child of it for USB-serial converters
+            var current = device.toRealPath();
+            for (int i = 0; i < 4 && current != null; i++) {
+                if (Files.exists(current.resolve("idVendor"))) {
+                    return current.toString();
+                }
+                current = current.getParent();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("No USB device found for {}: {}", portPath, e.getMessage());
+        }
+        return "";
+    }
+
+    private static String read(Path device, String attribute) {
+        try {
+            return Files.readString(device.resolve(attribute)).trim();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+}
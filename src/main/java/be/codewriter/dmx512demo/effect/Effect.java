@@ -0,0 +1,81 @@
+package be.codewriter.dmx512demo.effect;
+
+/**
+ * Base class of the effects calculated by the {@link EffectEngine} for all fixtures of a list of clients in one pass.
+ * <p>
+ * The settings can be changed from any thread, they are picked up at the next frame.
+ */
+public abstract class Effect {
+    private final int size;
+    private volatile double speed = 0.5;
+    private volatile Phases phases;
+    private double cycle = 0;
+
+    /**
+     * @param size the number of clients in the bindings of the effect
+     */
+    protected Effect(int size) {
+        this.size = size;
+        setPhaseSpread(0, 1);
+    }
+
+    /**
+     * @param speed cycles per second
+     */
+    public void setSpeed(double speed) {
+        this.speed = speed;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Spread the start of the cycle over the fixtures.
+     * The fixtures are split into consecutive groups that run in phase, and the groups are spread evenly.
+     *
+     * @param spread part of a cycle between the first and last group, between 0 and 1
+     * @param groups number of groups, use the number of clients to give each fixture its own phase
+     */
+    public void setPhaseSpread(double spread, int groups) {
+        var groupCount = Math.clamp(groups, 1, Math.max(1, size));
+        var offsets = new double[size];
+        var groupIndexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            var group = i * groupCount / size;
+            groupIndexes[i] = group;
+            offsets[i] = groupCount == 1 ? 0 : spread * group / groupCount;
+        }
+        this.phases = new Phases(offsets, groupIndexes);
+    }
+
+    protected int size() {
+        return size;
+    }
+
+    /**
+     * Advance the effect and write the values of all fixtures.
+     *
+     * @param elapsed seconds since the previous frame
+     */
+    void apply(double elapsed) {
+        cycle += elapsed * speed;
+        var current = phases;
+        apply(cycle, current.offsets(), current.groups());
+    }
+
+    /**
+     * Give up the control of the channels of the effect, when it has stopped.
+     */
+    protected abstract void release();
+
+    /**
+     * @param cycle   cycles since the start of the effect, to be shifted per fixture with the offsets
+     * @param offsets phase offset per fixture
+     * @param groups  group index per fixture, to be used as seed for random values
+     */
+    protected abstract void apply(double cycle, double[] offsets, int[] groups);
+
+    private record Phases(double[] offsets, int[] groups) {
+    }
+}
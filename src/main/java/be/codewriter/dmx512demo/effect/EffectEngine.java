@@ -0,0 +1,62 @@
+package be.codewriter.dmx512demo.effect;
+
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
+import be.codewriter.dmx512demo.output.FrameProcessor;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Runs all active effects on the clock of the {@link DMXOutputEngine}, once per frame,
+ * so the effects don't depend on the frame rate of the UI.
+ * <p>
+ * The channels of a stopped effect are released at the next frame, after it has written its last values,
+ * so the output falls back to the other sources.
+ */
+public class EffectEngine implements FrameProcessor {
+    private final List<Effect> effects = new CopyOnWriteArrayList<>();
+    private final Queue<Effect> stopped = new ConcurrentLinkedQueue<>();
+    private long lastFrame = -1;
+
+    public EffectEngine(DMXOutputEngine output) {
+        output.addProcessor(this);
+    }
+
+    public void start(Effect effect) {
+        if (!effects.contains(effect)) {
+            effects.add(effect);
+        }
+    }
+
+    public void stop(Effect effect) {
+        if (effects.remove(effect)) {
+            stopped.add(effect);
+        }
+    }
+
+    public boolean isRunning(Effect effect) {
+        return effects.contains(effect);
+    }
+
+    @Override
+    public void process(long now) {
+        var elapsed = lastFrame < 0 ? 0 : (now - lastFrame) / 1_000_000_000.0;
+        lastFrame = now;
+        if (effects.isEmpty() && stopped.isEmpty()) {
+            return;
+        }
+        // Runs on the output thread before the merge, so all effects of this frame are merged together without
+        // holding the universes
+        for (Effect effect : effects) {
+            effect.apply(elapsed);
+        }
+        Effect effect;
+        while ((effect = stopped.poll()) != null) {
+            if (!effects.contains(effect)) {
+                effect.release();
+            }
+        }
+    }
+}
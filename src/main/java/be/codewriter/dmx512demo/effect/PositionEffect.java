@@ -0,0 +1,106 @@
+package be.codewriter.dmx512demo.effect;
+
+import be.codewriter.dmx512demo.output.ChannelBinding;
+
+/**
+ * Moves the pan and tilt of moving heads along a {@link PositionShape}, with 16-bit resolution on fixtures
+ * that have fine channels.
+ * <p>
+ * The area is expressed as part of the full pan and tilt range, between 0 and 1.
+ */
+public class PositionEffect extends Effect {
+    private static final int MAX_POSITION = 65535;
+
+    private final ChannelBinding pan;
+    private final ChannelBinding panFine;
+    private final ChannelBinding tilt;
+    private final ChannelBinding tiltFine;
+    private final byte[] panValues;
+    private final byte[] panFineValues;
+    private final byte[] tiltValues;
+    private final byte[] tiltFineValues;
+    private volatile PositionShape shape;
+    private volatile Area area = new Area(0.5, 0.5, 0.5, 0.5);
+    private volatile int lastPan = MAX_POSITION / 2;
+    private volatile int lastTilt = MAX_POSITION / 2;
+
+    /**
+     * All bindings must be created for the same list of clients.
+     */
+    public PositionEffect(ChannelBinding pan, ChannelBinding panFine, ChannelBinding tilt, ChannelBinding tiltFine,
+                          PositionShape shape) {
+        super(pan.size());
+        this.pan = pan;
+        this.panFine = panFine;
+        this.tilt = tilt;
+        this.tiltFine = tiltFine;
+        this.shape = shape;
+        this.panValues = new byte[pan.size()];
+        this.panFineValues = new byte[pan.size()];
+        this.tiltValues = new byte[pan.size()];
+        this.tiltFineValues = new byte[pan.size()];
+    }
+
+    public void setShape(PositionShape shape) {
+        this.shape = shape;
+    }
+
+    /**
+     * @param centerX center of the movement on the pan axis, between 0 and 1
+     * @param centerY center of the movement on the tilt axis, between 0 and 1
+     * @param width   size of the movement on the pan axis, between 0 and 1
+     * @param height  size of the movement on the tilt axis, between 0 and 1
+     */
+    public void setArea(double centerX, double centerY, double width, double height) {
+        this.area = new Area(centerX, centerY, width, height);
+    }
+
+    /**
+     * @return the 16-bit pan value of the first fixture in the last frame, to show in the UI
+     */
+    public int getLastPan() {
+        return lastPan;
+    }
+
+    /**
+     * @return the 16-bit tilt value of the first fixture in the last frame, to show in the UI
+     */
+    public int getLastTilt() {
+        return lastTilt;
+    }
+
+    @Override
+    protected void release() {
+        pan.release();
+        panFine.release();
+        tilt.release();
+        tiltFine.release();
+    }
+
+    @Override
+    protected void apply(double cycle, double[] offsets, int[] groups) {
+        var path = shape;
+        var current = area;
+        for (int i = 0; i < panValues.length; i++) {
+            var x = current.centerX() + path.x(cycle + offsets[i], groups[i]) * current.width() / 2;
+            var y = current.centerY() + path.y(cycle + offsets[i], groups[i]) * current.height() / 2;
+            var panValue = (int) Math.round(Math.clamp(x, 0, 1) * MAX_POSITION);
+            var tiltValue = (int) Math.round(Math.clamp(y, 0, 1) * MAX_POSITION);
+            panValues[i] = (byte) (panValue >> 8);
+            panFineValues[i] = (byte) panValue;
+            tiltValues[i] = (byte) (tiltValue >> 8);
+            tiltFineValues[i] = (byte) tiltValue;
+            if (i == 0) {
+                lastPan = panValue;
+                lastTilt = tiltValue;
+            }
+        }
+        pan.setValues(panValues);
+        panFine.setValues(panFineValues);
+        tilt.setValues(tiltValues);
+        tiltFine.setValues(tiltFineValues);
+    }
+
+    private record Area(double centerX, double centerY, double width, double height) {
+    }
+}
@@ -0,0 +1,49 @@
+package be.codewriter.dmx512demo.effect;
+
+/**
+ * The path a moving head follows over one cycle of a {@link PositionEffect}.
+ * Positions are between -1 and 1 in both directions.
+ */
+public enum PositionShape {
+    CIRCLE("Circle"),
+    FIGURE_EIGHT("Figure 8"),
+    RANDOM("Random");
+
+    private final String label;
+
+    PositionShape(String label) {
+        this.label = label;
+    }
+
+    public double x(double cycle, int seed) {
+        return switch (this) {
+            case CIRCLE -> Math.sin(2 * Math.PI * cycle);
+            case FIGURE_EIGHT -> Math.sin(2 * Math.PI * cycle);
+            case RANDOM -> randomPath(cycle, seed * 2);
+        };
+    }
+
+    public double y(double cycle, int seed) {
+        return switch (this) {
+            case CIRCLE -> -Math.cos(2 * Math.PI * cycle);
+            case FIGURE_EIGHT -> Math.sin(4 * Math.PI * cycle);
+            case RANDOM -> randomPath(cycle, seed * 2 + 1);
+        };
+    }
+
+    /**
+     * Moves smoothly from one random point to the next, one point per cycle.
+     */
+    private static double randomPath(double cycle, int seed) {
+        var start = (long) Math.floor(cycle);
+        var from = Waveform.random(start, seed) * 2 - 1;
+        var to = Waveform.random(start + 1, seed) * 2 - 1;
+        var ease = (1 - Math.cos(Math.PI * (cycle - start))) / 2;
+        return from + (to - from) * ease;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,53 @@
+package be.codewriter.dmx512demo.effect;
+
+/**
+ * The shape of a single-channel effect over one cycle.
+ */
+public enum Waveform {
+    SINE("Sine"),
+    SAW("Saw"),
+    SQUARE("Square"),
+    TRIANGLE("Triangle"),
+    RANDOM("Random");
+
+    private final String label;
+
+    Waveform(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Deterministic random value for a cycle, so every frame within the same cycle gets the same value.
+     *
+     * @return value between 0 (included) and 1 (excluded)
+     */
+    static double random(long cycle, int seed) {
+        // SplitMix64 finalizer on the combined input
+        var x = cycle * 0x9E3779B97F4A7C15L + seed * 0xC2B2AE3D27D4EB4FL;
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        x = x ^ (x >>> 31);
+        return (x >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * @param cycle the number of cycles since the start, the fraction is the position within the cycle
+     * @param seed  makes the random values different per fixture or group
+     * @return value between 0 and 1
+     */
+    public double value(double cycle, int seed) {
+        var phase = cycle - Math.floor(cycle);
+        return switch (this) {
+            case SINE -> 0.5 - 0.5 * Math.cos(2 * Math.PI * phase);
+            case SAW -> phase;
+            case SQUARE -> phase < 0.5 ? 1 : 0;
+            case TRIANGLE -> phase < 0.5 ? phase * 2 : 2 - phase * 2;
+            case RANDOM -> random((long) Math.floor(cycle), seed);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
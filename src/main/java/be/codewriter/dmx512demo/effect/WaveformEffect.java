@@ -0,0 +1,46 @@
+package be.codewriter.dmx512demo.effect;
+
+import be.codewriter.dmx512demo.output.ChannelBinding;
+
+/**
+ * Moves one 8-bit channel between a minimum and maximum value with a {@link Waveform}.
+ */
+public class WaveformEffect extends Effect {
+    private final ChannelBinding binding;
+    private final byte[] values;
+    private volatile Waveform waveform;
+    private volatile int min = 0;
+    private volatile int max = 255;
+
+    public WaveformEffect(ChannelBinding binding, Waveform waveform) {
+        super(binding.size());
+        this.binding = binding;
+        this.waveform = waveform;
+        this.values = new byte[binding.size()];
+    }
+
+    public void setWaveform(Waveform waveform) {
+        this.waveform = waveform;
+    }
+
+    public void setRange(int min, int max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    @Override
+    protected void release() {
+        binding.release();
+    }
+
+    @Override
+    protected void apply(double cycle, double[] offsets, int[] groups) {
+        var shape = waveform;
+        var low = min;
+        var range = max - low;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (byte) Math.round(low + range * shape.value(cycle + offsets[i], groups[i]));
+        }
+        binding.setValues(values);
+    }
+}
@@ -0,0 +1,51 @@
+package be.codewriter.dmx512demo.fade;
+
+/**
+ * The progress of a fade over time, stored as a lookup table so a frame doesn't need to calculate the curve.
+ */
+public enum FadeCurve {
+    LINEAR("Linear"),
+    S_CURVE("S-Curve"),
+    LOG("Logarithmic");
+
+    private static final int RESOLUTION = 1024;
+
+    private final String label;
+    private final float[] table = new float[RESOLUTION + 1];
+
+    FadeCurve(String label) {
+        this.label = label;
+        for (int i = 0; i <= RESOLUTION; i++) {
+            table[i] = (float) calculate((double) i / RESOLUTION);
+        }
+    }
+
+    private double calculate(double time) {
+        return switch (this) {
+            case LINEAR -> time;
+            case S_CURVE -> (1 - Math.cos(Math.PI * time)) / 2;
+            case LOG -> Math.log10(1 + 9 * time);
+        };
+    }
+
+    /**
+     * @param time part of the fade duration that has passed, between 0 and 1
+     * @return progress of the fade, between 0 and 1
+     */
+    public double at(double time) {
+        var position = time * RESOLUTION;
+        var index = (int) position;
+        if (index >= RESOLUTION) {
+            return table[RESOLUTION];
+        }
+        if (index < 0) {
+            return table[0];
+        }
+        return table[index] + (table[index + 1] - table[index]) * (position - index);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
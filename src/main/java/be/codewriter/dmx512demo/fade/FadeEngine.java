@@ -0,0 +1,289 @@
+package be.codewriter.dmx512demo.fade;
+
+import be.codewriter.dmx512demo.output.ChannelBinding;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
+import be.codewriter.dmx512demo.output.DMXUniverse;
+import be.codewriter.dmx512demo.output.FrameProcessor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves channels to a new value over time, on the clock of the {@link DMXOutputEngine}.
+ * <p>
+ * A fade is requested from any thread and started on the output thread at the next frame, from the value the
+ * channel has at that moment. A new fade of a slot replaces the running one, so a slider that is dragged
+ * is followed smoothly. All running fades are kept in primitive arrays and handled in one loop per frame.
+ * <p>
+ * Every fade is calculated with 16-bit precision, so a coarse/fine pair like pan and tilt fades as one value.
+ */
+public class FadeEngine implements FrameProcessor {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Queue<FadeRequest> requests = new ConcurrentLinkedQueue<>();
+    private final Map<String, FadeTime> channelFadeTimes = new ConcurrentHashMap<>();
+    private volatile FadeTime defaultFadeTime = FadeTime.NONE;
+
+    // Only used on the output thread
+    private final Map<DMXUniverse, int[]> fadeIndexes = new IdentityHashMap<>();
+    private int[] fineOffsetsByIndex = new int[INITIAL_CAPACITY];
+    private DMXUniverse[] universes = new DMXUniverse[INITIAL_CAPACITY];
+    private int[] offsets = new int[INITIAL_CAPACITY];
+    private int[] fineOffsets = new int[INITIAL_CAPACITY];
+    private int[] from = new int[INITIAL_CAPACITY];
+    private int[] to = new int[INITIAL_CAPACITY];
+    private long[] start = new long[INITIAL_CAPACITY];
+    private long[] duration = new long[INITIAL_CAPACITY];
+    private FadeCurve[] curves = new FadeCurve[INITIAL_CAPACITY];
+    private int count;
+
+    public FadeEngine(DMXOutputEngine output) {
+        output.addProcessor(this);
+    }
+
+    public FadeTime getDefaultFadeTime() {
+        return defaultFadeTime;
+    }
+
+    /**
+     * Used for all channels without their own fade time.
+     */
+    public void setDefaultFadeTime(FadeTime fadeTime) {
+        this.defaultFadeTime = fadeTime;
+    }
+
+    /**
+     * @param key name of the channel, e.g. "Dimmer", not case-sensitive
+     * @param fadeTime the fade time of the channel, or null to use the default again
+     */
+    public void setFadeTime(String key, FadeTime fadeTime) {
+        if (fadeTime == null) {
+            channelFadeTimes.remove(key.toLowerCase(Locale.ROOT));
+        } else {
+            channelFadeTimes.put(key.toLowerCase(Locale.ROOT), fadeTime);
+        }
+    }
+
+    public FadeTime getFadeTime(String key) {
+        return channelFadeTimes.getOrDefault(key.toLowerCase(Locale.ROOT), defaultFadeTime);
+    }
+
+    /**
+     * Fade the channel of the binding to the value, with the fade time of that channel.
+     */
+    public void fadeTo(ChannelBinding binding, byte value) {
+        fadeTo(binding, value, getFadeTime(binding.getKey()));
+    }
+
+    public void fadeTo(ChannelBinding binding, byte value, FadeTime fadeTime) {
+        requests.add(new BindingFade(binding, null, (value & 0xFF) * 257, fadeTime));
+    }
+
+    /**
+     * Fade a coarse/fine pair to the 16-bit value, with the fade time of the coarse channel.
+     */
+    public void fadeTo(ChannelBinding coarse, ChannelBinding fine, int value) {
+        fadeTo(coarse, fine, value, getFadeTime(coarse.getKey()));
+    }
+
+    public void fadeTo(ChannelBinding coarse, ChannelBinding fine, int value, FadeTime fadeTime) {
+        if (value < 0 || value > 0xFFFF) {
+            throw new IllegalArgumentException("Not a 16-bit value: " + value);
+        }
+        requests.add(new BindingFade(coarse, fine, value, fadeTime));
+    }
+
+    /**
+     * Fade the slots of all the targets, starting them in the same frame.
+     */
+    public void fadeTo(List<FadeTarget> targets, FadeTime fadeTime) {
+        requests.add(new TargetFade(List.copyOf(targets), fadeTime));
+    }
+
+    /**
+     * Collect fades of several channels that must start in the same frame, e.g. pan, tilt and the speed of the move.
+     * Separate calls to {@link #fadeTo} can start in different frames.
+     */
+    public Batch batch() {
+        return new Batch();
+    }
+
+    @Override
+    public void process(long now) {
+        if (count == 0 && requests.isEmpty()) {
+            return;
+        }
+        // Runs on the output thread before the merge, so all fades of this frame are merged together without
+        // holding the universes
+        FadeRequest request;
+        while ((request = requests.poll()) != null) {
+            switch (request) {
+                case BindingFade fade -> startFades(fade, now);
+                case TargetFade fade -> startFades(fade, now);
+                case BatchFade batch -> batch.fades().forEach(fade -> startFades(fade, now));
+            }
+        }
+        int i = 0;
+        while (i < count) {
+            var elapsed = now - start[i];
+            if (elapsed >= duration[i]) {
+                write(i, to[i]);
+                remove(i);
+            } else {
+                var progress = curves[i].at((double) elapsed / duration[i]);
+                write(i, from[i] + (int) Math.round((to[i] - from[i]) * progress));
+                i++;
+            }
+        }
+    }
+
+    private void startFades(BindingFade request, long now) {
+        if (fineOffsetsByIndex.length < request.coarse().size()) {
+            fineOffsetsByIndex = new int[request.coarse().size()];
+        }
+        Arrays.fill(fineOffsetsByIndex, -1);
+        if (request.fine() != null) {
+            request.fine().forEachSlot((_, offset, index) -> fineOffsetsByIndex[index] = offset);
+        }
+        request.coarse().forEachSlot((universe, offset, index) ->
+                startFade(universe, offset, fineOffsetsByIndex[index], request.value(), request.fadeTime(), now));
+    }
+
+    private void startFades(TargetFade request, long now) {
+        for (FadeTarget target : request.targets()) {
+            for (int i = 0; i < target.offsets().length; i++) {
+                startFade(target.universe(), target.offsets()[i], target.fineOffsets()[i], target.values()[i],
+                        request.fadeTime(), now);
+            }
+        }
+    }
+
+    private void startFade(DMXUniverse universe, int offset, int fineOffset, int target, FadeTime fadeTime, long now) {
+        var coarseValue = universe.getValue(offset + 1) & 0xFF;
+        var current = fineOffset < 0 ? coarseValue * 257 : (coarseValue << 8) | (universe.getValue(fineOffset + 1) & 0xFF);
+        var millis = target >= current ? fadeTime.fadeInMillis() : fadeTime.fadeOutMillis();
+
+        var indexes = fadeIndexes.computeIfAbsent(universe, _ -> {
+            var slots = new int[DMXUniverse.SIZE];
+            Arrays.fill(slots, -1);
+            return slots;
+        });
+        var i = indexes[offset];
+        if (i < 0) {
+            i = count++;
+            ensureCapacity(count);
+            indexes[offset] = i;
+        }
+        universes[i] = universe;
+        offsets[i] = offset;
+        fineOffsets[i] = fineOffset;
+        from[i] = current;
+        to[i] = target;
+        start[i] = now;
+        duration[i] = TimeUnit.MILLISECONDS.toNanos(millis);
+        curves[i] = fadeTime.curve();
+    }
+
+    private void write(int i, int value) {
+        universes[i].setValue(offsets[i] + 1, (byte) (value >> 8));
+        if (fineOffsets[i] >= 0) {
+            universes[i].setValue(fineOffsets[i] + 1, (byte) value);
+        }
+    }
+
+    /**
+     * Move the last fade into the place of the finished one, so the arrays stay packed.
+     */
+    private void remove(int i) {
+        fadeIndexes.get(universes[i])[offsets[i]] = -1;
+        var last = --count;
+        if (i != last) {
+            universes[i] = universes[last];
+            offsets[i] = offsets[last];
+            fineOffsets[i] = fineOffsets[last];
+            from[i] = from[last];
+            to[i] = to[last];
+            start[i] = start[last];
+            duration[i] = duration[last];
+            curves[i] = curves[last];
+            fadeIndexes.get(universes[i])[offsets[i]] = i;
+        }
+        universes[last] = null;
+        curves[last] = null;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= offsets.length) {
+            return;
+        }
+        var length = Math.max(capacity, offsets.length * 2);
+        universes = Arrays.copyOf(universes, length);
+        offsets = Arrays.copyOf(offsets, length);
+        fineOffsets = Arrays.copyOf(fineOffsets, length);
+        from = Arrays.copyOf(from, length);
+        to = Arrays.copyOf(to, length);
+        start = Arrays.copyOf(start, length);
+        duration = Arrays.copyOf(duration, length);
+        curves = Arrays.copyOf(curves, length);
+    }
+
+    /**
+     * Fades that are handed to the engine as one request when submitted, so they are started in the same frame.
+     */
+    public final class Batch {
+        private final List<BindingFade> fades = new ArrayList<>();
+
+        private Batch() {
+        }
+
+        /**
+         * Fade the channel of the binding to the value, with the fade time of that channel.
+         */
+        public Batch fadeTo(ChannelBinding binding, byte value) {
+            return fadeTo(binding, value, getFadeTime(binding.getKey()));
+        }
+
+        public Batch fadeTo(ChannelBinding binding, byte value, FadeTime fadeTime) {
+            fades.add(new BindingFade(binding, null, (value & 0xFF) * 257, fadeTime));
+            return this;
+        }
+
+        /**
+         * Fade a coarse/fine pair to the 16-bit value, with the fade time of the coarse channel.
+         */
+        public Batch fadeTo(ChannelBinding coarse, ChannelBinding fine, int value) {
+            if (value < 0 || value > 0xFFFF) {
+                throw new IllegalArgumentException("Not a 16-bit value: " + value);
+            }
+            fades.add(new BindingFade(coarse, fine, value, getFadeTime(coarse.getKey())));
+            return this;
+        }
+
+        public void submit() {
+            if (!fades.isEmpty()) {
+                requests.add(new BatchFade(List.copyOf(fades)));
+            }
+        }
+    }
+
+    private sealed interface FadeRequest {
+    }
+
+    private record BindingFade(ChannelBinding coarse, ChannelBinding fine, int value,
+                               FadeTime fadeTime) implements FadeRequest {
+    }
+
+    private record TargetFade(List<FadeTarget> targets, FadeTime fadeTime) implements FadeRequest {
+    }
+
+    private record BatchFade(List<BindingFade> fades) implements FadeRequest {
+    }
+}
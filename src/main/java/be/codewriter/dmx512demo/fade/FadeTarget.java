@@ -0,0 +1,19 @@
+package be.codewriter.dmx512demo.fade;
+
+import be.codewriter.dmx512demo.output.DMXUniverse;
+
+/**
+ * Slots of one universe with the 16-bit value to fade them to, resolved in advance so starting the fade
+ * doesn't need any lookup. The arrays must not be changed once the target is handed to the {@link FadeEngine}.
+ *
+ * @param offsets     zero-based slots
+ * @param fineOffsets for each slot, the zero-based slot of its fine channel, or -1 if it doesn't have one
+ * @param values      for each slot, the 16-bit value
+ */
+public record FadeTarget(DMXUniverse universe, int[] offsets, int[] fineOffsets, int[] values) {
+    public FadeTarget {
+        if (fineOffsets.length != offsets.length || values.length != offsets.length) {
+            throw new IllegalArgumentException("Need a fine offset and a value for every slot");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package be.codewriter.dmx512demo.fade;
+
+/**
+ * How a channel changes to a new value: the fade in time is used when the value goes up, the fade out time
+ * when it goes down.
+ */
+public record FadeTime(long fadeInMillis, long fadeOutMillis, FadeCurve curve) {
+    public static final FadeTime NONE = new FadeTime(0, 0, FadeCurve.LINEAR);
+
+    public FadeTime {
+        if (fadeInMillis < 0 || fadeOutMillis < 0) {
+            throw new IllegalArgumentException("Fade times can't be negative");
+        }
+    }
+}
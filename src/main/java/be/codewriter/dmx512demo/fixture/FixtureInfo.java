@@ -9,6 +9,7 @@ import javafx.scene.control.*;
 import javafx.scene.control.Label;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
+import javafx.util.StringConverter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -16,44 +17,53 @@ import java.awt.*;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 public class FixtureInfo extends Accordion {
     private static final Logger LOGGER = LogManager.getLogger(FixtureInfo.class.getName());
 
     private static final int TITLE_FONT_SIZE = 18;
     private static final int TEXT_FONT_SIZE = 14;
+    private static final int CLIENT_CELL_HEIGHT = 50;
+    private static final int MAX_VISIBLE_CLIENTS = 6;
 
     public FixtureInfo(Fixture fixture, List<DMXClient> clients) {
         setPadding(new Insets(0, 0, 0, 10));
 
+        // The content of each section is only created when it's opened
         if (fixture.categories() != null) {
-            getPanes().add(getCategories(fixture.categories()));
+            getPanes().add(new LazyTitledPane(fixture.categories().size() == 1 ? "Category" : "Categories",
+                    () -> getCategories(fixture.categories())));
         }
 
         if (clients != null && !clients.isEmpty()) {
-            getPanes().add(getClients(clients));
+            getPanes().add(new LazyTitledPane("Clients", () -> getClients(clients)));
         }
 
         if (fixture.meta() != null) {
-            getPanes().add(getMeta(fixture.meta()));
+            getPanes().add(new LazyTitledPane("Meta", () -> getMeta(fixture.meta())));
         }
 
         if (fixture.physical() != null) {
-            getPanes().add(getPhysical(fixture.physical()));
+            getPanes().add(new LazyTitledPane("Physical", () -> getPhysical(fixture.physical())));
         }
 
-        getPanes().add(getModes(fixture));
-        getPanes().add(getChannels(fixture));
+        getPanes().add(new LazyTitledPane("Available Modes (" + fixture.modes().size() + ")", () -> getModes(fixture)));
+        var channels = new LazyTitledPane("Available Channels (" + fixture.availableChannels().size() + ")",
+                () -> getChannels(fixture));
+        getPanes().add(channels);
 
         if (fixture.links() != null) {
-            getPanes().add(getLinks(fixture.links()));
+            getPanes().add(new LazyTitledPane("Links", () -> getLinks(fixture.links())));
         }
+
+        setExpandedPane(channels);
     }
 
-    private TitledPane getCategories(List<String> categories) {
+    private VBox getCategories(List<String> categories) {
         VBox content = new VBox(3);
         content.setPadding(new Insets(5));
 
@@ -61,70 +71,76 @@ public class FixtureInfo extends Accordion {
             content.getChildren().add(new Label(c));
         });
 
-        TitledPane pane = new TitledPane(categories.size() == 1 ? "Category" : "Categories", content);
-        pane.setCollapsible(true);
-        pane.setExpanded(false);
-        return pane;
+        return content;
     }
 
-    private TitledPane getClients(List<DMXClient> clients) {
-        VBox content = new VBox(3);
-        content.setPadding(new Insets(5));
+    private ListView<DMXClient> getClients(List<DMXClient> clients) {
+        var list = new ListView<>(FXCollections.observableList(clients));
+        list.setFixedCellSize(CLIENT_CELL_HEIGHT);
+        list.setPrefHeight(CLIENT_CELL_HEIGHT * Math.min(clients.size(), MAX_VISIBLE_CLIENTS) + 2);
+        list.setCellFactory(_ -> new ListCell<>() {
+            private final Label address = getLabel("", TITLE_FONT_SIZE, true);
+            private final Label mode = getLabel("");
+            private final VBox graphic = new VBox(address, mode);
 
-        clients.forEach(c -> {
-            content.getChildren().add(getLabel("Address: " + c.getAddress(), TITLE_FONT_SIZE, true));
-            content.getChildren().add(getLabel("Mode: " + c.getSelectedMode().name()));
+            @Override
+            protected void updateItem(DMXClient client, boolean empty) {
+                super.updateItem(client, empty);
+                if (empty || client == null) {
+                    setGraphic(null);
+                } else {
+                    address.setText("Address: " + client.getAddress());
+                    mode.setText("Mode: " + client.getSelectedMode().name());
+                    setGraphic(graphic);
+                }
+            }
         });
-
-        TitledPane pane = new TitledPane("Clients", content);
-        pane.setCollapsible(true);
-        pane.setExpanded(false);
-        return pane;
+        return list;
     }
 
-    private TitledPane getModes(Fixture fixture) {
-        Accordion accordion = new Accordion();
-        accordion.setPadding(new Insets(0, 0, 0, 10));
-
-        // Create a TitledPane for each mode
-        for (Mode mode : fixture.modes()) {
-            // Create content for this mode's information
-            VBox modeContent = new VBox(3);
-            modeContent.setPadding(new Insets(5));
-
-            // Add shortName as a label
-            Label shortNameLabel = getLabel("Short Name: " + mode.shortName());
-            modeContent.getChildren().add(shortNameLabel);
-
-            // Add channels in a nested TitledPane
-            if (mode.channels() != null && !mode.channels().isEmpty()) {
-                ListView<String> channelsList = new ListView<>();
-                var counter = new AtomicInteger(1);
-                ObservableList<String> channels = FXCollections.observableArrayList(mode.channels().stream()
-                        .map(c -> counter.getAndIncrement() + ". " + c)
-                        .toList());
-                channelsList.setItems(channels);
-                VBox.setVgrow(channelsList, Priority.ALWAYS);
-                modeContent.getChildren().add(channelsList);
+    private VBox getModes(Fixture fixture) {
+        VBox content = new VBox(3);
+        content.setPadding(new Insets(5));
+
+        ChoiceBox<Mode> modes = new ChoiceBox<>(FXCollections.observableList(fixture.modes()));
+        modes.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Mode mode) {
+                return mode == null ? "" : mode.name();
             }
 
-            // Create TitledPane for this mode
-            TitledPane modePane = new TitledPane(mode.name(), modeContent);
-            modePane.setExpanded(false);
+            @Override
+            public Mode fromString(String name) {
+                return null;
+            }
+        });
+        Label shortNameLabel = getLabel("");
 
-            // Add to main container
-            accordion.getPanes().add(modePane);
-        }
+        // One list for all modes, only its items are replaced when another mode is selected
+        ListView<String> channelsList = new ListView<>();
+        channelsList.setCellFactory(_ -> new ListCell<>() {
+            @Override
+            protected void updateItem(String channel, boolean empty) {
+                super.updateItem(channel, empty);
+                // OFL uses null for a slot that the mode leaves empty
+                setText(empty ? null : (getIndex() + 1) + ". " + (channel == null ? "(no channel)" : channel));
+            }
+        });
+        VBox.setVgrow(channelsList, Priority.ALWAYS);
 
-        // Create main TitledPane
-        TitledPane mainPane = new TitledPane("Available Modes (" + fixture.modes().size() + ")", accordion);
-        mainPane.setCollapsible(true);
-        mainPane.setExpanded(false);
+        modes.getSelectionModel().selectedItemProperty().addListener((_, _, mode) -> {
+            shortNameLabel.setText(mode == null ? "" : "Short Name: " + mode.shortName());
+            channelsList.setItems(mode == null || mode.channels() == null
+                    ? FXCollections.emptyObservableList()
+                    : FXCollections.observableList(mode.channels()));
+        });
+        modes.getSelectionModel().selectFirst();
 
-        return mainPane;
+        content.getChildren().addAll(modes, shortNameLabel, channelsList);
+        return content;
     }
 
-    private TitledPane getChannels(Fixture fixture) {
+    private TreeView<String> getChannels(Fixture fixture) {
         // Create the root item for the TreeView
         TreeItem<String> rootItem = new TreeItem<>("Channels");
         rootItem.setExpanded(true);
@@ -133,68 +149,9 @@ public class FixtureInfo extends Accordion {
         TreeView<String> treeView = new TreeView<>(rootItem);
         treeView.setShowRoot(false);
 
-        // Create a TreeItem for each channel
+        // Only the channel names are created here, the details when a channel is expanded
         for (Map.Entry<String, Channel> entry : fixture.availableChannels().entrySet()) {
-            String channelName = entry.getKey();
-            Channel channel = entry.getValue();
-
-            // Create a TreeItem for this channel
-            TreeItem<String> channelItem = new TreeItem<>(channelName);
-            rootItem.getChildren().add(channelItem);
-
-            // Add default value if present
-            if (channel.defaultValue() != null) {
-                TreeItem<String> defaultItem = new TreeItem<>("Default: " + channel.defaultValue());
-                channelItem.getChildren().add(defaultItem);
-            }
-
-            // Add aliases if present
-            if (channel.fineChannelAliases() != null && !channel.fineChannelAliases().isEmpty()) {
-                TreeItem<String> aliasesItem = new TreeItem<>("Alias(es): " + String.join(", ", channel.fineChannelAliases()));
-                channelItem.getChildren().add(aliasesItem);
-            }
-
-            // Add capabilities if present
-            if (channel.capabilities() != null && !channel.capabilities().isEmpty()) {
-                TreeItem<String> capabilitiesItem = new TreeItem<>("Capabilities");
-                channelItem.getChildren().add(capabilitiesItem);
-
-                // Add each capability as a child node
-                for (Capability capability : channel.capabilities()) {
-                    TreeItem<String> capabilityItem = new TreeItem<>(capability.type().name()
-                            + (capability.effectName() != null ? ": " + capability.effectName() : ""));
-                    capabilitiesItem.getChildren().add(capabilityItem);
-
-                    // Add capability details
-                    if (capability.dmxRange() != null) {
-                        capabilityItem.getChildren().add(new TreeItem<>("DMX Range: " + capability.dmxRange()));
-                    }
-                    if (capability.angleStart() != null) {
-                        capabilityItem.getChildren().add(new TreeItem<>("Angle Start: " + capability.angleStart()));
-                    }
-                    if (capability.angleEnd() != null) {
-                        capabilityItem.getChildren().add(new TreeItem<>("Angle End: " + capability.angleEnd()));
-                    }
-                    if (capability.shutterEffect() != null) {
-                        capabilityItem.getChildren().add(new TreeItem<>("Shutter Effect: " + capability.shutterEffect()));
-                    }
-                    if (capability.slotNumber() != null) {
-                        capabilityItem.getChildren().add(new TreeItem<>("Slot Number: " + capability.slotNumber()));
-                    }
-                    if (capability.slotNumberStart() != null) {
-                        capabilityItem.getChildren().add(new TreeItem<>("Slot Number Start: " + capability.slotNumberStart()));
-                    }
-                    if (capability.slotNumberEnd() != null) {
-                        capabilityItem.getChildren().add(new TreeItem<>("Slot Number End: " + capability.slotNumberEnd()));
-                    }
-                    if (capability.speedStart() != null) {
-                        capabilityItem.getChildren().add(new TreeItem<>("Speed Start: " + capability.speedStart()));
-                    }
-                    if (capability.speedEnd() != null) {
-                        capabilityItem.getChildren().add(new TreeItem<>("Speed End: " + capability.speedEnd()));
-                    }
-                }
-            }
+            rootItem.getChildren().add(getChannelItem(entry.getKey(), entry.getValue()));
         }
 
         // Set preferred size for the tree view
@@ -304,15 +261,73 @@ public class FixtureInfo extends Accordion {
             }
         });
 
-        // Create the titled pane
-        TitledPane mainPane = new TitledPane("Available Channels (" + fixture.availableChannels().size() + ")", treeView);
-        mainPane.setCollapsible(true);
-        mainPane.setExpanded(true);
+        return treeView;
+    }
+
+    private TreeItem<String> getChannelItem(String channelName, Channel channel) {
+        var hasAliases = channel.fineChannelAliases() != null && !channel.fineChannelAliases().isEmpty();
+        var hasCapabilities = channel.capabilities() != null && !channel.capabilities().isEmpty();
+        if (channel.defaultValue() == null && !hasAliases && !hasCapabilities) {
+            return new TreeItem<>(channelName);
+        }
+        return new LazyTreeItem(channelName, () -> {
+            List<TreeItem<String>> children = new ArrayList<>();
+
+            // Add default value if present
+            if (channel.defaultValue() != null) {
+                children.add(new TreeItem<>("Default: " + channel.defaultValue()));
+            }
+
+            // Add aliases if present
+            if (hasAliases) {
+                children.add(new TreeItem<>("Alias(es): " + String.join(", ", channel.fineChannelAliases())));
+            }
+
+            // Add capabilities if present
+            if (hasCapabilities) {
+                children.add(new LazyTreeItem("Capabilities",
+                        () -> channel.capabilities().stream().map(this::getCapabilityItem).toList()));
+            }
+            return children;
+        });
+    }
+
+    private TreeItem<String> getCapabilityItem(Capability capability) {
+        TreeItem<String> capabilityItem = new TreeItem<>(capability.type().name()
+                + (capability.effectName() != null ? ": " + capability.effectName() : ""));
 
-        return mainPane;
+        // Add capability details
+        if (capability.dmxRange() != null) {
+            capabilityItem.getChildren().add(new TreeItem<>("DMX Range: " + capability.dmxRange()));
+        }
+        if (capability.angleStart() != null) {
+            capabilityItem.getChildren().add(new TreeItem<>("Angle Start: " + capability.angleStart()));
+        }
+        if (capability.angleEnd() != null) {
+            capabilityItem.getChildren().add(new TreeItem<>("Angle End: " + capability.angleEnd()));
+        }
+        if (capability.shutterEffect() != null) {
+            capabilityItem.getChildren().add(new TreeItem<>("Shutter Effect: " + capability.shutterEffect()));
+        }
+        if (capability.slotNumber() != null) {
+            capabilityItem.getChildren().add(new TreeItem<>("Slot Number: " + capability.slotNumber()));
+        }
+        if (capability.slotNumberStart() != null) {
+            capabilityItem.getChildren().add(new TreeItem<>("Slot Number Start: " + capability.slotNumberStart()));
+        }
+        if (capability.slotNumberEnd() != null) {
+            capabilityItem.getChildren().add(new TreeItem<>("Slot Number End: " + capability.slotNumberEnd()));
+        }
+        if (capability.speedStart() != null) {
+            capabilityItem.getChildren().add(new TreeItem<>("Speed Start: " + capability.speedStart()));
+        }
+        if (capability.speedEnd() != null) {
+            capabilityItem.getChildren().add(new TreeItem<>("Speed End: " + capability.speedEnd()));
+        }
+        return capabilityItem;
     }
 
-    private TitledPane getLinks(Links links) {
+    private VBox getLinks(Links links) {
         VBox content = new VBox(3);
         content.setPadding(new Insets(5));
 
@@ -332,13 +347,10 @@ public class FixtureInfo extends Accordion {
             }
         }
 
-        TitledPane pane = new TitledPane("Links", content);
-        pane.setCollapsible(true);
-        pane.setExpanded(false);
-        return pane;
+        return content;
     }
 
-    private TitledPane getPhysical(Physical physical) {
+    private VBox getPhysical(Physical physical) {
         VBox content = new VBox(3);
         content.setPadding(new Insets(5));
 
@@ -368,13 +380,10 @@ public class FixtureInfo extends Accordion {
             content.getChildren().add(lbl);
         }
 
-        TitledPane pane = new TitledPane("Physical", content);
-        pane.setCollapsible(true);
-        pane.setExpanded(false);
-        return pane;
+        return content;
     }
 
-    private TitledPane getMeta(Meta meta) {
+    private VBox getMeta(Meta meta) {
         VBox content = new VBox(3);
         content.setPadding(new Insets(5));
 
@@ -394,10 +403,7 @@ public class FixtureInfo extends Accordion {
             content.getChildren().add(lbl);
         }
 
-        TitledPane pane = new TitledPane("Meta", content);
-        pane.setCollapsible(true);
-        pane.setExpanded(false);
-        return pane;
+        return content;
     }
 
     private Hyperlink getLink(String text, String url) {
@@ -422,4 +428,31 @@ public class FixtureInfo extends Accordion {
         label.setStyle("-fx-font-size: " + fontSize + "px; -fx-font-weight: " + (bold ? "bold" : "normal") + ";");
         return label;
     }
-}
\ No newline at end of file
+
+    /**
+     * Tree item that only creates its children the first time the tree asks for them.
+     */
+    private static final class LazyTreeItem extends TreeItem<String> {
+        private Supplier<List<TreeItem<String>>> children;
+
+        private LazyTreeItem(String value, Supplier<List<TreeItem<String>>> children) {
+            super(value);
+            this.children = children;
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return false;
+        }
+
+        @Override
+        public ObservableList<TreeItem<String>> getChildren() {
+            if (children != null) {
+                var created = children.get();
+                children = null;
+                super.getChildren().setAll(created);
+            }
+            return super.getChildren();
+        }
+    }
+}
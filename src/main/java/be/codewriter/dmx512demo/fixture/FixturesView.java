@@ -1,65 +1,107 @@
 package be.codewriter.dmx512demo.fixture;
 
 import be.codewriter.dmx512.client.DMXClient;
-import be.codewriter.dmx512.controller.DMXController;
 import be.codewriter.dmx512.ofl.model.Fixture;
+import be.codewriter.dmx512demo.client.EffectController;
 import be.codewriter.dmx512demo.client.RGBController;
 import be.codewriter.dmx512demo.client.SingleSliderController;
+import be.codewriter.dmx512demo.effect.EffectEngine;
+import be.codewriter.dmx512demo.fade.FadeEngine;
+import be.codewriter.dmx512demo.output.ChannelBinding;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
 import javafx.geometry.Orientation;
 import javafx.geometry.VPos;
 import javafx.scene.control.Accordion;
-import javafx.scene.control.TitledPane;
 import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 
 import java.util.List;
+import java.util.Map;
 
 public class FixturesView extends Accordion {
+    private static final String LED_PARTY_TCL_SPOT = "LED PARty TCL Spot";
+    private static final String PICO_SPOT = "PicoSpot 20 LED";
+    private static final Map<String, Integer> LED_PARTY_TCL_DEFAULTS = Map.of("Red", 255, "Green", 255, "Blue", 255, "Dimmer", 255);
+    private static final byte GROUP_DIMMER_DEFAULT = (byte) 255;
 
-    public FixturesView(DMXController controller, List<Fixture> fixtures, List<DMXClient> clients) {
-        fixtures.forEach(f -> {
-            var fixtureClients = clients.stream()
-                    .filter(c -> c.getFixture() == f)
-                    .toList();
-            this.getPanes().add(getFixtureView(controller, f, fixtureClients));
-        });
+    public FixturesView(DMXOutputEngine output, EffectEngine effects, FadeEngine fades, List<Fixture> fixtures) {
+        writeDefaults(output, fixtures);
+
+        // The info and controllers of a fixture are only created when its pane is opened
+        fixtures.forEach(f -> this.getPanes().add(new LazyTitledPane(f.name(),
+                () -> getFixtureView(output, effects, fades, f, output.getPatch().getClients(f)))));
+        if (!output.getGroups().isEmpty()) {
+            this.getPanes().add(new LazyTitledPane("Groups", () -> getGroupsView(output, fades)));
+        }
         this.setExpandedPane(this.getPanes().getFirst());
     }
 
-    private TitledPane getFixtureView(DMXController controller, Fixture fixture, List<DMXClient> clients) {
-        var pane = new TitledPane();
-        pane.setText(fixture.name());
+    /**
+     * Write the start values of all controllers into the programmer once, in one frame. The controllers start from
+     * the values in the programmer, so opening a view later doesn't change the output.
+     */
+    private static void writeDefaults(DMXOutputEngine output, List<Fixture> fixtures) {
+        var programmer = output.getProgrammer();
+        try (var _ = programmer.beginFrame()) {
+            for (Fixture fixture : fixtures) {
+                var clients = output.getPatch().getClients(fixture);
+                getDefaults(fixture).forEach((key, value) ->
+                        ChannelBinding.of(programmer, clients, key).setValue(value.byteValue()));
+            }
+            output.getGroups().forEach(g -> g.getBinding("Dimmer").setValue(GROUP_DIMMER_DEFAULT));
+        }
+    }
+
+    private static Map<String, Integer> getDefaults(Fixture fixture) {
+        if (fixture.name().equalsIgnoreCase(LED_PARTY_TCL_SPOT)) {
+            return LED_PARTY_TCL_DEFAULTS;
+        } else if (fixture.name().equalsIgnoreCase(PICO_SPOT)) {
+            return PicoSpotView.DEFAULTS;
+        }
+        return Map.of();
+    }
 
+    private FlowPane getGroupsView(DMXOutputEngine output, FadeEngine fades) {
+        var holder = new FlowPane();
+        holder.setRowValignment(VPos.TOP);
+        holder.setHgap(10);
+        holder.setVgap(10);
+        output.getGroups().forEach(g -> holder.getChildren().add(new SingleSliderController(fades,
+                g.getBinding("Dimmer"), g.getName() + " (" + g.size() + ")", Orientation.VERTICAL)));
+        return holder;
+    }
+
+    private HBox getFixtureView(DMXOutputEngine output, EffectEngine effects, FadeEngine fades, Fixture fixture, List<DMXClient> clients) {
         var holder = new HBox();
         holder.setSpacing(10);
-        pane.setContent(holder);
 
         var info = new FixtureInfo(fixture, clients);
         info.setPrefWidth(300);
         holder.getChildren().add(info);
 
-        if (fixture.name().equalsIgnoreCase("LED PARty TCL Spot")) {
-            var controllers = getLedPartyTCLControllers(controller, clients);
+        if (fixture.name().equalsIgnoreCase(LED_PARTY_TCL_SPOT)) {
+            var controllers = getLedPartyTCLControllers(output, effects, fades, clients);
             HBox.setHgrow(controllers, Priority.ALWAYS);
             holder.getChildren().add(controllers);
-        } else if (fixture.name().equalsIgnoreCase("PicoSpot 20 LED")) {
-            var controllers = new PicoSpotView(controller, clients);
+        } else if (fixture.name().equalsIgnoreCase(PICO_SPOT)) {
+            var controllers = new PicoSpotView(output, effects, fades, clients);
             HBox.setHgrow(controllers, Priority.ALWAYS);
             holder.getChildren().add(controllers);
         }
 
-        return pane;
+        return holder;
     }
 
-    private FlowPane getLedPartyTCLControllers(DMXController controller, List<DMXClient> clients) {
+    private FlowPane getLedPartyTCLControllers(DMXOutputEngine output, EffectEngine effects, FadeEngine fades, List<DMXClient> clients) {
         var holder = new FlowPane();
         holder.setRowValignment(VPos.TOP);
         holder.setHgap(10);
         holder.setVgap(10);
         
-        holder.getChildren().add(new RGBController(controller, clients));
-        holder.getChildren().add(new SingleSliderController(controller, clients, "Dimmer", 255, Orientation.VERTICAL));
+        holder.getChildren().add(new RGBController(output, fades, clients));
+        holder.getChildren().add(new SingleSliderController(output, fades, clients, "Dimmer", Orientation.VERTICAL));
+        holder.getChildren().add(new EffectController(output, effects, clients, "Dimmer"));
 
         return holder;
     }
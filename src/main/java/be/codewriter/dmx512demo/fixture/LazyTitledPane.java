@@ -0,0 +1,30 @@
+package be.codewriter.dmx512demo.fixture;
+
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.Node;
+import javafx.scene.control.TitledPane;
+
+import java.util.function.Supplier;
+
+/**
+ * A {@link TitledPane} that only creates its content the first time it's expanded, so collapsed panes only cost
+ * their title in the scene graph. The content is kept afterward, so collapsing and expanding again doesn't rebuild it.
+ */
+class LazyTitledPane extends TitledPane {
+
+    LazyTitledPane(String title, Supplier<Node> content) {
+        super(title, null);
+        setCollapsible(true);
+        setExpanded(false);
+        expandedProperty().addListener(new ChangeListener<>() {
+            @Override
+            public void changed(ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean expanded) {
+                if (expanded) {
+                    expandedProperty().removeListener(this);
+                    setContent(content.get());
+                }
+            }
+        });
+    }
+}
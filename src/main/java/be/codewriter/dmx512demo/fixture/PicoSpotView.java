@@ -1,12 +1,15 @@
 package be.codewriter.dmx512demo.fixture;
 
 import be.codewriter.dmx512.client.DMXClient;
-import be.codewriter.dmx512.controller.DMXController;
+import be.codewriter.dmx512demo.client.EffectController;
 import be.codewriter.dmx512demo.client.ListController;
 import be.codewriter.dmx512demo.client.PanTiltController;
 import be.codewriter.dmx512demo.client.SingleSliderController;
 import be.codewriter.dmx512demo.client.data.ListItem;
+import be.codewriter.dmx512demo.effect.EffectEngine;
+import be.codewriter.dmx512demo.fade.FadeEngine;
 import be.codewriter.dmx512demo.helper.ImageHelper;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
 import javafx.geometry.Orientation;
 import javafx.geometry.VPos;
 import javafx.scene.layout.FlowPane;
@@ -17,18 +20,29 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 
 import java.util.List;
+import java.util.Map;
 
 import static be.codewriter.dmx512demo.client.ListController.LIST_ITEM_HEIGHT;
 
 public class PicoSpotView extends FlowPane {
-    public PicoSpotView(DMXController controller, List<DMXClient> clients) {
+    /**
+     * The start values of the channels, written into the programmer once by the {@link FixturesView}, with pan and
+     * tilt in the center.
+     */
+    static final Map<String, Integer> DEFAULTS = Map.ofEntries(
+            Map.entry("Program", 0), Map.entry("Program Speed", 127),
+            Map.entry("Color Wheel", 0), Map.entry("Gobo Wheel", 0),
+            Map.entry("Pan", 127), Map.entry("Pan fine", 255), Map.entry("Tilt", 127), Map.entry("Tilt fine", 255),
+            Map.entry("Pan/Tilt Speed", 127), Map.entry("Dimmer", 255), Map.entry("Shutter / Strobe", 0));
+
+    public PicoSpotView(DMXOutputEngine output, EffectEngine effects, FadeEngine fades, List<DMXClient> clients) {
         setRowValignment(VPos.TOP);
         setHgap(10); // horizontal gap between elements
         setVgap(10); // vertical gap between rows
 
-        var programList = getPicoSpotProgram(controller, clients);
-        var colorList = getColorWheel(controller, clients);
-        var goboList = getGoboWheel(controller, clients);
+        var programList = getPicoSpotProgram(output, fades, clients);
+        var colorList = getColorWheel(output, fades, clients);
+        var goboList = getGoboWheel(output, fades, clients);
 
         // Add listener to program list to enable/disable color and gobo lists
         programList.getSelectionModel().selectedIndexProperty().addListener((observable, oldValue, newValue) -> {
@@ -42,19 +56,20 @@ public class PicoSpotView extends FlowPane {
         colorList.setDisable(!isFirstItemSelected);
         goboList.setDisable(!isFirstItemSelected);
 
-        getChildren().add(getProgramView(controller, clients, programList));
+        getChildren().add(getProgramView(output, fades, clients, programList));
         getChildren().add(colorList);
         getChildren().add(goboList);
-        getChildren().add(new PanTiltController(controller, clients));
-        getChildren().add(new SingleSliderController(controller, clients, "Dimmer", 255, Orientation.VERTICAL));
-        getChildren().add(new SingleSliderController(controller, clients, "Shutter / Strobe", 0, Orientation.VERTICAL));
+        getChildren().add(new PanTiltController(output, effects, fades, clients));
+        getChildren().add(new SingleSliderController(output, fades, clients, "Dimmer", Orientation.VERTICAL));
+        getChildren().add(new EffectController(output, effects, clients, "Dimmer"));
+        getChildren().add(new SingleSliderController(output, fades, clients, "Shutter / Strobe", Orientation.VERTICAL));
     }
 
-    private VBox getProgramView(DMXController controller, List<DMXClient> clients, ListController programList) {
+    private VBox getProgramView(DMXOutputEngine output, FadeEngine fades, List<DMXClient> clients, ListController programList) {
         var holder = new VBox();
         holder.setSpacing(10);
         holder.getChildren().addAll(programList,
-                new SingleSliderController(controller, clients, "Program Speed", 127, Orientation.HORIZONTAL));
+                new SingleSliderController(output, fades, clients, "Program Speed", Orientation.HORIZONTAL));
         return holder;
     }
 
@@ -77,7 +92,7 @@ public class PicoSpotView extends FlowPane {
      * 165 	…	175: Purple … White
      * 176 	…	255: Color Wheel rotation CW slow…
      */
-    private ListController getColorWheel(DMXController controller, List<DMXClient> clients) {
+    private ListController getColorWheel(DMXOutputEngine output, FadeEngine fades, List<DMXClient> clients) {
         var items = List.of(
                 new ListItem((byte) 0, "White", getColorBox(Color.WHITE)),
                 new ListItem((byte) 11, "Red", getColorBox(Color.RED)),
@@ -97,7 +112,7 @@ public class PicoSpotView extends FlowPane {
                 new ListItem((byte) 165, "Purple-White", getColorBox(Color.PURPLE, Color.WHITE))
 
         );
-        return new ListController(controller, clients, "Color Wheel", items);
+        return new ListController(output, fades, clients, "Color Wheel", items);
     }
 
     /**
@@ -118,7 +133,7 @@ public class PicoSpotView extends FlowPane {
      * 219 	…	249: Gobo 7 shake slow…fast
      * 250 	…	255: Gobo Wheel rotation CW slow…fast
      */
-    private ListController getGoboWheel(DMXController controller, List<DMXClient> clients) {
+    private ListController getGoboWheel(DMXOutputEngine output, FadeEngine fades, List<DMXClient> clients) {
         var items = List.of(
                 new ListItem((byte) 0, "Open", getImageBox("/gobo/open.jpg", Color.BLACK)),
                 new ListItem((byte) 16, "Gobo 1", getImageBox("/gobo/gobo-1.jpg", Color.BLACK)),
@@ -130,7 +145,7 @@ public class PicoSpotView extends FlowPane {
                 new ListItem((byte) 110, "Gobo 7", getImageBox("/gobo/gobo-7.jpg", Color.BLACK))
 
         );
-        return new ListController(controller, clients, "Gobo Wheel", items);
+        return new ListController(output, fades, clients, "Gobo Wheel", items);
     }
 
     /**
@@ -157,7 +172,7 @@ public class PicoSpotView extends FlowPane {
      * 240, 249: NoFunction - Empty
      * 250, 255: Effect - Sound-controlled operation
      */
-    private ListController getPicoSpotProgram(DMXController controller, List<DMXClient> clients) {
+    private ListController getPicoSpotProgram(DMXOutputEngine output, FadeEngine fades, List<DMXClient> clients) {
         var items = List.of(
                 new ListItem((byte) 0, "None", getImageBox("/icon/none.png", Color.WHITE)),
                 new ListItem((byte) 50, "White", getColorBox(Color.WHITE)),
@@ -170,7 +185,7 @@ public class PicoSpotView extends FlowPane {
                 new ListItem((byte) 200, "Program 7", getTextBox("P7")),
                 new ListItem((byte) 250, "Sound", getImageBox("/icon/sound-waves.png", Color.WHITE))
         );
-        return new ListController(controller, clients, "Program", items);
+        return new ListController(output, fades, clients, "Program", items);
     }
 
     private Pane getTextBox(String text) {
@@ -0,0 +1,281 @@
+package be.codewriter.dmx512demo.input;
+
+import be.codewriter.dmx512demo.logging.SampledLogger;
+import be.codewriter.dmx512demo.output.DMXUniverse;
+import be.codewriter.dmx512demo.output.MergeSource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Receives Art-Net ArtDmx packets, e.g. from a main console, and writes them into the layer of a {@link MergeSource},
+ * so they are merged with the other sources like any other control.
+ * <p>
+ * All universes are received on one non-blocking channel with a selector, on a single thread. Every packet is read
+ * into the same direct buffer and copied from there into its universe, so nothing is allocated per packet.
+ * Packets that arrive out of order are dropped, based on their Art-Net sequence number.
+ * <p>
+ * When a console stops sending, its last values are kept. A slot can also be used as a trigger, which runs an
+ * action every time the received value goes from below half to half or more.
+ * <p>
+ * Art-Net software on the same machine, e.g. a visualiser, is received like any other sender. Only packets from this
+ * machine with a port-address that is sent by our own output are dropped, as they are our output coming back.
+ */
+public class ArtNetInput {
+    public static final int PORT = 6454;
+    public static final String SOURCE_NAME = "Art-Net Input";
+    private static final Logger LOGGER = LogManager.getLogger(ArtNetInput.class.getName());
+    private static final SampledLogger ERROR_LOGGER = new SampledLogger("input.error", Duration.ofSeconds(5));
+    private static final long ID = ByteBuffer.wrap("Art-Net\0".getBytes(StandardCharsets.US_ASCII)).getLong();
+    private static final int OP_DMX = 0x5000;
+    private static final int SEQUENCE_OFFSET = 12;
+    private static final int PORT_ADDRESS_OFFSET = 14;
+    private static final int LENGTH_OFFSET = 16;
+    private static final int HEADER_SIZE = 18;
+    private static final int TRIGGER_THRESHOLD = 128;
+    private static final long SELECT_TIMEOUT_MILLIS = 1000;
+    // A sender that was silent this long may have restarted, so its sequence starts over
+    private static final long SEQUENCE_TIMEOUT_NANOS = 500_000_000L;
+    // Packets further behind than this are not late, the sender restarted
+    private static final int MAX_SEQUENCE_GAP = 32;
+
+    private final MergeSource source;
+    private final Route[] routes = new Route[0x8000];
+    // Room for one byte more than the largest ArtDmx, to recognize packets that are too large
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(HEADER_SIZE + DMXUniverse.SIZE + 1);
+    private final Consumer<SelectionKey> reader = _ -> receive();
+    private final Set<InetAddress> localAddresses = new HashSet<>();
+    private final long[] ownPortAddresses = new long[0x8000 / Long.SIZE];
+    private volatile long packetCount;
+    private volatile long droppedCount;
+    private volatile boolean running;
+    private DatagramChannel channel;
+    private Selector selector;
+    private Thread thread;
+
+    public ArtNetInput(MergeSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Merge the received Art-Net universe into a universe of the patch. Must be called before {@link #start()}.
+     *
+     * @param portAddress the Art-Net universe (net, sub-net and universe) in 15 bits
+     */
+    public void route(int portAddress, int universe) {
+        var target = source.getUniverse(universe);
+        if (target == null) {
+            throw new IllegalArgumentException("Universe " + universe + " is not in the patch");
+        }
+        routes[portAddress] = new Route(target, routes[portAddress] == null ? new Trigger[0] : routes[portAddress].triggers);
+    }
+
+    /**
+     * Run the action on the input thread when the slot goes to half or more. Must be called before {@link #start()}.
+     *
+     * @param address DMX address, starting from 1, in the received Art-Net universe
+     */
+    public void addTrigger(int portAddress, int address, Runnable action) {
+        var route = routes[portAddress];
+        if (route == null) {
+            throw new IllegalArgumentException("Art-Net port-address " + portAddress + " is not routed");
+        }
+        var triggers = Arrays.copyOf(route.triggers, route.triggers.length + 1);
+        triggers[route.triggers.length] = new Trigger(address - 1, action);
+        routes[portAddress] = new Route(route.universe, triggers);
+    }
+
+    /**
+     * Drop the packets with this port-address that come from this machine, because our own output sends it.
+     * Must be called before {@link #start()}.
+     */
+    public void ignoreOwnOutput(int portAddress) {
+        ownPortAddresses[portAddress >> 6] |= 1L << portAddress;
+    }
+
+    /**
+     * @return the number of ArtDmx packets that were merged
+     */
+    public long getPacketCount() {
+        return packetCount;
+    }
+
+    /**
+     * @return the number of ArtDmx packets that were dropped because they were out of order or invalid
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public synchronized void start() throws IOException {
+        if (thread != null) {
+            return;
+        }
+        collectLocalAddresses();
+        selector = Selector.open();
+        channel = DatagramChannel.open();
+        // Other Art-Net software on this machine can listen on the same port
+        channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        channel.bind(new InetSocketAddress(PORT));
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ);
+        running = true;
+        thread = Thread.ofPlatform().name("artnet-input").daemon().start(this::run);
+        LOGGER.info("Receiving Art-Net on port {}", PORT);
+    }
+
+    public synchronized void stop() {
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+            selector.close();
+        } catch (IOException e) {
+            LOGGER.warn("Error closing Art-Net input: {}", e.getMessage());
+        }
+        thread = null;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select(reader, SELECT_TIMEOUT_MILLIS);
+            } catch (Exception e) {
+                ERROR_LOGGER.error("Error receiving Art-Net: {}", e.getMessage(), null);
+            }
+        }
+    }
+
+    private void receive() {
+        try {
+            SocketAddress sender;
+            while ((sender = channel.receive(buffer.clear())) != null) {
+                handle(buffer.flip(), sender);
+            }
+        } catch (IOException e) {
+            ERROR_LOGGER.error("Error receiving Art-Net: {}", e.getMessage(), null);
+        }
+    }
+
+    private void handle(ByteBuffer packet, SocketAddress sender) {
+        if (packet.limit() < HEADER_SIZE || packet.getLong(0) != ID
+                || ((packet.get(8) & 0xFF) | (packet.get(9) & 0xFF) << 8) != OP_DMX) {
+            return;
+        }
+        var portAddress = (packet.get(PORT_ADDRESS_OFFSET) & 0xFF) | (packet.get(PORT_ADDRESS_OFFSET + 1) & 0x7F) << 8;
+        var route = routes[portAddress];
+        if (route == null || isOwnOutput(portAddress, sender)) {
+            return;
+        }
+        var length = (packet.get(LENGTH_OFFSET) & 0xFF) << 8 | (packet.get(LENGTH_OFFSET + 1) & 0xFF);
+        var sequence = packet.get(SEQUENCE_OFFSET) & 0xFF;
+        if (length > DMXUniverse.SIZE || HEADER_SIZE + length > packet.limit()
+                || !route.accept(sequence, System.nanoTime())) {
+            droppedCount++;
+            return;
+        }
+
+        route.universe.setValues(packet.position(HEADER_SIZE).limit(HEADER_SIZE + length));
+        for (Trigger trigger : route.triggers) {
+            if (trigger.offset < length) {
+                trigger.update(packet.get(HEADER_SIZE + trigger.offset) & 0xFF);
+            }
+        }
+        packetCount++;
+    }
+
+    /**
+     * Our own output can come back when it's broadcast
+     */
+    private boolean isOwnOutput(int portAddress, SocketAddress sender) {
+        return (ownPortAddresses[portAddress >> 6] & 1L << portAddress) != 0
+                && sender instanceof InetSocketAddress address && localAddresses.contains(address.getAddress());
+    }
+
+    private void collectLocalAddresses() throws IOException {
+        localAddresses.clear();
+        for (var networkInterface : NetworkInterface.networkInterfaces().toList()) {
+            networkInterface.inetAddresses().forEach(localAddresses::add);
+        }
+    }
+
+    private static final class Route {
+        private final DMXUniverse universe;
+        private final Trigger[] triggers;
+        private int lastSequence;
+        private long lastReceived;
+
+        private Route(DMXUniverse universe, Trigger[] triggers) {
+            this.universe = universe;
+            this.triggers = triggers;
+        }
+
+        /**
+         * A packet that is a little behind the last one arrived out of order and is dropped. One that is far behind,
+         * or that arrives after a silence, is accepted, as the sender restarted its sequence.
+         *
+         * @return false if the packet is older than the last one, sequence 0 means the sender doesn't use them
+         */
+        private boolean accept(int sequence, long now) {
+            var silent = now - lastReceived > SEQUENCE_TIMEOUT_NANOS;
+            lastReceived = now;
+            if (sequence == 0 || lastSequence == 0 || silent) {
+                lastSequence = sequence;
+                return true;
+            }
+            var behind = (lastSequence - sequence) & 0xFF;
+            if (behind <= MAX_SEQUENCE_GAP) {
+                return false;
+            }
+            lastSequence = sequence;
+            return true;
+        }
+    }
+
+    private static final class Trigger {
+        private final int offset;
+        private final Runnable action;
+        private boolean high;
+
+        private Trigger(int offset, Runnable action) {
+            this.offset = offset;
+            this.action = action;
+        }
+
+        private void update(int value) {
+            var nowHigh = value >= TRIGGER_THRESHOLD;
+            if (nowHigh && !high) {
+                try {
+                    action.run();
+                } catch (Exception e) {
+                    ERROR_LOGGER.error("Error running Art-Net trigger at slot {}: {}", offset + 1, e.getMessage());
+                }
+            }
+            high = nowHigh;
+        }
+    }
+}
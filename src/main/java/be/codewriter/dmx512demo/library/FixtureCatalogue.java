@@ -0,0 +1,196 @@
+package be.codewriter.dmx512demo.library;
+
+import be.codewriter.dmx512.ofl.model.Fixture;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The layouts of all fixture modes of the library, compiled at build time by {@link FixtureIndexBuilder} into a
+ * binary file, so they are available at startup without parsing any JSON.
+ * <p>
+ * The file is memory-mapped when it's a file on disk and read in one go when it's inside a jar. At startup, only
+ * the names are read to know where each mode starts, a layout is decoded when it's used for the first time.
+ * <p>
+ * Format, big-endian, strings as an unsigned short length followed by UTF-8 bytes:
+ * <pre>
+ * int magic, short version, int fixture count
+ * per fixture: string resource, string name, short mode count
+ *   per mode: string name, int size of the channel table in bytes, short channel count
+ *     per channel: string name, short fine offset, short coarse offset
+ * </pre>
+ */
+public class FixtureCatalogue {
+    public static final String CATALOGUE_RESOURCE = "ofl/catalogue.bin";
+    private static final Logger LOGGER = LogManager.getLogger(FixtureCatalogue.class.getName());
+    private static final int MAGIC = 0x444D5843;
+    private static final short VERSION = 1;
+
+    private final ByteBuffer data;
+    private final Set<String> resources = new HashSet<>();
+    private final Map<String, Integer> modes = new HashMap<>();
+
+    FixtureCatalogue(ByteBuffer data) {
+        this.data = data;
+        if (data.capacity() == 0) {
+            return;
+        }
+        if (data.getInt(0) != MAGIC || data.getShort(4) != VERSION) {
+            throw new IllegalArgumentException("Not a fixture catalogue of version " + VERSION);
+        }
+        var buffer = data.duplicate().position(6);
+        var fixtureCount = buffer.getInt();
+        for (int f = 0; f < fixtureCount; f++) {
+            var resource = readString(buffer);
+            // The name is kept in the file for readability, fixtures of different manufacturers can share it
+            readString(buffer);
+            resources.add(resource);
+            var modeCount = buffer.getShort();
+            for (int m = 0; m < modeCount; m++) {
+                var modeName = readString(buffer);
+                var size = buffer.getInt();
+                modes.putIfAbsent(getModeKey(resource, modeName), buffer.position());
+                buffer.position(buffer.position() + size);
+            }
+        }
+    }
+
+    /**
+     * @return the catalogue on the class path, loaded on first use, or an empty one if not available
+     */
+    public static FixtureCatalogue getDefault() {
+        return DefaultHolder.CATALOGUE;
+    }
+
+    /**
+     * Map the catalogue from the class path. When it's not available, e.g. when the build step didn't run,
+     * the catalogue is empty and the layouts are taken from the parsed fixtures.
+     */
+    public static FixtureCatalogue load() {
+        var url = FixtureCatalogue.class.getClassLoader().getResource(CATALOGUE_RESOURCE);
+        if (url == null) {
+            LOGGER.warn("Fixture catalogue {} not found, fixture layouts will be created from the definitions",
+                    CATALOGUE_RESOURCE);
+            return new FixtureCatalogue(ByteBuffer.allocate(0));
+        }
+        try {
+            ByteBuffer data;
+            if (url.getProtocol().equals("file")) {
+                try (var channel = FileChannel.open(Path.of(url.toURI()), StandardOpenOption.READ)) {
+                    data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            } else {
+                try (InputStream is = url.openStream()) {
+                    data = ByteBuffer.wrap(is.readAllBytes());
+                }
+            }
+            var catalogue = new FixtureCatalogue(data);
+            LOGGER.info("Fixture catalogue loaded with {} fixture(s)", catalogue.resources.size());
+            return catalogue;
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            LOGGER.error("Error loading fixture catalogue: {}", e.getMessage());
+            return new FixtureCatalogue(ByteBuffer.allocate(0));
+        }
+    }
+
+    /**
+     * @param resource class path resource of the OFL definition
+     */
+    public boolean contains(String resource) {
+        return resources.contains(resource);
+    }
+
+    /**
+     * @param resource class path resource of the OFL definition
+     * @return the compiled layout, or null if the mode is not in the catalogue
+     */
+    public ModeLayout getLayout(String resource, String modeName) {
+        var position = modes.get(getModeKey(resource, modeName));
+        if (position == null) {
+            return null;
+        }
+        var buffer = data.duplicate().position(position);
+        var channelCount = buffer.getShort();
+        var channels = new ArrayList<String>(channelCount);
+        var fineOffsets = new int[channelCount];
+        var coarseOffsets = new int[channelCount];
+        for (int c = 0; c < channelCount; c++) {
+            channels.add(readString(buffer));
+            fineOffsets[c] = buffer.getShort();
+            coarseOffsets[c] = buffer.getShort();
+        }
+        return new ModeLayout(modeName, channels, fineOffsets, coarseOffsets);
+    }
+
+    /**
+     * Write the catalogue of the given fixtures.
+     *
+     * @param fixtures parsed fixtures by class path resource
+     */
+    static void write(Map<String, Fixture> fixtures, OutputStream os) throws IOException {
+        var out = new DataOutputStream(os);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(fixtures.size());
+        for (var entry : fixtures.entrySet()) {
+            var fixture = entry.getValue();
+            writeString(out, entry.getKey());
+            writeString(out, fixture.name());
+            out.writeShort(fixture.modes().size());
+            for (var mode : fixture.modes()) {
+                writeString(out, mode.name());
+                var table = new ByteArrayOutputStream();
+                writeChannels(new DataOutputStream(table), ModeLayout.of(mode));
+                out.writeInt(table.size());
+                table.writeTo(out);
+            }
+        }
+        out.flush();
+    }
+
+    private static void writeChannels(DataOutputStream out, ModeLayout layout) throws IOException {
+        var channels = layout.getChannels();
+        out.writeShort(channels.size());
+        for (int c = 0; c < channels.size(); c++) {
+            writeString(out, channels.get(c));
+            out.writeShort(layout.getFineOffsets()[c]);
+            out.writeShort(layout.getCoarseOffsets()[c]);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        var bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String getModeKey(String resource, String modeName) {
+        return resource + "\n" + modeName;
+    }
+
+    private static final class DefaultHolder {
+        private static final FixtureCatalogue CATALOGUE = load();
+    }
+}
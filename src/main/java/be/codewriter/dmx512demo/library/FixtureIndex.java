@@ -0,0 +1,107 @@
+package be.codewriter.dmx512demo.library;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * All the fixtures of the library by manufacturer, name and category, read from the index file that is generated
+ * at build time by {@link FixtureIndexBuilder}, so no fixture definition needs to be parsed to browse the library.
+ */
+public class FixtureIndex {
+    public static final String INDEX_RESOURCE = "ofl/index.txt";
+    private static final Logger LOGGER = LogManager.getLogger(FixtureIndex.class.getName());
+
+    private final Map<String, FixtureIndexEntry> byResource = new LinkedHashMap<>();
+    private final Map<String, List<FixtureIndexEntry>> byManufacturer = new TreeMap<>();
+    private final Map<String, List<FixtureIndexEntry>> byCategory = new TreeMap<>();
+
+    FixtureIndex(List<FixtureIndexEntry> entries) {
+        for (FixtureIndexEntry entry : entries) {
+            byResource.put(entry.resource(), entry);
+            byManufacturer.computeIfAbsent(entry.manufacturer(), _ -> new ArrayList<>()).add(entry);
+            entry.categories().forEach(c -> byCategory.computeIfAbsent(c, _ -> new ArrayList<>()).add(entry));
+        }
+    }
+
+    /**
+     * Read the index from the class path. When it's not available, e.g. when the build step didn't run,
+     * the index is empty, but fixtures can still be loaded by resource name.
+     */
+    public static FixtureIndex load() {
+        try (InputStream is = FixtureIndex.class.getClassLoader().getResourceAsStream(INDEX_RESOURCE)) {
+            if (is == null) {
+                LOGGER.warn("Fixture index {} not found, the library can't be browsed", INDEX_RESOURCE);
+                return new FixtureIndex(List.of());
+            }
+            return read(is);
+        } catch (IOException e) {
+            LOGGER.error("Error reading fixture index: {}", e.getMessage());
+            return new FixtureIndex(List.of());
+        }
+    }
+
+    static FixtureIndex read(InputStream is) throws IOException {
+        var entries = new ArrayList<FixtureIndexEntry>();
+        try (var reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    entries.add(FixtureIndexEntry.fromLine(line));
+                } catch (IllegalArgumentException e) {
+                    LOGGER.warn("Invalid line in fixture index '{}': {}", line, e.getMessage());
+                }
+            }
+        }
+        return new FixtureIndex(entries);
+    }
+
+    public Collection<FixtureIndexEntry> getEntries() {
+        return Collections.unmodifiableCollection(byResource.values());
+    }
+
+    public FixtureIndexEntry getEntry(String resource) {
+        return byResource.get(resource);
+    }
+
+    /**
+     * @return the manufacturer keys, sorted
+     */
+    public Set<String> getManufacturers() {
+        return Collections.unmodifiableSet(byManufacturer.keySet());
+    }
+
+    public List<FixtureIndexEntry> getByManufacturer(String manufacturer) {
+        return Collections.unmodifiableList(byManufacturer.getOrDefault(manufacturer, List.of()));
+    }
+
+    /**
+     * @return the categories, sorted
+     */
+    public Set<String> getCategories() {
+        return Collections.unmodifiableSet(byCategory.keySet());
+    }
+
+    public List<FixtureIndexEntry> getByCategory(String category) {
+        return Collections.unmodifiableList(byCategory.getOrDefault(category, List.of()));
+    }
+
+    /**
+     * @return the entries of which the name contains the text, not case-sensitive
+     */
+    public List<FixtureIndexEntry> search(String text) {
+        var lowerCase = text.toLowerCase(Locale.ROOT);
+        return byResource.values().stream()
+                .filter(e -> e.name().toLowerCase(Locale.ROOT).contains(lowerCase))
+                .toList();
+    }
+}
@@ -0,0 +1,100 @@
+package be.codewriter.dmx512demo.library;
+
+import be.codewriter.dmx512.ofl.OpenFormatLibraryParser;
+import be.codewriter.dmx512.ofl.model.Fixture;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Build step that creates the {@link FixtureIndex} of a directory with OFL definitions, in the layout of the
+ * Open Fixture Library: one directory per manufacturer, with a JSON file per fixture. Optionally, the
+ * {@link FixtureCatalogue} with the compiled mode layouts is created from the same definitions.
+ * <p>
+ * Every definition is parsed here, so an invalid definition already fails the build instead of the application.
+ * <p>
+ * Usage: FixtureIndexBuilder &lt;OFL directory&gt; &lt;index file&gt; [&lt;catalogue file&gt;]
+ */
+public class FixtureIndexBuilder {
+    private FixtureIndexBuilder() {
+        // Hide constructor
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: FixtureIndexBuilder <OFL directory> <index file> [<catalogue file>]");
+            System.exit(1);
+        }
+        var root = Path.of(args[0]);
+        var fixtures = new LinkedHashMap<String, Fixture>();
+        var entries = build(root, root.getFileName().toString(), fixtures);
+        var output = Path.of(args[1]);
+        Files.createDirectories(output.getParent());
+        var lines = new ArrayList<String>();
+        lines.add("# Generated by " + FixtureIndexBuilder.class.getSimpleName() + ", do not edit");
+        entries.forEach(e -> lines.add(e.toLine()));
+        Files.write(output, lines, StandardCharsets.UTF_8);
+        System.out.println("Fixture index with " + entries.size() + " fixture(s) written to " + output);
+
+        if (args.length == 3) {
+            var catalogue = Path.of(args[2]);
+            try (var os = new BufferedOutputStream(Files.newOutputStream(catalogue))) {
+                FixtureCatalogue.write(fixtures, os);
+            }
+            System.out.println("Fixture catalogue written to " + catalogue);
+        }
+    }
+
+    /**
+     * @param resourcePrefix class path location of the directory, e.g. "ofl"
+     * @param fixtures       receives the parsed fixtures by class path resource
+     */
+    static List<FixtureIndexEntry> build(Path root, String resourcePrefix, Map<String, Fixture> fixtures)
+            throws IOException {
+        List<Path> files;
+        try (var stream = Files.walk(root)) {
+            files = stream.filter(p -> p.toString().endsWith(".json"))
+                    .sorted()
+                    .toList();
+        }
+        var entries = new ArrayList<FixtureIndexEntry>();
+        for (Path file : files) {
+            var relative = root.relativize(file);
+            if (relative.getNameCount() != 2) {
+                throw new IOException("Not in a manufacturer directory: " + relative);
+            }
+            try (InputStream is = Files.newInputStream(file)) {
+                var fixture = OpenFormatLibraryParser.parseFixture(is);
+                var categories = fixture.categories() == null ? List.<String>of()
+                        : fixture.categories().stream().map(FixtureIndexBuilder::clean).toList();
+                var resource = resourcePrefix + "/" + relative.toString().replace('\\', '/');
+                fixtures.put(resource, fixture);
+                entries.add(new FixtureIndexEntry(
+                        resource,
+                        relative.getName(0).toString(),
+                        clean(fixture.name()),
+                        categories));
+            } catch (Exception e) {
+                throw new IOException("Error parsing " + relative + ": " + e.getMessage(), e);
+            }
+        }
+        entries.sort(Comparator.comparing(FixtureIndexEntry::manufacturer).thenComparing(FixtureIndexEntry::name));
+        return entries;
+    }
+
+    /**
+     * Remove the separators of the index file from a value.
+     */
+    private static String clean(String value) {
+        return value.replace(';', ',').replace('|', '/');
+    }
+}
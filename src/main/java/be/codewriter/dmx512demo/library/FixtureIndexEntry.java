@@ -0,0 +1,30 @@
+package be.codewriter.dmx512demo.library;
+
+import java.util.List;
+
+/**
+ * What is known about a fixture without parsing its definition.
+ *
+ * @param resource     class path resource of the OFL definition, e.g. "ofl/eurolite/led-party-tcl-spot.json"
+ * @param manufacturer key of the manufacturer, the directory of the definition
+ */
+public record FixtureIndexEntry(String resource, String manufacturer, String name, List<String> categories) {
+    private static final String SEPARATOR = ";";
+    private static final String LIST_SEPARATOR = "|";
+
+    /**
+     * @return the entry as one line of the index file
+     */
+    String toLine() {
+        return String.join(SEPARATOR, resource, manufacturer, name, String.join(LIST_SEPARATOR, categories));
+    }
+
+    static FixtureIndexEntry fromLine(String line) {
+        var fields = line.split(SEPARATOR, -1);
+        if (fields.length != 4) {
+            throw new IllegalArgumentException("Expected 4 fields, found " + fields.length);
+        }
+        var categories = fields[3].isEmpty() ? List.<String>of() : List.of(fields[3].split("\\" + LIST_SEPARATOR));
+        return new FixtureIndexEntry(fields[0], fields[1], fields[2], categories);
+    }
+}
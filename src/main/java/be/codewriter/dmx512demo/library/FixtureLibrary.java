@@ -0,0 +1,104 @@
+package be.codewriter.dmx512demo.library;
+
+import be.codewriter.dmx512.Main;
+import be.codewriter.dmx512.ofl.OpenFormatLibraryParser;
+import be.codewriter.dmx512.ofl.model.Fixture;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Gives access to the fixtures of the Open Fixture Library on the class path.
+ * <p>
+ * The library is browsed with the {@link FixtureIndex}, a definition is only parsed when the fixture is requested,
+ * in the background. Parsed fixtures are kept in a cache of limited size, from which the least recently used one
+ * is removed first. A fixture that is requested again while it's being parsed, is only parsed once.
+ */
+public class FixtureLibrary {
+    public static final int DEFAULT_CACHE_SIZE = 64;
+    private static final Logger LOGGER = LogManager.getLogger(FixtureLibrary.class.getName());
+
+    private final FixtureIndex index;
+    private final int cacheSize;
+    private final ExecutorService parser = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, CompletableFuture<Fixture>> loading = new HashMap<>();
+    private final LinkedHashMap<String, Fixture> cache;
+
+    public FixtureLibrary(FixtureIndex index, int cacheSize) {
+        this.index = index;
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Fixture> eldest) {
+                return size() > FixtureLibrary.this.cacheSize;
+            }
+        };
+    }
+
+    public FixtureIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Get the fixture from the cache, or start parsing it in the background.
+     *
+     * @param resource class path resource of the OFL definition
+     * @return completes with the fixture, or exceptionally if it can't be loaded
+     */
+    public synchronized CompletableFuture<Fixture> load(String resource) {
+        var cached = cache.get(resource);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        var pending = loading.get(resource);
+        if (pending != null) {
+            return pending;
+        }
+        if (index.getEntry(resource) == null) {
+            LOGGER.debug("Fixture {} is not in the index", resource);
+        }
+        var future = CompletableFuture.supplyAsync(() -> parse(resource), parser);
+        loading.put(resource, future);
+        future.whenComplete((fixture, _) -> done(resource, fixture));
+        return future;
+    }
+
+    /**
+     * @return the fixture, waiting for it to be parsed if needed, or null if it can't be loaded
+     */
+    public Fixture get(String resource) {
+        try {
+            return load(resource).join();
+        } catch (Exception e) {
+            LOGGER.error("Error loading fixture {}: {}", resource, e.getMessage());
+            return null;
+        }
+    }
+
+    private synchronized void done(String resource, Fixture fixture) {
+        loading.remove(resource);
+        if (fixture != null) {
+            cache.put(resource, fixture);
+        }
+    }
+
+    private static Fixture parse(String resource) {
+        try (InputStream is = Main.class.getClassLoader().getResourceAsStream(resource)) {
+            if (is == null) {
+                throw new IllegalArgumentException("Fixture definition not found: " + resource);
+            }
+            LOGGER.debug("Parsing fixture {}", resource);
+            return OpenFormatLibraryParser.parseFixture(is);
+        } catch (IOException e) {
+            throw new IllegalStateException("Error parsing fixture " + resource + ": " + e.getMessage(), e);
+        }
+    }
+}
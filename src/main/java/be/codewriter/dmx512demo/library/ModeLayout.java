@@ -0,0 +1,176 @@
+package be.codewriter.dmx512demo.library;
+
+import be.codewriter.dmx512.ofl.model.Mode;
+import be.codewriter.dmx512demo.patch.PatchEntry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The channels of a fixture mode with their offsets, and each fine channel paired with its coarse channel.
+ * Channels with "dimmer" or "intensity" in their name, and their fine channels, are intensity channels.
+ * Slots that OFL leaves empty in a mode (null) are kept as {@link #NO_CHANNEL}, which can't be looked up.
+ * <p>
+ * Layouts are taken from the {@link FixtureCatalogue} that is compiled at build time. For a fixture that is not
+ * in the catalogue, the layout is created once from the parsed mode.
+ * <p>
+ * Layouts are identified by the OFL resource of the fixture and the mode name, as fixtures of different
+ * manufacturers can have the same name. A fixture that is not from the library is identified by its mode instance.
+ */
+public final class ModeLayout {
+    public static final String NO_CHANNEL = "";
+    private static final String FINE_SUFFIX = " fine";
+    private static final List<String> INTENSITY_NAMES = List.of("dimmer", "intensity");
+    private static final Map<LayoutKey, ModeLayout> LAYOUTS = new ConcurrentHashMap<>();
+    private static final Map<Mode, ModeLayout> UNLISTED_LAYOUTS = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final String name;
+    private final List<String> channels;
+    private final Map<String, Integer> offsets;
+    // Per channel, the offset of its fine channel, or of its coarse channel for a fine channel, or -1
+    private final int[] fineOffsets;
+    private final int[] coarseOffsets;
+    private final boolean[] intensity;
+
+    ModeLayout(String name, List<String> channels, int[] fineOffsets, int[] coarseOffsets) {
+        this.name = name;
+        this.channels = channels.stream()
+                .map(c -> c == null ? NO_CHANNEL : c)
+                .toList();
+        this.fineOffsets = fineOffsets;
+        this.coarseOffsets = coarseOffsets;
+        this.offsets = new HashMap<>();
+        for (int i = this.channels.size() - 1; i >= 0; i--) {
+            if (isUnused(this.channels.get(i))) {
+                continue;
+            }
+            // The first channel wins when a name is used twice
+            offsets.put(this.channels.get(i).toLowerCase(Locale.ROOT), i);
+        }
+        this.intensity = new boolean[this.channels.size()];
+        for (int i = 0; i < this.channels.size(); i++) {
+            var channel = this.channels.get(coarseOffsets[i] >= 0 ? coarseOffsets[i] : i).toLowerCase(Locale.ROOT);
+            intensity[i] = INTENSITY_NAMES.stream().anyMatch(channel::contains);
+        }
+    }
+
+    /**
+     * @return the layout of the selected mode of the patched client
+     */
+    public static ModeLayout of(PatchEntry entry) {
+        var resource = entry.resource();
+        var mode = entry.client().getSelectedMode();
+        if (resource == null) {
+            return UNLISTED_LAYOUTS.computeIfAbsent(mode, ModeLayout::of);
+        }
+        return LAYOUTS.computeIfAbsent(new LayoutKey(resource, mode.name()), _ -> {
+            var compiled = FixtureCatalogue.getDefault().getLayout(resource, mode.name());
+            return compiled != null ? compiled : of(mode);
+        });
+    }
+
+    /**
+     * Create the layout from a parsed mode.
+     */
+    public static ModeLayout of(Mode mode) {
+        var channels = mode.channels().stream()
+                .map(c -> c == null ? NO_CHANNEL : c)
+                .toList();
+        var fineOffsets = new int[channels.size()];
+        var coarseOffsets = new int[channels.size()];
+        Arrays.fill(fineOffsets, -1);
+        for (int i = 0; i < channels.size(); i++) {
+            var channel = channels.get(i);
+            var coarse = -1;
+            if (!isUnused(channel) && channel.toLowerCase(Locale.ROOT).endsWith(FINE_SUFFIX)) {
+                coarse = indexOf(channels, channel.substring(0, channel.length() - FINE_SUFFIX.length()));
+            }
+            coarseOffsets[i] = coarse;
+            if (coarse >= 0) {
+                fineOffsets[coarse] = i;
+            }
+        }
+        return new ModeLayout(mode.name(), channels, fineOffsets, coarseOffsets);
+    }
+
+    private static boolean isUnused(String channel) {
+        return channel == null || channel.isEmpty();
+    }
+
+    private static int indexOf(List<String> channels, String key) {
+        for (int i = 0; i < channels.size(); i++) {
+            if (!isUnused(channels.get(i)) && key.equalsIgnoreCase(channels.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the channel names by offset, {@link #NO_CHANNEL} for a slot without channel
+     */
+    public List<String> getChannels() {
+        return channels;
+    }
+
+    public int getChannelCount() {
+        return channels.size();
+    }
+
+    /**
+     * @param key channel name, not case-sensitive
+     * @return the offset of the channel from the start address, or -1 if the mode doesn't have it
+     */
+    public int getOffset(String key) {
+        return offsets.getOrDefault(key.toLowerCase(Locale.ROOT), -1);
+    }
+
+    /**
+     * @return the offset of the fine channel of the channel at the given offset, or -1 if it has none
+     */
+    public int getFineOffset(int offset) {
+        return coarseOffsets[offset] >= 0 ? -1 : fineOffsets[offset];
+    }
+
+    /**
+     * @return true if the mode leaves the slot at the given offset empty
+     */
+    public boolean isUnused(int offset) {
+        return isUnused(channels.get(offset));
+    }
+
+    /**
+     * @return true if the channel at the given offset is the fine channel of another one
+     */
+    public boolean isFine(int offset) {
+        return coarseOffsets[offset] >= 0;
+    }
+
+    /**
+     * @return true if the channel at the given offset controls the intensity, to be merged highest takes precedence
+     */
+    public boolean isIntensity(int offset) {
+        return intensity[offset];
+    }
+
+    int[] getFineOffsets() {
+        return fineOffsets;
+    }
+
+    int[] getCoarseOffsets() {
+        return coarseOffsets;
+    }
+
+    private record LayoutKey(String resource, String mode) {
+    }
+}
@@ -0,0 +1,30 @@
+package be.codewriter.dmx512demo.logging;
+
+import javafx.scene.control.CheckMenuItem;
+import javafx.scene.control.Menu;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.Configurator;
+
+/**
+ * Changes the level of the loggers that can produce a message per frame, while the application is running.
+ */
+public class LoggingMenu extends Menu {
+    private static final String LIBRARY = "be.codewriter.dmx512";
+
+    public LoggingMenu() {
+        super("Logging");
+
+        var traceLibrary = getToggle("Trace DMX512 library", LIBRARY, Level.TRACE, Level.INFO);
+        var traceOutput = getToggle("Trace output frames", SampledLogger.HOT_PATH, Level.TRACE, Level.WARN);
+
+        getItems().addAll(traceLibrary, traceOutput);
+    }
+
+    private static CheckMenuItem getToggle(String text, String logger, Level on, Level off) {
+        var item = new CheckMenuItem(text);
+        item.setSelected(LogManager.getLogger(logger).isEnabled(on));
+        item.selectedProperty().addListener((_, _, selected) -> Configurator.setLevel(logger, selected ? on : off));
+        return item;
+    }
+}
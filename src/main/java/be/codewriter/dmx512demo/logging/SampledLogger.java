@@ -0,0 +1,69 @@
+package be.codewriter.dmx512demo.logging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs an event that can happen on every frame at most once per interval, with the number of events that were
+ * skipped since the previous message, so e.g. an unreachable output can't flood the log.
+ * <p>
+ * All sampled loggers are children of {@link #HOT_PATH}, so they can be configured together.
+ * A skipped or disabled event costs one atomic read, without allocation.
+ */
+public class SampledLogger {
+    public static final String HOT_PATH = "be.codewriter.dmx512demo.hotpath";
+
+    private final Logger logger;
+    private final long intervalNanos;
+    private final AtomicLong nextLog = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong skipped = new AtomicLong();
+
+    /**
+     * @param name name of the logger, below {@link #HOT_PATH}
+     */
+    public SampledLogger(String name, Duration interval) {
+        this.logger = LogManager.getLogger(HOT_PATH + "." + name);
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * To be checked before building the parameters of a trace message, to avoid boxing them on every frame.
+     */
+    public boolean isTraceEnabled() {
+        return logger.isTraceEnabled();
+    }
+
+    public void trace(String message, Object p0, Object p1) {
+        log(Level.TRACE, message, p0, p1);
+    }
+
+    public void warn(String message, Object p0, Object p1) {
+        log(Level.WARN, message, p0, p1);
+    }
+
+    public void error(String message, Object p0, Object p1) {
+        log(Level.ERROR, message, p0, p1);
+    }
+
+    private void log(Level level, String message, Object p0, Object p1) {
+        if (!logger.isEnabled(level)) {
+            return;
+        }
+        var now = System.nanoTime();
+        var next = nextLog.get();
+        if (next != Long.MIN_VALUE && now - next < 0 || !nextLog.compareAndSet(next, now + intervalNanos)) {
+            skipped.incrementAndGet();
+            return;
+        }
+        var count = skipped.getAndSet(0);
+        if (count == 0) {
+            logger.log(level, message, p0, p1);
+        } else {
+            logger.log(level, message + " ({} similar events skipped)", p0, p1, count);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package be.codewriter.dmx512demo.logging;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link SampledLogger} per key, e.g. per universe, so an event that repeats on every frame for one key doesn't
+ * hide the events of the others. The keys must be limited in number, like the universes of a patch.
+ */
+public class SampledLoggers<K> {
+    private final String name;
+    private final Duration interval;
+    private final Map<K, SampledLogger> loggers = new ConcurrentHashMap<>();
+
+    /**
+     * @param name name of the logger, below {@link SampledLogger#HOT_PATH}, shared by all keys
+     */
+    public SampledLoggers(String name, Duration interval) {
+        this.name = name;
+        this.interval = interval;
+    }
+
+    public SampledLogger get(K key) {
+        return loggers.computeIfAbsent(key, _ -> new SampledLogger(name, interval));
+    }
+
+    /**
+     * Forget a key that is no longer used.
+     */
+    public void remove(K key) {
+        loggers.remove(key);
+    }
+}
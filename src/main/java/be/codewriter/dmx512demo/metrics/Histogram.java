@@ -0,0 +1,94 @@
+package be.codewriter.dmx512demo.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts values in buckets that grow with the value, like an HDR histogram: each power of two is split in
+ * {@value #SUB_BUCKETS} buckets, so every value is kept with a precision of about 6%, whatever its size.
+ * <p>
+ * Recording is a few bit operations and one atomic increment, without allocation, so it can be done on every frame.
+ * Reading can be done from any thread. A histogram holds all values since it was created, unless it's drained with
+ * {@link #drainTo(Histogram)}, e.g. to show the values of the last second only.
+ */
+public class Histogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param value must be positive, negative values are counted as 0
+     */
+    public void record(long value) {
+        var positive = Math.max(0, value);
+        counts.incrementAndGet(getIndex(positive));
+        count.incrementAndGet();
+        max.accumulateAndGet(positive, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the highest value of the bucket that contains the percentile, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        var total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        var wanted = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= wanted) {
+                return Math.min(getHighestValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Move all values into the target, which is cleared first, and start over. A value that is recorded at the same
+     * time is either moved or kept for the next drain, never lost. Only one thread may drain a histogram.
+     */
+    public void drainTo(Histogram target) {
+        long moved = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            var bucket = counts.getAndSet(i, 0);
+            target.counts.set(i, bucket);
+            moved += bucket;
+        }
+        count.addAndGet(-moved);
+        target.count.set(moved);
+        target.max.set(max.getAndSet(0));
+    }
+
+    private static int getIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        var shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        var subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long getHighestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        var shift = index / SUB_BUCKETS - 1;
+        var subBucket = index % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
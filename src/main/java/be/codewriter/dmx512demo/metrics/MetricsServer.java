@@ -0,0 +1,116 @@
+package be.codewriter.dmx512demo.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the {@link OutputMetrics} on http://localhost:&lt;port&gt;/metrics, in the Prometheus text format.
+ * Only bound to the loopback address, the metrics are not meant to be visible on the show network.
+ */
+public class MetricsServer {
+    public static final int DEFAULT_PORT = 9464;
+    private static final Logger LOGGER = LogManager.getLogger(MetricsServer.class.getName());
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final OutputMetrics metrics;
+    private final int port;
+    private HttpServer server;
+
+    public MetricsServer(OutputMetrics metrics, int port) {
+        this.metrics = metrics;
+        this.port = port;
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/metrics", this::handle);
+        server.start();
+        LOGGER.info("Metrics available on http://localhost:{}/metrics", port);
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        server = null;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            var body = format().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    String format() {
+        var sb = new StringBuilder();
+        type(sb, "dmx_frames_total", "counter");
+        value(sb, "dmx_frames_total", "", metrics.getFrames());
+        type(sb, "dmx_frames_dropped_total", "counter");
+        value(sb, "dmx_frames_dropped_total", "", metrics.getDroppedFrames());
+        type(sb, "dmx_frame_jitter_microseconds", "summary");
+        summary(sb, "dmx_frame_jitter_microseconds", "", metrics.getJitterMicros());
+
+        type(sb, "dmx_universe_frames_per_second", "gauge");
+        metrics.getUniverses().forEach(u ->
+                value(sb, "dmx_universe_frames_per_second", universe(u), u.getFramesPerSecond()));
+        type(sb, "dmx_universe_frames_sent_total", "counter");
+        metrics.getUniverses().forEach(u ->
+                value(sb, "dmx_universe_frames_sent_total", universe(u), u.getFramesSent()));
+        type(sb, "dmx_universe_coalesced_writes_total", "counter");
+        metrics.getUniverses().forEach(u ->
+                value(sb, "dmx_universe_coalesced_writes_total", universe(u), u.getCoalescedWrites()));
+        type(sb, "dmx_universe_send_errors_total", "counter");
+        metrics.getUniverses().forEach(u ->
+                value(sb, "dmx_universe_send_errors_total", universe(u), u.getSendErrors()));
+        type(sb, "dmx_universe_latency_microseconds", "summary");
+        metrics.getUniverses().forEach(u ->
+                summary(sb, "dmx_universe_latency_microseconds", universe(u), u.getLatencyMicros()));
+        return sb.toString();
+    }
+
+    private static String universe(UniverseMetrics universe) {
+        return "universe=\"" + universe.getUniverse() + "\"";
+    }
+
+    private static void type(StringBuilder sb, String name, String type) {
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void value(StringBuilder sb, String name, String labels, double value) {
+        sb.append(name);
+        if (!labels.isEmpty()) {
+            sb.append('{').append(labels).append('}');
+        }
+        sb.append(' ').append(String.format(Locale.ROOT, "%.3f", value)).append('\n');
+    }
+
+    private static void summary(StringBuilder sb, String name, String labels, Histogram histogram) {
+        var separator = labels.isEmpty() ? "" : labels + ",";
+        for (double percentile : PERCENTILES) {
+            value(sb, name, separator + "quantile=\"" + percentile / 100 + "\"", histogram.getValueAtPercentile(percentile));
+        }
+        value(sb, name + "_max", labels, histogram.getMax());
+        value(sb, name + "_count", labels, histogram.getCount());
+    }
+}
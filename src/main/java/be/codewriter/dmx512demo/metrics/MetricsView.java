@@ -0,0 +1,58 @@
+package be.codewriter.dmx512demo.metrics;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.util.Duration;
+
+import java.util.Locale;
+
+/**
+ * Shows the most important {@link OutputMetrics} in the status bar, refreshed once per second. The percentiles are
+ * those of the last second, so a problem shows up as soon as it starts and disappears when it's over.
+ */
+public class MetricsView extends HBox {
+    private final OutputMetrics metrics;
+    private final Label outputLabel = new Label();
+    private final Label universesLabel = new Label();
+    // The values of the last second, drained from the recent histograms
+    private final Histogram interval = new Histogram();
+
+    public MetricsView(OutputMetrics metrics) {
+        this.metrics = metrics;
+
+        setPadding(new Insets(10));
+        setSpacing(20);
+        setAlignment(Pos.CENTER_LEFT);
+        getChildren().addAll(outputLabel, universesLabel);
+
+        var timeline = new Timeline(new KeyFrame(Duration.seconds(1), _ -> update()));
+        timeline.setCycleCount(Timeline.INDEFINITE);
+        timeline.play();
+        update();
+    }
+
+    private void update() {
+        metrics.getRecentJitterMicros().drainTo(interval);
+        outputLabel.setText(String.format(Locale.ROOT, "Jitter p99 %.1f ms, dropped %d",
+                interval.getValueAtPercentile(99) / 1000.0, metrics.getDroppedFrames()));
+
+        var sb = new StringBuilder();
+        for (UniverseMetrics universe : metrics.getUniverses()) {
+            if (!sb.isEmpty()) {
+                sb.append(" | ");
+            }
+            universe.getRecentLatencyMicros().drainTo(interval);
+            sb.append(String.format(Locale.ROOT, "U%d: %.0f fps, latency p99 %.1f ms",
+                    universe.getUniverse(), universe.getFramesPerSecond(),
+                    interval.getValueAtPercentile(99) / 1000.0));
+            if (universe.getSendErrors() > 0) {
+                sb.append(", errors ").append(universe.getSendErrors());
+            }
+        }
+        universesLabel.setText(sb.toString());
+    }
+}
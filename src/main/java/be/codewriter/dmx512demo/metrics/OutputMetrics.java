@@ -0,0 +1,84 @@
+package be.codewriter.dmx512demo.metrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the clock of the output thread, and holds the {@link UniverseMetrics} of all universes.
+ * <p>
+ * The jitter is the difference between the time between two frames and the refresh interval.
+ * A frame that starts more than one and a half interval after the previous one is counted as dropped.
+ */
+public class OutputMetrics {
+    private final long intervalNanos;
+    private final Map<Integer, UniverseMetrics> universes = new TreeMap<>();
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final Histogram jitterMicros = new Histogram();
+    private final Histogram recentJitterMicros = new Histogram();
+    // Only used on the output thread
+    private long lastFrame = -1;
+
+    public OutputMetrics(int refreshRate, Collection<Integer> universes) {
+        this.intervalNanos = 1_000_000_000L / refreshRate;
+        universes.forEach(u -> this.universes.put(u, new UniverseMetrics(u)));
+    }
+
+    public long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    public long getFrames() {
+        return frames.get();
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * @return the jitter of all frames, in microseconds
+     */
+    public Histogram getJitterMicros() {
+        return jitterMicros;
+    }
+
+    /**
+     * @return the jitter of the frames since the last time it was drained, for a view that shows recent values
+     */
+    public Histogram getRecentJitterMicros() {
+        return recentJitterMicros;
+    }
+
+    public UniverseMetrics getUniverse(int universe) {
+        return universes.get(universe);
+    }
+
+    /**
+     * @return the metrics of all universes, sorted on universe
+     */
+    public Collection<UniverseMetrics> getUniverses() {
+        return Collections.unmodifiableCollection(universes.values());
+    }
+
+    /**
+     * Called by the output thread at the start of each frame.
+     */
+    public void frameStarted(long now) {
+        frames.incrementAndGet();
+        if (lastFrame >= 0) {
+            var interval = now - lastFrame;
+            var jitter = TimeUnit.NANOSECONDS.toMicros(Math.abs(interval - intervalNanos));
+            jitterMicros.record(jitter);
+            recentJitterMicros.record(jitter);
+            if (interval > intervalNanos * 3 / 2) {
+                droppedFrames.addAndGet(Math.max(1, Math.round((double) interval / intervalNanos) - 1));
+            }
+        }
+        lastFrame = now;
+    }
+}
@@ -0,0 +1,96 @@
+package be.codewriter.dmx512demo.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What happened on the output of one universe. Updated by the output thread, read from any thread.
+ */
+public class UniverseMetrics {
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int universe;
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong coalescedWrites = new AtomicLong();
+    private final AtomicLong sendErrors = new AtomicLong();
+    private final Histogram latencyMicros = new Histogram();
+    private final Histogram recentLatencyMicros = new Histogram();
+    private volatile double framesPerSecond;
+    // Only used on the output thread
+    private long windowStart = -1;
+    private long windowFrames;
+
+    UniverseMetrics(int universe) {
+        this.universe = universe;
+    }
+
+    public int getUniverse() {
+        return universe;
+    }
+
+    /**
+     * @return frames sent per second, over the last second
+     */
+    public double getFramesPerSecond() {
+        return framesPerSecond;
+    }
+
+    public long getFramesSent() {
+        return framesSent.get();
+    }
+
+    /**
+     * @return the number of values that were changed again before the previous change was sent
+     */
+    public long getCoalescedWrites() {
+        return coalescedWrites.get();
+    }
+
+    public long getSendErrors() {
+        return sendErrors.get();
+    }
+
+    /**
+     * @return the time between a change of a value and the end of the send that contained it, in microseconds
+     */
+    public Histogram getLatencyMicros() {
+        return latencyMicros;
+    }
+
+    /**
+     * @return the latency since the last time it was drained, for a view that shows recent values
+     */
+    public Histogram getRecentLatencyMicros() {
+        return recentLatencyMicros;
+    }
+
+    /**
+     * @param sent        false if the output skipped this frame, because nothing changed
+     * @param latencyNanos time since the oldest change in the frame, or -1 if the frame had no changes
+     */
+    public void frameDone(long now, boolean sent, long latencyNanos, long coalesced) {
+        if (sent) {
+            framesSent.incrementAndGet();
+            windowFrames++;
+        }
+        if (latencyNanos >= 0) {
+            var latency = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+            latencyMicros.record(latency);
+            recentLatencyMicros.record(latency);
+        }
+        if (coalesced > 0) {
+            coalescedWrites.addAndGet(coalesced);
+        }
+        if (windowStart < 0) {
+            windowStart = now;
+        } else if (now - windowStart >= RATE_WINDOW_NANOS) {
+            framesPerSecond = windowFrames * 1_000_000_000.0 / (now - windowStart);
+            windowStart = now;
+            windowFrames = 0;
+        }
+    }
+
+    public void sendError() {
+        sendErrors.incrementAndGet();
+    }
+}
@@ -0,0 +1,131 @@
+package be.codewriter.dmx512demo.output;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sends one {@link DMXUniverse} as Art-Net ArtDmx packets directly over a {@link DatagramChannel}.
+ * <p>
+ * The header is kept in its own direct buffer, and only the sequence number is updated in place for each frame.
+ * The header and the direct buffer of the universe are written as one datagram with a gathering write,
+ * so nothing is copied or allocated per frame.
+ */
+public class ArtNetOutput implements UniverseOutput {
+    public static final int PORT = 6454;
+    public static final int HEADER_SIZE = 18;
+    private static final Logger LOGGER = LogManager.getLogger(ArtNetOutput.class.getName());
+    private static final byte[] ID = "Art-Net\0".getBytes(StandardCharsets.US_ASCII);
+    private static final int OP_DMX = 0x5000;
+    private static final int PROTOCOL_VERSION = 14;
+    private static final int SEQUENCE_OFFSET = 12;
+
+    private final DMXUniverse universe;
+    private final InetSocketAddress target;
+    private final int portAddress;
+    private final ByteBuffer header = ByteBuffer.allocateDirect(HEADER_SIZE);
+    private final ByteBuffer data;
+    private final ByteBuffer[] packet;
+    private DatagramChannel channel;
+    private int sequence = 0;
+    private long lastSent;
+
+    /**
+     * @param portAddress the Art-Net universe (net, sub-net and universe) in 15 bits
+     */
+    public ArtNetOutput(DMXUniverse universe, InetAddress address, int portAddress) {
+        if (portAddress < 0 || portAddress > 0x7FFF) {
+            throw new IllegalArgumentException("Art-Net port-address must be between 0 and 32767: " + portAddress);
+        }
+        this.universe = universe;
+        this.target = new InetSocketAddress(address, PORT);
+        this.portAddress = portAddress;
+        this.data = universe.getData();
+        this.packet = new ByteBuffer[]{header, data};
+
+        header.put(ID)
+                .put((byte) (OP_DMX & 0xFF))
+                .put((byte) (OP_DMX >> 8))
+                .put((byte) (PROTOCOL_VERSION >> 8))
+                .put((byte) PROTOCOL_VERSION)
+                .put((byte) 0) // Sequence, updated for each frame
+                .put((byte) 0) // Physical input port
+                .put((byte) (portAddress & 0xFF))
+                .put((byte) (portAddress >> 8))
+                .put((byte) (DMXUniverse.SIZE >> 8))
+                .put((byte) DMXUniverse.SIZE);
+    }
+
+    @Override
+    public DMXUniverse getUniverse() {
+        return universe;
+    }
+
+    public InetSocketAddress getTarget() {
+        return target;
+    }
+
+    public int getPortAddress() {
+        return portAddress;
+    }
+
+    @Override
+    public boolean send(long now, long keepAliveNanos) throws IOException {
+        // Hold the lock while sending, so the universe can't change halfway through the datagram
+        universe.lock();
+        try {
+            var changed = universe.clearChanges();
+            if (!changed && now - lastSent < keepAliveNanos) {
+                return false;
+            }
+            if (channel == null) {
+                open();
+            }
+            // Sequence 0 means "not used", so it loops from 1 to 255
+            sequence = sequence == 255 ? 1 : sequence + 1;
+            header.put(SEQUENCE_OFFSET, (byte) sequence);
+            header.clear();
+            data.clear();
+            channel.write(packet);
+            lastSent = now;
+            return true;
+        } finally {
+            universe.unlock();
+        }
+    }
+
+    /**
+     * Can be called from any thread, the universe lock makes it wait for a send that is in progress.
+     */
+    @Override
+    public void close() {
+        universe.lock();
+        try {
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.warn("Error closing Art-Net channel to {}: {}", target, e.getMessage());
+            }
+            channel = null;
+        } finally {
+            universe.unlock();
+        }
+    }
+
+    private void open() throws IOException {
+        LOGGER.info("Opening Art-Net output of universe {} to {}", universe.getId(), target);
+        channel = DatagramChannel.open();
+        channel.setOption(StandardSocketOptions.SO_BROADCAST, true);
+        channel.connect(target);
+    }
+}
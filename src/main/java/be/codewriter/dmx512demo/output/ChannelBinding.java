@@ -0,0 +1,165 @@
+package be.codewriter.dmx512demo.output;
+
+import be.codewriter.dmx512.client.DMXClient;
+import be.codewriter.dmx512demo.library.ModeLayout;
+import be.codewriter.dmx512demo.patch.PatchEntry;
+
+import java.util.*;
+
+/**
+ * A channel name resolved to the slots in the {@link DMXUniverse}s of all the clients that have this channel.
+ * The name lookup happens once per fixture and mode, so writing a value is only a loop over an int array per universe.
+ * <p>
+ * The binding keeps the position of each slot in the list of clients it was created for, so bindings on the same
+ * clients can be filled with one array of values per frame, e.g. by an effect.
+ */
+public final class ChannelBinding {
+    private final String key;
+    private final int size;
+    private final DMXUniverse[] universes;
+    private final int[][] offsets;
+    private final int[][] indexes;
+
+    private ChannelBinding(String key, int size, DMXUniverse[] universes, int[][] offsets, int[][] indexes) {
+        this.key = key;
+        this.size = size;
+        this.universes = universes;
+        this.offsets = offsets;
+        this.indexes = indexes;
+    }
+
+    /**
+     * Resolve the channel with the given name (case-insensitive) for the given clients.
+     * Clients that don't have this channel in their selected mode, or are not patched, are skipped.
+     */
+    public static ChannelBinding of(UniverseSet output, List<DMXClient> clients, String key) {
+        var offsetsPerUniverse = new TreeMap<Integer, int[]>();
+        var indexesPerUniverse = new HashMap<Integer, int[]>();
+        var counts = new HashMap<Integer, Integer>();
+        for (int i = 0; i < clients.size(); i++) {
+            var client = clients.get(i);
+            var entry = output.getPatch().getEntry(client);
+            var index = entry == null ? -1 : getChannelIndex(entry, key);
+            if (entry == null || index < 0) {
+                continue;
+            }
+            var universeOffsets = offsetsPerUniverse.computeIfAbsent(entry.universe(), _ -> new int[clients.size()]);
+            var universeIndexes = indexesPerUniverse.computeIfAbsent(entry.universe(), _ -> new int[clients.size()]);
+            var count = counts.merge(entry.universe(), 1, Integer::sum);
+            universeOffsets[count - 1] = client.getAddress() - 1 + index;
+            universeIndexes[count - 1] = i;
+        }
+
+        var universes = new DMXUniverse[offsetsPerUniverse.size()];
+        var offsets = new int[offsetsPerUniverse.size()][];
+        var indexes = new int[offsetsPerUniverse.size()][];
+        var u = 0;
+        for (var entry : offsetsPerUniverse.entrySet()) {
+            var count = counts.get(entry.getKey());
+            universes[u] = output.getUniverse(entry.getKey());
+            offsets[u] = Arrays.copyOf(entry.getValue(), count);
+            indexes[u] = Arrays.copyOf(indexesPerUniverse.get(entry.getKey()), count);
+            u++;
+        }
+        return new ChannelBinding(key, clients.size(), universes, offsets, indexes);
+    }
+
+    /**
+     * Loop over all the slots of the binding, e.g. to set up per-slot state once instead of on every frame.
+     */
+    public void forEachSlot(SlotConsumer consumer) {
+        for (int u = 0; u < universes.length; u++) {
+            for (int i = 0; i < offsets[u].length; i++) {
+                consumer.accept(universes[u], offsets[u][i], indexes[u][i]);
+            }
+        }
+    }
+
+    /**
+     * @return the index of the channel within the selected mode of the patched client, or -1 if not available
+     */
+    public static int getChannelIndex(PatchEntry entry, String key) {
+        return ModeLayout.of(entry).getOffset(key);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public boolean isEmpty() {
+        return universes.length == 0;
+    }
+
+    /**
+     * @return the number of clients this binding was created for, including the ones without this channel
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the value of the first bound slot, from 0 to 255, or -1 if none of the clients has the channel
+     */
+    public int getValue() {
+        return universes.length == 0 ? -1 : universes[0].getValue(offsets[0][0] + 1) & 0xFF;
+    }
+
+    /**
+     * @return the universes with a bound slot, sorted on id
+     */
+    public List<DMXUniverse> getUniverses() {
+        return List.of(universes);
+    }
+
+    /**
+     * @return the universe of the first bound slot, or null if none of the clients has the channel
+     */
+    public DMXUniverse getFirstUniverse() {
+        return universes.length == 0 ? null : universes[0];
+    }
+
+    /**
+     * @return the zero-based offset of the first bound slot in its universe, or -1 if none of the clients has the channel
+     */
+    public int getFirstOffset() {
+        return universes.length == 0 ? -1 : offsets[0][0];
+    }
+
+    /**
+     * Give up the control of the bound slots, when the binding is on a {@link MergeSource}.
+     */
+    public void release() {
+        for (int i = 0; i < universes.length; i++) {
+            universes[i].release(offsets[i]);
+        }
+    }
+
+    /**
+     * Set the value of the bound channel for all the clients in the binding.
+     */
+    public void setValue(byte value) {
+        for (int i = 0; i < universes.length; i++) {
+            universes[i].setValue(offsets[i], value);
+        }
+    }
+
+    /**
+     * Set a different value for each client in the binding.
+     *
+     * @param values one value per client, in the order of the list this binding was created for
+     */
+    public void setValues(byte[] values) {
+        for (int i = 0; i < universes.length; i++) {
+            universes[i].setValues(offsets[i], indexes[i], values);
+        }
+    }
+
+    @FunctionalInterface
+    public interface SlotConsumer {
+        /**
+         * @param offset zero-based slot in the universe
+         * @param index  position of the client in the list the binding was created for
+         */
+        void accept(DMXUniverse universe, int offset, int index);
+    }
+}
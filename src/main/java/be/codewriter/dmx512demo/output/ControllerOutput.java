@@ -0,0 +1,71 @@
+package be.codewriter.dmx512demo.output;
+
+import be.codewriter.dmx512.client.DMXClient;
+import be.codewriter.dmx512.controller.DMXController;
+
+/**
+ * Sends one {@link DMXUniverse} through a {@link DMXController} of the DMX512 library.
+ * The controller renders the values of the clients, so the changed slots are first applied to the clients.
+ */
+public class ControllerOutput implements UniverseOutput {
+    private final DMXUniverse universe;
+    private final DMXController controller;
+    private final byte[] frame = new byte[DMXUniverse.SIZE];
+    private final long[] changedSlots = new long[DMXUniverse.BITMAP_SIZE];
+    private final DMXClient[] slotClients = new DMXClient[DMXUniverse.SIZE];
+    private final String[] slotChannels = new String[DMXUniverse.SIZE];
+    private long lastSent;
+
+    public ControllerOutput(DMXUniverse universe, DMXController controller) {
+        this.universe = universe;
+        this.controller = controller;
+
+        // Map each slot to the client and channel name it belongs to, so changes can be applied without lookups
+        for (DMXClient client : universe.getClients()) {
+            var channels = client.getSelectedMode().channels();
+            for (int i = 0; i < channels.size(); i++) {
+                var offset = client.getAddress() - 1 + i;
+                if (channels.get(i) != null && offset < DMXUniverse.SIZE) {
+                    slotClients[offset] = client;
+                    slotChannels[offset] = channels.get(i);
+                }
+            }
+        }
+    }
+
+    @Override
+    public DMXUniverse getUniverse() {
+        return universe;
+    }
+
+    public DMXController getController() {
+        return controller;
+    }
+
+    @Override
+    public boolean send(long now, long keepAliveNanos) {
+        var changed = universe.takeChanges(frame, changedSlots);
+        if (!changed && now - lastSent < keepAliveNanos) {
+            return false;
+        }
+        if (changed) {
+            applyChanges();
+        }
+        controller.render(universe.getClients());
+        lastSent = now;
+        return true;
+    }
+
+    private void applyChanges() {
+        for (int word = 0; word < changedSlots.length; word++) {
+            var bits = changedSlots[word];
+            while (bits != 0) {
+                var offset = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (slotClients[offset] != null) {
+                    slotClients[offset].setValue(slotChannels[offset], frame[offset]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package be.codewriter.dmx512demo.output;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Groups related channel changes so the {@link DMXOutputEngine} never sends a half-updated universe.
+ * The changes are committed when the frame is closed, so use it in a try-with-resources block:
+ *
+ * <pre>
+ * try (var frame = output.beginFrame()) {
+ *     frame.setValue(pan, panValue);
+ *     frame.setValue(tilt, tiltValue);
+ * }
+ * </pre>
+ * A frame holds the locks of its universes until it's closed. Only take the universes the frame writes, with
+ * {@link UniverseSet#beginFrame(ChannelBinding...)}, so writers of other universes don't wait for it. The locks are
+ * always taken in order of universe id, so frames on overlapping universes can't deadlock.
+ */
+public class DMXFrame implements AutoCloseable {
+    private final List<DMXUniverse> universes;
+    private boolean committed = false;
+
+    /**
+     * @param universes sorted on id, so all frames lock them in the same order
+     */
+    DMXFrame(List<DMXUniverse> universes) {
+        this.universes = universes;
+        universes.forEach(DMXUniverse::lock);
+    }
+
+    static DMXFrame of(Collection<DMXUniverse> universes) {
+        return new DMXFrame(universes.stream()
+                .distinct()
+                .sorted(Comparator.comparingInt(DMXUniverse::getId))
+                .toList());
+    }
+
+    public DMXFrame setValue(ChannelBinding binding, byte value) {
+        binding.setValue(value);
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (!committed) {
+            committed = true;
+            for (int i = universes.size() - 1; i >= 0; i--) {
+                universes.get(i).unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package be.codewriter.dmx512demo.output;
+
+import be.codewriter.dmx512.controller.DMXController;
+import be.codewriter.dmx512demo.logging.SampledLogger;
+import be.codewriter.dmx512demo.logging.SampledLoggers;
+import be.codewriter.dmx512demo.metrics.OutputMetrics;
+import be.codewriter.dmx512demo.patch.Patch;
+import be.codewriter.dmx512demo.recording.FrameRecorder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the content of all the {@link DMXUniverse}s of a {@link Patch} to the {@link DMXController} each universe
+ * is routed to, at a fixed refresh rate, on its own thread, independent of how fast the values are changed in the UI.
+ * <p>
+ * When a universe didn't change, nothing is sent for it, except a keep-alive frame at the minimum refresh interval,
+ * so the receivers don't consider the signal as lost.
+ * <p>
+ * The UI, the effects and the playback each write into the layer of their own {@link MergeSource}. After the
+ * {@link FrameProcessor}s of a frame, the changed slots of all sources are merged into the universes that are sent,
+ * see {@link UniverseMerger}.
+ * <p>
+ * The timing of every frame and the result of every send is measured in the {@link OutputMetrics}, and every
+ * universe that is sent can be recorded with a {@link FrameRecorder}.
+ */
+public class DMXOutputEngine implements UniverseSet {
+    public static final int DEFAULT_REFRESH_RATE = 44;
+    public static final int DEFAULT_KEEP_ALIVE_MILLIS = 1000;
+    public static final String PLAYBACK = "Playback";
+    public static final String EFFECTS = "Effects";
+    public static final String PROGRAMMER = "Programmer";
+    private static final Logger LOGGER = LogManager.getLogger(DMXOutputEngine.class.getName());
+    // Errors and traces on the output thread could otherwise be logged on every frame
+    private static final SampledLogger FRAME_LOGGER = new SampledLogger("output.frame", Duration.ofSeconds(1));
+    private static final String ERRORS = "output.error";
+    private static final Duration ERROR_INTERVAL = Duration.ofSeconds(5);
+
+    private final Patch patch;
+    private final int refreshRate;
+    private final long keepAliveNanos;
+    private final TreeMap<Integer, DMXUniverse> universes = new TreeMap<>();
+    private final List<DMXUniverse> sortedUniverses;
+    private final List<UniverseMerger> mergers;
+    private final TreeMap<Integer, UniverseSnapshot> snapshots = new TreeMap<>();
+    private final List<UniverseSnapshot> sortedSnapshots;
+    private final Map<String, MergeSource> sources = new LinkedHashMap<>();
+    private final Map<String, FixtureGroup> groups = new LinkedHashMap<>();
+    private final List<UniverseOutput> outputs = new CopyOnWriteArrayList<>();
+    private final List<FrameProcessor> processors = new CopyOnWriteArrayList<>();
+    // Sampled per processor and universe, so an error that repeats on every frame doesn't hide the others
+    private final SampledLoggers<FrameProcessor> processErrors = new SampledLoggers<>(ERRORS, ERROR_INTERVAL);
+    private final SampledLoggers<UniverseMerger> mergeErrors = new SampledLoggers<>(ERRORS, ERROR_INTERVAL);
+    private final SampledLoggers<DMXUniverse> sendErrors = new SampledLoggers<>(ERRORS, ERROR_INTERVAL);
+    private final OutputMetrics metrics;
+    private volatile FrameRecorder recorder;
+    // Only used on the output thread
+    private long frame;
+    private ScheduledExecutorService executor;
+
+    public DMXOutputEngine(Patch patch) {
+        this(patch, DEFAULT_REFRESH_RATE, DEFAULT_KEEP_ALIVE_MILLIS);
+    }
+
+    public DMXOutputEngine(Patch patch, int refreshRate, int keepAliveMillis) {
+        if (refreshRate <= 0) {
+            throw new IllegalArgumentException("Refresh rate must be positive: " + refreshRate);
+        }
+        this.patch = patch;
+        this.refreshRate = refreshRate;
+        this.keepAliveNanos = TimeUnit.MILLISECONDS.toNanos(keepAliveMillis);
+        patch.getUniverses().forEach(u -> universes.put(u, new DMXUniverse(u, patch.getClients(u))));
+        this.sortedUniverses = List.copyOf(universes.values());
+        this.mergers = sortedUniverses.stream()
+                .map(u -> new UniverseMerger(u, patch))
+                .toList();
+        universes.keySet().forEach(u -> snapshots.put(u, new UniverseSnapshot(u)));
+        this.sortedSnapshots = List.copyOf(snapshots.values());
+        // In this order, so the programmer wins from the others when they change a slot in the same frame
+        addSource(PLAYBACK);
+        addSource(EFFECTS);
+        addSource(PROGRAMMER);
+        patch.getGroups().forEach((name, clients) -> groups.put(name, new FixtureGroup(this, name, clients)));
+        this.metrics = new OutputMetrics(refreshRate, universes.keySet());
+    }
+
+    @Override
+    public Patch getPatch() {
+        return patch;
+    }
+
+    public int getRefreshRate() {
+        return refreshRate;
+    }
+
+    public OutputMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public DMXUniverse getUniverse(int id) {
+        return universes.get(id);
+    }
+
+    /**
+     * @return all the universes, sorted on id
+     */
+    @Override
+    public List<DMXUniverse> getUniverses() {
+        return sortedUniverses;
+    }
+
+    /**
+     * @return the values of the universe after the last frame, or null if it's not in the patch
+     */
+    public UniverseSnapshot getSnapshot(int universe) {
+        return snapshots.get(universe);
+    }
+
+    /**
+     * Add a source that is merged into the output, after the ones that already exist.
+     *
+     * @throws IllegalArgumentException if a source with this name already exists
+     */
+    public synchronized MergeSource addSource(String name) {
+        if (sources.containsKey(name)) {
+            throw new IllegalArgumentException("Source " + name + " already exists");
+        }
+        var source = new MergeSource(patch, name);
+        for (UniverseMerger merger : mergers) {
+            merger.addLayer(source.getUniverse(merger.getId()));
+        }
+        sources.put(name, source);
+        return source;
+    }
+
+    /**
+     * @return the source with the given name, or null if it doesn't exist
+     */
+    public synchronized MergeSource getSource(String name) {
+        return sources.get(name);
+    }
+
+    /**
+     * @return the source of the manual controls
+     */
+    public MergeSource getProgrammer() {
+        return getSource(PROGRAMMER);
+    }
+
+    public MergeSource getEffects() {
+        return getSource(EFFECTS);
+    }
+
+    public MergeSource getPlayback() {
+        return getSource(PLAYBACK);
+    }
+
+    /**
+     * @return the groups of the patch, in the order they were created
+     */
+    public Collection<FixtureGroup> getGroups() {
+        return Collections.unmodifiableCollection(groups.values());
+    }
+
+    /**
+     * @return the group with the given name, or null if the patch doesn't have it
+     */
+    public FixtureGroup getGroup(String name) {
+        return groups.get(name);
+    }
+
+    /**
+     * Route the universe to a controller of the DMX512 library.
+     */
+    public void setController(int universe, DMXController controller) {
+        setOutput(new ControllerOutput(getPatchedUniverse(universe), controller));
+    }
+
+    /**
+     * Route the universe directly to an Art-Net node, with port-address universe - 1.
+     *
+     * @param universe from 1 up to 32768
+     */
+    public void setArtNetOutput(int universe, InetAddress address) {
+        if (universe < 1 || universe > 0x8000) {
+            throw new IllegalArgumentException("Universe " + universe + " can't be sent as Art-Net port-address "
+                    + (universe - 1) + ", use universe 1 up to 32768");
+        }
+        setOutput(new ArtNetOutput(getPatchedUniverse(universe), address, universe - 1));
+    }
+
+    /**
+     * Route the universe of the output to it, replacing the previous one. A universe without output is not sent.
+     */
+    public void setOutput(UniverseOutput output) {
+        outputs.stream()
+                .filter(o -> o.getUniverse() == output.getUniverse())
+                .forEach(o -> {
+                    outputs.remove(o);
+                    o.close();
+                });
+        outputs.add(output);
+    }
+
+    public List<UniverseOutput> getOutputs() {
+        return List.copyOf(outputs);
+    }
+
+    /**
+     * Record every universe that is sent from the next frame on, replacing the previous recorder, or stop recording
+     * with null. The previous recorder is not closed.
+     */
+    public void setRecorder(FrameRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Add a processor that is called before each frame, in the order they were added.
+     */
+    public void addProcessor(FrameProcessor processor) {
+        processors.add(processor);
+    }
+
+    public void removeProcessor(FrameProcessor processor) {
+        processors.remove(processor);
+        processErrors.remove(processor);
+    }
+
+    /**
+     * Start a group of changes on all universes that is only visible to the output once the frame is closed.
+     */
+    @Override
+    public DMXFrame beginFrame() {
+        return new DMXFrame(sortedUniverses);
+    }
+
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        LOGGER.info("Starting DMX output of {} universe(s) at {}Hz", outputs.size(), refreshRate);
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "dmx-output");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MAX_PRIORITY);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::sendFrames, 0, 1_000_000L / refreshRate, TimeUnit.MICROSECONDS);
+    }
+
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        LOGGER.info("Stopping DMX output");
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                LOGGER.warn("DMX output didn't stop in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+        outputs.forEach(UniverseOutput::close);
+    }
+
+    private DMXUniverse getPatchedUniverse(int universe) {
+        var dmxUniverse = universes.get(universe);
+        if (dmxUniverse == null) {
+            throw new IllegalArgumentException("Universe " + universe + " is not in the patch");
+        }
+        return dmxUniverse;
+    }
+
+    private void sendFrames() {
+        var now = System.nanoTime();
+        metrics.frameStarted(now);
+        // An exception would cancel the scheduled task, so it must never leave this method
+        for (FrameProcessor processor : processors) {
+            try {
+                processor.process(now);
+            } catch (Exception e) {
+                processErrors.get(processor).error("Error processing DMX frame in {}: {}",
+                        processor.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+        for (UniverseMerger merger : mergers) {
+            try {
+                merger.merge();
+            } catch (Exception e) {
+                mergeErrors.get(merger).error("Error merging DMX universe {}: {}", merger.getId(), e.getMessage());
+            }
+        }
+        var sentCount = 0;
+        var frameRecorder = recorder;
+        for (UniverseOutput output : outputs) {
+            var universe = output.getUniverse();
+            var universeMetrics = metrics.getUniverse(universe.getId());
+            try {
+                var firstChange = universe.getFirstChangeNanos();
+                var coalesced = universe.takeCoalescedWrites();
+                var sent = output.send(now, keepAliveNanos);
+                var latency = sent && firstChange >= 0 ? System.nanoTime() - firstChange : -1;
+                universeMetrics.frameDone(now, sent, latency, coalesced);
+                if (sent) {
+                    sentCount++;
+                    if (frameRecorder != null) {
+                        // Only the output thread writes into the universe, so it still holds what was sent
+                        frameRecorder.record(now, universe);
+                    }
+                }
+            } catch (Exception e) {
+                universeMetrics.sendError();
+                sendErrors.get(universe).error("Error sending DMX frame of universe {}: {}",
+                        universe.getId(), e.getMessage());
+            }
+        }
+        // Both lists are sorted on id
+        frame++;
+        for (int i = 0; i < sortedUniverses.size(); i++) {
+            sortedSnapshots.get(i).publish(sortedUniverses.get(i), frame);
+        }
+        if (FRAME_LOGGER.isTraceEnabled()) {
+            FRAME_LOGGER.trace("Frame handled in {}us, {} universe(s) sent",
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - now), sentCount);
+        }
+    }
+}
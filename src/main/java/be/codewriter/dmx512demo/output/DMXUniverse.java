@@ -0,0 +1,376 @@
+package be.codewriter.dmx512demo.output;
+
+import be.codewriter.dmx512.client.DMXClient;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the 512 channel values of one DMX universe.
+ * The UI controllers write into this buffer, the {@link DMXOutputEngine} reads it at its own refresh rate.
+ * Changes that belong together must be grouped in a {@link DMXFrame}, see {@link DMXOutputEngine#beginFrame()}.
+ * <p>
+ * The same class holds the layer of a {@link MergeSource}, in which case it also tracks which slots the source
+ * controls, until they are released. In a layer, every write marks the slot as changed, also when the value stays
+ * the same, so the source takes the slot back in a latest takes precedence merge.
+ * <p>
+ * Every slot that gets a new value is marked in a bitmap, together with the range of changed slots,
+ * so the output can skip a universe that didn't change and only handle the changed slots.
+ * <p>
+ * The values are stored in a direct buffer, outside the heap, so an IP output can hand it to the network
+ * channel as-is, without copying it into a packet for every frame.
+ */
+public class DMXUniverse {
+    public static final int SIZE = 512;
+    public static final int BITMAP_SIZE = SIZE / Long.SIZE;
+
+    private final ByteBuffer data = ByteBuffer.allocateDirect(SIZE);
+    private final long[] changedSlots = new long[BITMAP_SIZE];
+    private final long[] activeSlots = new long[BITMAP_SIZE];
+    private final int id;
+    private final boolean layer;
+    private final List<DMXClient> clients;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int changedFrom;
+    private int changedTo;
+    private long firstChangeNanos = -1;
+    private long coalescedWrites;
+
+    public DMXUniverse(int id, List<DMXClient> clients) {
+        this(id, clients, false);
+    }
+
+    /**
+     * @param layer true for the layer of a source, which starts without changes as it doesn't control any slot yet
+     */
+    DMXUniverse(int id, List<DMXClient> clients, boolean layer) {
+        this.id = id;
+        this.layer = layer;
+        this.clients = clients;
+        if (layer) {
+            changedFrom = SIZE;
+            changedTo = -1;
+        } else {
+            // The first frame must contain all the slots
+            Arrays.fill(changedSlots, -1L);
+            changedFrom = 0;
+            changedTo = SIZE - 1;
+        }
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public List<DMXClient> getClients() {
+        return clients;
+    }
+
+    /**
+     * @return a read-only view on the values, to be used while holding the lock
+     */
+    ByteBuffer getData() {
+        return data.asReadOnlyBuffer();
+    }
+
+    void lock() {
+        lock.lock();
+    }
+
+    void unlock() {
+        lock.unlock();
+    }
+
+    /**
+     * @param address DMX address, starting from 1
+     */
+    public void setValue(int address, byte value) {
+        lock.lock();
+        try {
+            write(address - 1, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param address DMX address, starting from 1
+     */
+    public byte getValue(int address) {
+        lock.lock();
+        try {
+            return data.get(address - 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copy the values of all slots in one go, so they all belong to the same frame.
+     *
+     * @param target at least {@value #SIZE} long
+     */
+    public void getValues(byte[] target) {
+        lock.lock();
+        try {
+            data.get(0, target, 0, SIZE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copy received values into the universe, starting from the first slot. A sender repeats all its values in every
+     * packet, so only the slots with a new value are marked as changed, also in a layer.
+     *
+     * @param values read from its position up to its limit, at most {@value #SIZE} slots, the position is not changed
+     */
+    public void setValues(ByteBuffer values) {
+        lock.lock();
+        try {
+            var position = values.position();
+            var count = Math.min(values.remaining(), SIZE);
+            for (int i = 0; i < count; i++) {
+                write(i, values.get(position + i), false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copy the values of the slots in one go, so they all belong to the same frame.
+     *
+     * @param offsets zero-based slots
+     * @param target  receives the value of each slot, at the same position
+     */
+    public void getValues(int[] offsets, byte[] target) {
+        lock.lock();
+        try {
+            for (int i = 0; i < offsets.length; i++) {
+                target[i] = data.get(offsets[i]);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param offsets zero-based slots
+     */
+    void setValue(int[] offsets, byte value) {
+        lock.lock();
+        try {
+            for (int offset : offsets) {
+                write(offset, value);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param offsets zero-based slots
+     * @param indexes for each slot, the index of its value in values
+     */
+    void setValues(int[] offsets, int[] indexes, byte[] values) {
+        lock.lock();
+        try {
+            for (int i = 0; i < offsets.length; i++) {
+                write(offsets[i], values[indexes[i]]);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write only the slots that are set in the bitmap.
+     *
+     * @param slots        bitmap of the slots to write
+     * @param values       the values of all slots, indexed by offset
+     * @param changedSince when the values were changed at their source, from {@link System#nanoTime()}, or -1
+     */
+    void setValues(long[] slots, byte[] values, long changedSince) {
+        lock.lock();
+        try {
+            for (int word = 0; word < BITMAP_SIZE; word++) {
+                var bits = slots[word];
+                while (bits != 0) {
+                    var offset = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    write(offset, values[offset]);
+                }
+            }
+            if (changedTo >= 0 && changedSince >= 0 && changedSince < firstChangeNanos) {
+                firstChangeNanos = changedSince;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Give up the control of the slots, so the merge falls back to the other sources.
+     *
+     * @param offsets zero-based slots
+     */
+    void release(int[] offsets) {
+        lock.lock();
+        try {
+            for (int offset : offsets) {
+                if ((activeSlots[offset >> 6] & 1L << offset) != 0) {
+                    activeSlots[offset >> 6] &= ~(1L << offset);
+                    markChanged(offset);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Give up the control of all slots.
+     */
+    void release() {
+        lock.lock();
+        try {
+            for (int word = 0; word < BITMAP_SIZE; word++) {
+                var bits = activeSlots[word];
+                activeSlots[word] = 0;
+                while (bits != 0) {
+                    markChanged((word << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the time of the oldest change that wasn't sent yet, from {@link System#nanoTime()}, or -1 if none
+     */
+    long getFirstChangeNanos() {
+        lock.lock();
+        try {
+            return firstChangeNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of writes that replaced a value that wasn't sent yet, since the previous call
+     */
+    long takeCoalescedWrites() {
+        lock.lock();
+        try {
+            var writes = coalescedWrites;
+            coalescedWrites = 0;
+            return writes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean hasChanges() {
+        lock.lock();
+        try {
+            return changedTo >= 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copy the data and the bitmap of changed slots, and start tracking changes again from here.
+     *
+     * @return false if nothing changed since the previous call, in which case only the data is copied
+     */
+    boolean takeChanges(byte[] target, long[] changed) {
+        lock.lock();
+        try {
+            data.get(0, target, 0, SIZE);
+            if (changedTo < 0) {
+                return false;
+            }
+            System.arraycopy(changedSlots, 0, changed, 0, BITMAP_SIZE);
+            resetChanges();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copy the data, the bitmap of changed slots and the bitmap of the slots that were written and not released,
+     * and start tracking changes again from here.
+     *
+     * @return false if nothing changed since the previous call, in which case only the data and active slots are copied
+     */
+    boolean takeChanges(byte[] target, long[] changed, long[] active) {
+        lock.lock();
+        try {
+            System.arraycopy(activeSlots, 0, active, 0, BITMAP_SIZE);
+            return takeChanges(target, changed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Start tracking changes again from here, for an output that always sends the full universe.
+     *
+     * @return false if nothing changed since the previous call
+     */
+    boolean clearChanges() {
+        lock.lock();
+        try {
+            if (changedTo < 0) {
+                return false;
+            }
+            resetChanges();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void resetChanges() {
+        Arrays.fill(changedSlots, changedFrom >> 6, (changedTo >> 6) + 1, 0L);
+        changedFrom = SIZE;
+        changedTo = -1;
+        firstChangeNanos = -1;
+    }
+
+    private void write(int offset, byte value) {
+        write(offset, value, layer);
+    }
+
+    /**
+     * @param always mark the slot as changed, also when it already has this value
+     */
+    private void write(int offset, byte value, boolean always) {
+        activeSlots[offset >> 6] |= 1L << offset;
+        if (data.get(offset) == value && !always) {
+            return;
+        }
+        data.put(offset, value);
+        markChanged(offset);
+    }
+
+    private void markChanged(int offset) {
+        if (changedTo < 0) {
+            firstChangeNanos = System.nanoTime();
+        }
+        if ((changedSlots[offset >> 6] & 1L << offset) != 0) {
+            coalescedWrites++;
+        }
+        changedSlots[offset >> 6] |= 1L << offset;
+        changedFrom = Math.min(changedFrom, offset);
+        changedTo = Math.max(changedTo, offset);
+    }
+}
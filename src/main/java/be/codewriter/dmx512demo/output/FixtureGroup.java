@@ -0,0 +1,73 @@
+package be.codewriter.dmx512demo.output;
+
+import be.codewriter.dmx512.client.DMXClient;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A named selection of clients that are controlled together from the programmer, e.g. "set the dimmer of all spots
+ * to 80%".
+ * <p>
+ * Each channel is resolved once into a {@link ChannelBinding}, which holds the slots of all the clients of the group
+ * as one int array per universe, so setting a value for the whole group is a single loop over that array under
+ * one lock, whatever the number of fixtures.
+ */
+public final class FixtureGroup {
+    private final DMXOutputEngine output;
+    private final String name;
+    private final List<DMXClient> clients;
+    private final Map<String, ChannelBinding> bindings = new ConcurrentHashMap<>();
+
+    FixtureGroup(DMXOutputEngine output, String name, List<DMXClient> clients) {
+        this.output = output;
+        this.name = name;
+        this.clients = List.copyOf(clients);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<DMXClient> getClients() {
+        return clients;
+    }
+
+    public int size() {
+        return clients.size();
+    }
+
+    /**
+     * Only channels that at least one client has are kept, so names from a remote control can't fill the cache.
+     *
+     * @param key channel name, not case-sensitive
+     * @return the binding of the channel on all clients of the group that have it, empty if none has it
+     */
+    public ChannelBinding getBinding(String key) {
+        var name = key.toLowerCase(Locale.ROOT);
+        var binding = bindings.get(name);
+        if (binding == null) {
+            binding = ChannelBinding.of(output.getProgrammer(), clients, key);
+            if (!binding.isEmpty()) {
+                bindings.putIfAbsent(name, binding);
+            }
+        }
+        return binding;
+    }
+
+    /**
+     * Set the channel of all clients of the group immediately, without fading.
+     */
+    public void setValue(String key, byte value) {
+        getBinding(key).setValue(value);
+    }
+
+    /**
+     * @param level between 0 and 1, e.g. 0.8 for 80%
+     */
+    public void setLevel(String key, double level) {
+        setValue(key, (byte) Math.round(Math.clamp(level, 0, 1) * 255));
+    }
+}
@@ -0,0 +1,13 @@
+package be.codewriter.dmx512demo.output;
+
+/**
+ * Called by the {@link DMXOutputEngine} on its output thread before each frame is sent,
+ * to calculate values that depend on time, on the clock of the output instead of the UI.
+ */
+@FunctionalInterface
+public interface FrameProcessor {
+    /**
+     * @param now the time of this frame, from {@link System#nanoTime()}
+     */
+    void process(long now);
+}
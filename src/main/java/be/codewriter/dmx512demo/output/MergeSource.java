@@ -0,0 +1,58 @@
+package be.codewriter.dmx512demo.output;
+
+import be.codewriter.dmx512demo.patch.Patch;
+
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * One of the sources that control the output, e.g. the programmer, the effects or a playback, with its own layer of
+ * universes. Channels are bound to a source like to the output, and the {@link DMXOutputEngine} merges all sources
+ * into the output on every frame.
+ * <p>
+ * A slot takes part in the merge from the first time the source writes it, until it's released.
+ */
+public final class MergeSource implements UniverseSet {
+    private final Patch patch;
+    private final String name;
+    private final TreeMap<Integer, DMXUniverse> universes = new TreeMap<>();
+    private final List<DMXUniverse> sortedUniverses;
+
+    MergeSource(Patch patch, String name) {
+        this.patch = patch;
+        this.name = name;
+        patch.getUniverses().forEach(u -> universes.put(u, new DMXUniverse(u, patch.getClients(u), true)));
+        this.sortedUniverses = List.copyOf(universes.values());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Patch getPatch() {
+        return patch;
+    }
+
+    @Override
+    public DMXUniverse getUniverse(int id) {
+        return universes.get(id);
+    }
+
+    @Override
+    public List<DMXUniverse> getUniverses() {
+        return sortedUniverses;
+    }
+
+    @Override
+    public DMXFrame beginFrame() {
+        return new DMXFrame(sortedUniverses);
+    }
+
+    /**
+     * Give up the control of all slots, so the output falls back to the other sources.
+     */
+    public void release() {
+        sortedUniverses.forEach(DMXUniverse::release);
+    }
+}
@@ -0,0 +1,137 @@
+package be.codewriter.dmx512demo.output;
+
+import be.codewriter.dmx512demo.library.ModeLayout;
+import be.codewriter.dmx512demo.patch.Patch;
+
+import java.util.Arrays;
+
+/**
+ * Merges the layers of all {@link MergeSource}s into one output universe.
+ * <p>
+ * Intensity channels are merged highest takes precedence (HTP): the highest value of all sources that control the
+ * slot. All other channels are merged latest takes precedence (LTP): the value of the source that changed the slot
+ * last, where sources added later win when they changed it in the same frame.
+ * <p>
+ * Only the slots that changed in any layer are merged again. All state is kept in arrays that are allocated once,
+ * so merging doesn't allocate, whatever the number of sources.
+ */
+final class UniverseMerger {
+    private final DMXUniverse target;
+    private final long[] htpSlots = new long[DMXUniverse.BITMAP_SIZE];
+    private final long[] dirtySlots = new long[DMXUniverse.BITMAP_SIZE];
+    private final byte[] result = new byte[DMXUniverse.SIZE];
+    private volatile Layer[] layers = new Layer[0];
+    private int sequence;
+
+    UniverseMerger(DMXUniverse target, Patch patch) {
+        this.target = target;
+        for (var entry : patch.getUniversePatch(target.getId()).getEntries()) {
+            var layout = ModeLayout.of(entry);
+            for (int c = 0; c < layout.getChannelCount(); c++) {
+                if (layout.isIntensity(c)) {
+                    var offset = entry.start() - 1 + c;
+                    htpSlots[offset >> 6] |= 1L << offset;
+                }
+            }
+        }
+    }
+
+    int getId() {
+        return target.getId();
+    }
+
+    /**
+     * @param layer the universe with the same id of a new source
+     */
+    synchronized void addLayer(DMXUniverse layer) {
+        var updated = Arrays.copyOf(layers, layers.length + 1);
+        updated[layers.length] = new Layer(layer);
+        layers = updated;
+    }
+
+    /**
+     * Only called from the output thread, before the universe is sent.
+     */
+    void merge() {
+        var current = layers;
+        if (current.length == 0) {
+            return;
+        }
+        sequence++;
+        Arrays.fill(dirtySlots, 0L);
+        var changed = false;
+        var firstChange = Long.MAX_VALUE;
+        for (Layer layer : current) {
+            var layerChange = layer.universe.getFirstChangeNanos();
+            if (!layer.universe.takeChanges(layer.values, layer.changed, layer.active)) {
+                continue;
+            }
+            changed = true;
+            if (layerChange >= 0) {
+                firstChange = Math.min(firstChange, layerChange);
+            }
+            for (int word = 0; word < DMXUniverse.BITMAP_SIZE; word++) {
+                var bits = layer.changed[word];
+                dirtySlots[word] |= bits;
+                while (bits != 0) {
+                    layer.stamps[(word << 6) + Long.numberOfTrailingZeros(bits)] = sequence;
+                    bits &= bits - 1;
+                }
+            }
+        }
+        if (!changed) {
+            return;
+        }
+        for (int word = 0; word < DMXUniverse.BITMAP_SIZE; word++) {
+            var bits = dirtySlots[word];
+            while (bits != 0) {
+                var offset = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                result[offset] = (htpSlots[word] & 1L << offset) != 0
+                        ? getHighest(current, offset)
+                        : getLatest(current, offset);
+            }
+        }
+        // The latency of the output is measured from the change in the source, not from the merge
+        target.setValues(dirtySlots, result, firstChange == Long.MAX_VALUE ? -1 : firstChange);
+    }
+
+    private static byte getHighest(Layer[] layers, int offset) {
+        var highest = 0;
+        for (Layer layer : layers) {
+            if (layer.isActive(offset)) {
+                highest = Math.max(highest, layer.values[offset] & 0xFF);
+            }
+        }
+        return (byte) highest;
+    }
+
+    private static byte getLatest(Layer[] layers, int offset) {
+        byte latest = 0;
+        var latestStamp = Integer.MIN_VALUE;
+        for (Layer layer : layers) {
+            if (layer.isActive(offset) && layer.stamps[offset] >= latestStamp) {
+                latest = layer.values[offset];
+                latestStamp = layer.stamps[offset];
+            }
+        }
+        return latest;
+    }
+
+    private static final class Layer {
+        private final DMXUniverse universe;
+        private final byte[] values = new byte[DMXUniverse.SIZE];
+        private final long[] changed = new long[DMXUniverse.BITMAP_SIZE];
+        private final long[] active = new long[DMXUniverse.BITMAP_SIZE];
+        // Per slot, the merge in which the source changed it last
+        private final int[] stamps = new int[DMXUniverse.SIZE];
+
+        private Layer(DMXUniverse universe) {
+            this.universe = universe;
+        }
+
+        private boolean isActive(int offset) {
+            return (active[offset >> 6] & 1L << offset) != 0;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package be.codewriter.dmx512demo.output;
+
+/**
+ * Sends one {@link DMXUniverse} to the device it is routed to.
+ * Only used from the output thread of the {@link DMXOutputEngine}.
+ */
+public interface UniverseOutput {
+    DMXUniverse getUniverse();
+
+    /**
+     * Send the universe if it changed, or if the keep-alive interval has passed.
+     *
+     * @param now the time of this frame, from {@link System#nanoTime()}
+     * @return false if nothing was sent
+     */
+    boolean send(long now, long keepAliveNanos) throws Exception;
+
+    /**
+     * Release the resources of this output, a next call to send may open them again.
+     */
+    default void close() {
+        // Nothing to release by default
+    }
+}
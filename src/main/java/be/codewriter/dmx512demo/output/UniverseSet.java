@@ -0,0 +1,48 @@
+package be.codewriter.dmx512demo.output;
+
+import be.codewriter.dmx512demo.patch.Patch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The universes of a patch that channels can be bound to with {@link ChannelBinding}: the output itself, or the
+ * layer of one {@link MergeSource}.
+ */
+public interface UniverseSet {
+    Patch getPatch();
+
+    /**
+     * @return the universe with the given id, or null if it's not in the patch
+     */
+    DMXUniverse getUniverse(int id);
+
+    /**
+     * @return all the universes, sorted on id
+     */
+    List<DMXUniverse> getUniverses();
+
+    /**
+     * Start a group of changes on all universes that is only visible to the output once the frame is closed.
+     */
+    DMXFrame beginFrame();
+
+    /**
+     * Start a group of changes that only holds the given universes of this set.
+     */
+    default DMXFrame beginFrame(Collection<DMXUniverse> universes) {
+        return DMXFrame.of(universes);
+    }
+
+    /**
+     * Start a group of changes that only holds the universes the bindings write to.
+     */
+    default DMXFrame beginFrame(ChannelBinding... bindings) {
+        var universes = new ArrayList<DMXUniverse>();
+        for (ChannelBinding binding : bindings) {
+            universes.addAll(binding.getUniverses());
+        }
+        return DMXFrame.of(universes);
+    }
+}
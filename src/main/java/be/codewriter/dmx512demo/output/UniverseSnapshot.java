@@ -0,0 +1,73 @@
+package be.codewriter.dmx512demo.output;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The values of an output universe as they were after the last frame, for views that sample them, e.g. once per
+ * pulse. The output thread publishes them after every frame, readers take an optimistic copy, so a reader never
+ * holds up the output.
+ * <p>
+ * Every publish is tagged with the number of its frame, so a reader of several universes can check that its copies
+ * come from the same frame.
+ */
+public final class UniverseSnapshot {
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final int universe;
+    private final StampedLock lock = new StampedLock();
+    private final byte[] values = new byte[DMXUniverse.SIZE];
+    // 0 until the first frame is published
+    private long frame;
+
+    UniverseSnapshot(int universe) {
+        this.universe = universe;
+    }
+
+    public int getUniverse() {
+        return universe;
+    }
+
+    /**
+     * Only called from the output thread.
+     */
+    void publish(DMXUniverse source, long frame) {
+        var stamp = lock.writeLock();
+        try {
+            source.getValues(values);
+            this.frame = frame;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Copy the values without locking, retried when the output thread published at the same time.
+     *
+     * @param target at least {@value DMXUniverse#SIZE} long
+     * @return false if no consistent copy could be made, the caller can try again later
+     */
+    public boolean copyTo(byte[] target) {
+        return copyFrameTo(target) >= 0;
+    }
+
+    /**
+     * Like {@link #copyTo(byte[])}, with the frame the values come from.
+     *
+     * @return the number of the frame, 0 before the first frame, or -1 if no consistent copy could be made
+     */
+    public long copyFrameTo(byte[] target) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            var stamp = lock.tryOptimisticRead();
+            if (stamp == 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            var copied = frame;
+            System.arraycopy(values, 0, target, 0, DMXUniverse.SIZE);
+            if (lock.validate(stamp)) {
+                return copied;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,175 @@
+package be.codewriter.dmx512demo.patch;
+
+import be.codewriter.dmx512.client.DMXClient;
+import be.codewriter.dmx512.ofl.model.Fixture;
+
+import java.util.*;
+
+/**
+ * Maps the clients on the universes they are patched in, and each universe on its output device.
+ * Clients can be combined in named groups, to control them together.
+ */
+public class Patch {
+    private final TreeMap<Integer, UniversePatch> universes = new TreeMap<>();
+    private final Map<DMXClient, PatchEntry> entries = new IdentityHashMap<>();
+    private final Map<Integer, PatchOutput> outputs = new TreeMap<>();
+    private final List<PatchInput> inputs = new ArrayList<>();
+    private final List<PatchTrigger> triggers = new ArrayList<>();
+    private final Map<Fixture, List<DMXClient>> fixtureClients = new IdentityHashMap<>();
+    private final Map<String, List<DMXClient>> groups = new LinkedHashMap<>();
+    private PatchControl control = PatchControl.DEFAULT;
+
+    /**
+     * Patch the client in the universe at its own address.
+     *
+     * @throws IllegalArgumentException if the client doesn't fit in the universe or overlaps with another client
+     */
+    public PatchEntry add(int universe, DMXClient client) {
+        return add(universe, client, null);
+    }
+
+    /**
+     * Patch the client of a fixture from the library in the universe at its own address.
+     *
+     * @param resource class path resource of the OFL definition, which identifies the fixture, as names are not unique
+     * @throws IllegalArgumentException if the client doesn't fit in the universe or overlaps with another client
+     */
+    public PatchEntry add(int universe, DMXClient client, String resource) {
+        if (entries.containsKey(client)) {
+            throw new IllegalArgumentException("Client at address " + client.getAddress() + " is already patched");
+        }
+        var start = client.getAddress();
+        var end = start + client.getSelectedMode().channels().size() - 1;
+        var entry = new PatchEntry(universe, start, end, client, resource);
+        var universePatch = universes.get(universe);
+        if (universePatch == null) {
+            universePatch = new UniversePatch(universe);
+        }
+        // Only a universe with an accepted client is kept
+        universePatch.add(entry);
+        universes.putIfAbsent(universe, universePatch);
+        entries.put(client, entry);
+        fixtureClients.computeIfAbsent(client.getFixture(), _ -> new ArrayList<>()).add(client);
+        return entry;
+    }
+
+    /**
+     * Add a patched client to the group with the given name, the group is created when needed.
+     *
+     * @throws IllegalArgumentException if the client is not patched or already in the group
+     */
+    public void addToGroup(String name, DMXClient client) {
+        if (!entries.containsKey(client)) {
+            throw new IllegalArgumentException("Client at address " + client.getAddress() + " is not patched");
+        }
+        var group = groups.computeIfAbsent(name, _ -> new ArrayList<>());
+        if (group.contains(client)) {
+            throw new IllegalArgumentException("Client at address " + client.getAddress() + " is already in group " + name);
+        }
+        group.add(client);
+    }
+
+    /**
+     * @return the clients of each group, by name, in the order the groups were created
+     */
+    public Map<String, List<DMXClient>> getGroups() {
+        return Collections.unmodifiableMap(groups);
+    }
+
+    public void setOutput(PatchOutput output) {
+        outputs.put(output.universe(), output);
+    }
+
+    /**
+     * @return the outputs, sorted on universe
+     */
+    public Collection<PatchOutput> getOutputs() {
+        return Collections.unmodifiableCollection(outputs.values());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the Art-Net universe is already received
+     */
+    public void addInput(PatchInput input) {
+        if (inputs.stream().anyMatch(i -> i.portAddress() == input.portAddress())) {
+            throw new IllegalArgumentException("Art-Net port-address " + input.portAddress() + " is already an input");
+        }
+        inputs.add(input);
+    }
+
+    public List<PatchInput> getInputs() {
+        return Collections.unmodifiableList(inputs);
+    }
+
+    public void addTrigger(PatchTrigger trigger) {
+        triggers.add(trigger);
+    }
+
+    public List<PatchTrigger> getTriggers() {
+        return Collections.unmodifiableList(triggers);
+    }
+
+    public void setControl(PatchControl control) {
+        this.control = control;
+    }
+
+    /**
+     * @return the settings of the control servers, {@link PatchControl#DEFAULT} if the patch doesn't have them
+     */
+    public PatchControl getControl() {
+        return control;
+    }
+
+    public Set<Integer> getUniverses() {
+        return Collections.unmodifiableSet(universes.keySet());
+    }
+
+    public UniversePatch getUniversePatch(int universe) {
+        return universes.get(universe);
+    }
+
+    public PatchEntry getEntry(DMXClient client) {
+        return entries.get(client);
+    }
+
+    public List<DMXClient> getClients(int universe) {
+        var universePatch = universes.get(universe);
+        if (universePatch == null) {
+            return List.of();
+        }
+        return universePatch.getEntries().stream()
+                .map(PatchEntry::client)
+                .toList();
+    }
+
+    /**
+     * @return all the clients, sorted on universe and address
+     */
+    public List<DMXClient> getClients() {
+        return universes.values().stream()
+                .flatMap(u -> u.getEntries().stream())
+                .map(PatchEntry::client)
+                .toList();
+    }
+
+    /**
+     * @return the clients of the given fixture, sorted on universe and address
+     */
+    public List<DMXClient> getClients(Fixture fixture) {
+        return fixtureClients.getOrDefault(fixture, List.of()).stream()
+                .sorted(Comparator.comparing((DMXClient c) -> entries.get(c).universe())
+                        .thenComparing(c -> entries.get(c).start()))
+                .toList();
+    }
+
+    /**
+     * @return the distinct fixtures of all patched clients, in order of first use
+     */
+    public List<Fixture> getFixtures() {
+        var fixtures = Collections.newSetFromMap(new IdentityHashMap<Fixture, Boolean>());
+        return getClients().stream()
+                .map(DMXClient::getFixture)
+                .filter(fixtures::add)
+                .toList();
+    }
+}
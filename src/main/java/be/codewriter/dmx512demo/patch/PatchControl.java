@@ -0,0 +1,18 @@
+package be.codewriter.dmx512demo.patch;
+
+import java.net.InetAddress;
+import java.util.Set;
+
+/**
+ * Where the OSC and WebSocket control servers listen, and which web pages may use the WebSocket and HTTP control.
+ *
+ * @param address the local address to listen on, the loopback address so only this machine can control the show
+ * @param origins the allowed values of the Origin header, e.g. http://tablet.local:8080
+ */
+public record PatchControl(InetAddress address, Set<String> origins) {
+    public static final PatchControl DEFAULT = new PatchControl(InetAddress.getLoopbackAddress(), Set.of());
+
+    public PatchControl {
+        origins = Set.copyOf(origins);
+    }
+}
@@ -0,0 +1,18 @@
+package be.codewriter.dmx512demo.patch;
+
+import be.codewriter.dmx512.client.DMXClient;
+
+/**
+ * A client patched in a universe, occupying the addresses from start to end (both included).
+ *
+ * @param resource class path resource of the OFL definition of the fixture, or null if it's not from the library
+ */
+public record PatchEntry(int universe, int start, int end, DMXClient client, String resource) {
+    public int footprint() {
+        return end - start + 1;
+    }
+
+    public boolean overlaps(int otherStart, int otherEnd) {
+        return start <= otherEnd && otherStart <= end;
+    }
+}
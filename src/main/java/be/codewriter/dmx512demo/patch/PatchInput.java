@@ -0,0 +1,14 @@
+package be.codewriter.dmx512demo.patch;
+
+/**
+ * An Art-Net universe that is received and merged into a universe of the patch.
+ *
+ * @param portAddress the Art-Net universe (net, sub-net and universe) in 15 bits
+ */
+public record PatchInput(int universe, int portAddress) {
+    public PatchInput {
+        if (portAddress < 0 || portAddress > 0x7FFF) {
+            throw new IllegalArgumentException("Art-Net port-address must be between 0 and 32767: " + portAddress);
+        }
+    }
+}
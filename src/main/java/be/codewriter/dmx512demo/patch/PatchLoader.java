@@ -0,0 +1,165 @@
+package be.codewriter.dmx512demo.patch;
+
+import be.codewriter.dmx512.client.DMXClient;
+import be.codewriter.dmx512.ofl.model.Fixture;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Reads a patch from a text file with one item per line, fields separated by ';'.
+ * Empty lines and lines starting with '#' are ignored.
+ *
+ * <pre>
+ * output;&lt;universe&gt;;&lt;IP address&gt;[;&lt;type: dmx512 or artnet&gt;]
+ * fixture;&lt;universe&gt;;&lt;start address&gt;;&lt;OFL file&gt;;&lt;mode&gt;
+ * group;&lt;name&gt;;&lt;universe&gt;;&lt;start address&gt;[,&lt;start address&gt;...]
+ * input;&lt;universe&gt;[;&lt;Art-Net port-address, default universe - 1&gt;]
+ * trigger;&lt;universe&gt;;&lt;address&gt;;&lt;action: go or back&gt;
+ * control;&lt;address to listen on&gt;[;&lt;allowed web origin&gt;[,&lt;allowed web origin&gt;...]]
+ * </pre>
+ * A group line adds fixtures that are patched on earlier lines to the group, so a group can span universes
+ * by using a line per universe.
+ * <p>
+ * Invalid lines are logged and skipped, so one mistake doesn't block the rest of the patch.
+ */
+public class PatchLoader {
+    private static final Logger LOGGER = LogManager.getLogger(PatchLoader.class.getName());
+
+    private PatchLoader() {
+        // Hide constructor
+    }
+
+    /**
+     * All fixture files are requested before the lines are handled, so a provider that loads in the background
+     * can parse them at the same time.
+     *
+     * @param fixtureProvider returns the fixture for an OFL file name, completes exceptionally if it can't be loaded
+     */
+    public static Patch load(InputStream is, Function<String, CompletableFuture<Fixture>> fixtureProvider) throws IOException {
+        List<String> lines;
+        try (var reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+            lines = reader.lines().map(String::strip).toList();
+        }
+
+        var fixtures = new HashMap<String, CompletableFuture<Fixture>>();
+        for (String line : lines) {
+            var fields = line.split(";");
+            if (fields.length == 5 && fields[0].strip().equals("fixture")) {
+                fixtures.computeIfAbsent(fields[3].strip(), fixtureProvider);
+            }
+        }
+
+        var patch = new Patch();
+        for (int i = 0; i < lines.size(); i++) {
+            var line = lines.get(i);
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                parseLine(patch, line.split(";"), fileName -> getFixture(fixtures, fileName));
+            } catch (Exception e) {
+                LOGGER.error("Error in patch line {} '{}': {}", i + 1, line, e.getMessage());
+            }
+        }
+        return patch;
+    }
+
+    private static Fixture getFixture(Map<String, CompletableFuture<Fixture>> fixtures, String fileName) {
+        try {
+            return fixtures.get(fileName).join();
+        } catch (CompletionException e) {
+            LOGGER.error("Error loading fixture {}: {}", fileName, e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    private static void parseLine(Patch patch, String[] fields, Function<String, Fixture> fixtureProvider) throws IOException {
+        switch (fields[0].strip()) {
+            case "output" -> {
+                checkFieldCount(fields, 3, 4);
+                var type = fields.length == 4 ? PatchOutput.Type.fromName(fields[3].strip()) : PatchOutput.Type.DMX512;
+                var universe = Integer.parseInt(fields[1].strip());
+                if (type == PatchOutput.Type.ART_NET && (universe < 1 || universe > 0x8000)) {
+                    throw new IllegalArgumentException("Art-Net output sends universe " + universe
+                            + " as port-address universe - 1, use universe 1 up to 32768");
+                }
+                patch.setOutput(new PatchOutput(universe, InetAddress.getByName(fields[2].strip()), type));
+            }
+            case "fixture" -> {
+                checkFieldCount(fields, 5);
+                var fixture = fixtureProvider.apply(fields[3].strip());
+                if (fixture == null) {
+                    throw new IllegalArgumentException("Fixture not available: " + fields[3].strip());
+                }
+                var mode = fixture.getModeByName(fields[4].strip());
+                if (mode == null) {
+                    throw new IllegalArgumentException("Mode not available: " + fields[4].strip());
+                }
+                var client = new DMXClient(fixture, mode, Integer.parseInt(fields[2].strip()));
+                patch.add(Integer.parseInt(fields[1].strip()), client, fields[3].strip());
+            }
+            case "input" -> {
+                checkFieldCount(fields, 2, 3);
+                var universe = Integer.parseInt(fields[1].strip());
+                var portAddress = fields.length == 3 ? Integer.parseInt(fields[2].strip()) : universe - 1;
+                patch.addInput(new PatchInput(universe, portAddress));
+            }
+            case "trigger" -> {
+                checkFieldCount(fields, 4);
+                patch.addTrigger(new PatchTrigger(Integer.parseInt(fields[1].strip()),
+                        Integer.parseInt(fields[2].strip()), PatchTrigger.Action.fromName(fields[3].strip())));
+            }
+            case "control" -> {
+                checkFieldCount(fields, 2, 3);
+                var origins = new HashSet<String>();
+                if (fields.length == 3) {
+                    for (String origin : fields[2].split(",")) {
+                        if (!origin.isBlank()) {
+                            origins.add(origin.strip());
+                        }
+                    }
+                }
+                patch.setControl(new PatchControl(InetAddress.getByName(fields[1].strip()), origins));
+            }
+            case "group" -> {
+                checkFieldCount(fields, 4);
+                var universe = Integer.parseInt(fields[2].strip());
+                var universePatch = patch.getUniversePatch(universe);
+                for (String field : fields[3].split(",")) {
+                    var address = Integer.parseInt(field.strip());
+                    var entry = universePatch == null ? null : universePatch.getEntry(address);
+                    if (entry == null || entry.start() != address) {
+                        throw new IllegalArgumentException("No fixture starts at " + address + " in universe " + universe);
+                    }
+                    patch.addToGroup(fields[1].strip(), entry.client());
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown type: " + fields[0]);
+        }
+    }
+
+    private static void checkFieldCount(String[] fields, int expected) {
+        checkFieldCount(fields, expected, expected);
+    }
+
+    private static void checkFieldCount(String[] fields, int min, int max) {
+        if (fields.length < min || fields.length > max) {
+            throw new IllegalArgumentException("Expected " + (min == max ? min : min + " to " + max)
+                    + " fields, found " + fields.length);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package be.codewriter.dmx512demo.patch;
+
+import java.net.InetAddress;
+
+/**
+ * The device a universe is sent to.
+ */
+public record PatchOutput(int universe, InetAddress address, Type type) {
+    public enum Type {
+        /**
+         * Through the IP controller of the DMX512 library
+         */
+        DMX512,
+        /**
+         * Directly as Art-Net packets, with port-address universe - 1
+         */
+        ART_NET;
+
+        public static Type fromName(String name) {
+            return switch (name.toLowerCase()) {
+                case "dmx512" -> DMX512;
+                case "artnet", "art-net" -> ART_NET;
+                default -> throw new IllegalArgumentException("Unknown output type: " + name);
+            };
+        }
+    }
+}
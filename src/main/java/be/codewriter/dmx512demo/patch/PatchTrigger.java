@@ -0,0 +1,21 @@
+package be.codewriter.dmx512demo.patch;
+
+/**
+ * An action that is started when a received slot goes from below half to half or more, e.g. a button on a console.
+ *
+ * @param address DMX address, starting from 1, in the universe the input is merged into
+ */
+public record PatchTrigger(int universe, int address, Action action) {
+    public enum Action {
+        GO,
+        BACK;
+
+        public static Action fromName(String name) {
+            return switch (name.toLowerCase()) {
+                case "go" -> GO;
+                case "back" -> BACK;
+                default -> throw new IllegalArgumentException("Unknown trigger action: " + name);
+            };
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package be.codewriter.dmx512demo.patch;
+
+import be.codewriter.dmx512demo.output.DMXUniverse;
+
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * The clients of one universe, sorted on their start address.
+ * As patched ranges can't overlap, only the neighbours of a new range need to be checked.
+ */
+public class UniversePatch {
+    private final int universe;
+    private final TreeMap<Integer, PatchEntry> entries = new TreeMap<>();
+
+    UniversePatch(int universe) {
+        this.universe = universe;
+    }
+
+    public int getUniverse() {
+        return universe;
+    }
+
+    public List<PatchEntry> getEntries() {
+        return List.copyOf(entries.values());
+    }
+
+    /**
+     * @param address DMX address, starting from 1
+     * @return the entry that occupies the given address, or null if not patched
+     */
+    public PatchEntry getEntry(int address) {
+        var floor = entries.floorEntry(address);
+        if (floor != null && floor.getValue().end() >= address) {
+            return floor.getValue();
+        }
+        return null;
+    }
+
+    /**
+     * @return the entry that overlaps with the given range, or null if the range is free
+     */
+    public PatchEntry findOverlap(int start, int end) {
+        var floor = entries.floorEntry(end);
+        if (floor != null && floor.getValue().overlaps(start, end)) {
+            return floor.getValue();
+        }
+        return null;
+    }
+
+    void add(PatchEntry entry) {
+        if (entry.start() < 1 || entry.end() > DMXUniverse.SIZE) {
+            throw new IllegalArgumentException("Addresses " + entry.start() + "-" + entry.end()
+                    + " are outside of universe " + universe);
+        }
+        var overlap = findOverlap(entry.start(), entry.end());
+        if (overlap != null) {
+            throw new IllegalArgumentException("Addresses " + entry.start() + "-" + entry.end()
+                    + " overlap with " + overlap.client().getFixture().name()
+                    + " at " + overlap.start() + "-" + overlap.end() + " in universe " + universe);
+        }
+        entries.put(entry.start(), entry);
+    }
+}
@@ -0,0 +1,170 @@
+package be.codewriter.dmx512demo.recording;
+
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
+import be.codewriter.dmx512demo.output.DMXUniverse;
+import be.codewriter.dmx512demo.output.UniverseOutput;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static be.codewriter.dmx512demo.recording.RecordingFormat.END;
+import static be.codewriter.dmx512demo.recording.RecordingFormat.FRAME;
+import static be.codewriter.dmx512demo.recording.RecordingFormat.HEADER_SIZE;
+import static be.codewriter.dmx512demo.recording.RecordingFormat.MAGIC;
+import static be.codewriter.dmx512demo.recording.RecordingFormat.MAX_FRAME_SIZE;
+import static be.codewriter.dmx512demo.recording.RecordingFormat.VERSION;
+import static be.codewriter.dmx512demo.recording.RecordingFormat.getVarint;
+
+/**
+ * Replays a recording of a {@link FrameRecorder} to outputs, with the same values and at the same time after the
+ * start as they were recorded.
+ * <p>
+ * Every frame is written into the universe of its output and sent right away, so the {@link DMXOutputEngine} of
+ * these universes must not be running. The file is read through memory-mapped regions and the frames are applied
+ * to a copy of each universe that is kept during the replay, so nothing is allocated per frame.
+ */
+public class FramePlayer {
+    private static final Logger LOGGER = LogManager.getLogger(FramePlayer.class.getName());
+    private static final long REGION_SIZE = 64L * 1024 * 1024;
+    // The last part of the wait is spent spinning, as parking can oversleep by this much
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final Path file;
+    private volatile boolean stopped;
+
+    public FramePlayer(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Stop a replay that is running on another thread, after its current frame.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Replay the recording on the calling thread, until its end or until it's stopped.
+     * Frames of universes without output are skipped.
+     *
+     * @return the number of frames that were sent
+     */
+    public long play(List<UniverseOutput> outputs) throws IOException {
+        stopped = false;
+        Map<Integer, Track> tracks = new HashMap<>();
+        outputs.forEach(output -> tracks.put(output.getUniverse().getId(), new Track(output)));
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var size = channel.size();
+            var region = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(REGION_SIZE, size));
+            if (size < HEADER_SIZE || region.getInt() != MAGIC) {
+                throw new IOException("Not a DMX recording: " + file);
+            }
+            var version = region.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported DMX recording version " + version + ": " + file);
+            }
+            var recorded = region.getLong();
+            LOGGER.info("Replaying DMX recording {}, recorded at {}", file, Instant.ofEpochMilli(recorded));
+
+            var regionStart = 0L;
+            var start = System.nanoTime();
+            var time = 0L;
+            var sent = 0L;
+            while (!stopped) {
+                if (region.remaining() < MAX_FRAME_SIZE && regionStart + region.limit() < size) {
+                    regionStart += region.position();
+                    region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, Math.min(REGION_SIZE, size - regionStart));
+                }
+                if (!region.hasRemaining()) {
+                    break;
+                }
+                var marker = region.get();
+                if (marker != FRAME) {
+                    if (marker != END) {
+                        LOGGER.warn("Invalid frame marker {} at byte {} of {}, replay stopped", marker,
+                                regionStart + region.position() - 1, file);
+                    }
+                    break;
+                }
+                time += getVarint(region);
+                var track = tracks.get((int) getVarint(region));
+                if (track == null) {
+                    skipRuns(region);
+                    continue;
+                }
+                readRuns(region, track.values);
+                waitUntil(start + time);
+                try {
+                    track.send(System.nanoTime());
+                    sent++;
+                } catch (Exception e) {
+                    LOGGER.error("Error sending replayed frame of universe {}: {}", track.output.getUniverse().getId(),
+                            e.getMessage());
+                }
+            }
+            LOGGER.info("Replayed {} frame(s) from {}", sent, file);
+            return sent;
+        }
+    }
+
+    private static void readRuns(MappedByteBuffer region, byte[] values) {
+        var runCount = getVarint(region);
+        var offset = 0;
+        for (int i = 0; i < runCount; i++) {
+            offset += (int) getVarint(region);
+            var length = (int) getVarint(region);
+            region.get(values, offset, length);
+            offset += length;
+        }
+    }
+
+    private static void skipRuns(MappedByteBuffer region) {
+        var runCount = getVarint(region);
+        for (int i = 0; i < runCount; i++) {
+            getVarint(region);
+            var length = (int) getVarint(region);
+            region.position(region.position() + length);
+        }
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > SPIN_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_NANOS);
+        }
+        while (deadline - System.nanoTime() > 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class Track {
+        private final UniverseOutput output;
+        private final byte[] values = new byte[DMXUniverse.SIZE];
+        private final ByteBuffer buffer = ByteBuffer.wrap(values);
+
+        private Track(UniverseOutput output) {
+            this.output = output;
+        }
+
+        /**
+         * The recorded frame was sent, so it's sent again even when it's a keep-alive.
+         */
+        private void send(long now) throws Exception {
+            output.getUniverse().setValues(buffer);
+            output.send(now, 0);
+        }
+    }
+}
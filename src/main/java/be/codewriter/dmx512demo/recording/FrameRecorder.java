@@ -0,0 +1,168 @@
+package be.codewriter.dmx512demo.recording;
+
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
+import be.codewriter.dmx512demo.output.DMXUniverse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static be.codewriter.dmx512demo.recording.RecordingFormat.FRAME;
+import static be.codewriter.dmx512demo.recording.RecordingFormat.MAGIC;
+import static be.codewriter.dmx512demo.recording.RecordingFormat.MAX_FRAME_SIZE;
+import static be.codewriter.dmx512demo.recording.RecordingFormat.MIN_GAP;
+import static be.codewriter.dmx512demo.recording.RecordingFormat.VERSION;
+import static be.codewriter.dmx512demo.recording.RecordingFormat.putVarint;
+
+/**
+ * Records every universe that is sent by the {@link DMXOutputEngine}, with the time of its frame, to a file in the
+ * {@link RecordingFormat}, see {@link DMXOutputEngine#setRecorder(FrameRecorder)}.
+ * <p>
+ * Only the slots that changed since the previous frame of the universe are stored. The file is written through
+ * a memory-mapped region that is moved forward when it's full, so recording a frame is a compare and a copy of
+ * 512 bytes, without a system call or allocation on the output thread. A recording that wasn't closed, e.g. after
+ * a crash, can still be replayed up to its last frame.
+ */
+public class FrameRecorder implements AutoCloseable {
+    private static final Logger LOGGER = LogManager.getLogger(FrameRecorder.class.getName());
+    private static final long REGION_SIZE = 4L * 1024 * 1024;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Map<DMXUniverse, byte[]> previousFrames = new IdentityHashMap<>();
+    private final int[] runStarts = new int[DMXUniverse.SIZE];
+    private final int[] runEnds = new int[DMXUniverse.SIZE];
+    private byte[] current = new byte[DMXUniverse.SIZE];
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long lastFrameNanos;
+    private long frameCount;
+    private boolean closed;
+
+    /**
+     * @param file replaced if it already exists
+     */
+    public FrameRecorder(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        map(0);
+        region.putInt(MAGIC)
+                .putShort(VERSION)
+                .putLong(System.currentTimeMillis());
+        lastFrameNanos = System.nanoTime();
+        LOGGER.info("Recording DMX output to {}", file);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Called from the output thread, after the universe was sent.
+     *
+     * @param now the time of the frame, from {@link System#nanoTime()}
+     */
+    public synchronized void record(long now, DMXUniverse universe) {
+        if (closed) {
+            return;
+        }
+        var previous = previousFrames.get(universe);
+        if (previous == null) {
+            previous = new byte[DMXUniverse.SIZE];
+            previousFrames.put(universe, previous);
+        }
+        universe.getValues(current);
+        try {
+            if (region.remaining() < MAX_FRAME_SIZE) {
+                map(regionStart + region.position());
+            }
+            region.put(FRAME);
+            putVarint(region, Math.max(0, now - lastFrameNanos));
+            putVarint(region, universe.getId());
+            var runCount = findRuns(previous);
+            putVarint(region, runCount);
+            var end = 0;
+            for (int i = 0; i < runCount; i++) {
+                putVarint(region, runStarts[i] - end);
+                putVarint(region, runEnds[i] - runStarts[i]);
+                region.put(current, runStarts[i], runEnds[i] - runStarts[i]);
+                end = runEnds[i];
+            }
+        } catch (IOException e) {
+            LOGGER.error("Error recording DMX output to {}: {}", file, e.getMessage());
+            close();
+            return;
+        }
+        lastFrameNanos = Math.max(now, lastFrameNanos);
+        frameCount++;
+        // The values of this frame become the previous ones of the universe
+        previousFrames.put(universe, current);
+        current = previous;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        var size = regionStart + region.position();
+        region.force();
+        region = null;
+        try {
+            // Not possible on all platforms while the region is still mapped, the rest of the file is then zeros
+            channel.truncate(size);
+        } catch (IOException e) {
+            LOGGER.warn("Recording {} is padded to {} bytes: {}", file, REGION_SIZE, e.getMessage());
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Error closing recording {}: {}", file, e.getMessage());
+        }
+        LOGGER.info("Recorded {} frame(s) to {}", frameCount, file);
+    }
+
+    /**
+     * @return the number of runs of slots that differ from the previous frame
+     */
+    private int findRuns(byte[] previous) {
+        var count = 0;
+        var offset = 0;
+        while (offset < DMXUniverse.SIZE) {
+            if (current[offset] == previous[offset]) {
+                offset++;
+                continue;
+            }
+            var end = offset + 1;
+            // Extend the run over short gaps of unchanged slots
+            for (int next = end; next < DMXUniverse.SIZE && next - end < MIN_GAP; next++) {
+                if (current[next] != previous[next]) {
+                    end = next + 1;
+                }
+            }
+            runStarts[count] = offset;
+            runEnds[count] = end;
+            count++;
+            offset = end;
+        }
+        return count;
+    }
+
+    private void map(long position) throws IOException {
+        // The old region is flushed by the operating system and unmapped when it's collected
+        region = channel.map(FileChannel.MapMode.READ_WRITE, position, REGION_SIZE);
+        regionStart = position;
+    }
+}
@@ -0,0 +1,59 @@
+package be.codewriter.dmx512demo.recording;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The file format of a recording of the DMX output, written by {@link FrameRecorder} and read by {@link FramePlayer}.
+ * <pre>
+ * int     magic "DMXR"
+ * short   version
+ * long    start of the recording, in milliseconds since the epoch
+ * then per sent universe:
+ * byte    1, a frame (0 ends the recording)
+ * varint  nanoseconds since the previous frame, or since the start for the first one
+ * varint  universe
+ * varint  number of runs
+ * per run:
+ * varint  number of slots between the previous run, or the start of the universe, and this run
+ * varint  number of slots in the run
+ * byte[]  the values of the slots in the run
+ * </pre>
+ * The runs contain the slots that changed since the previous frame of the same universe, or since a universe of
+ * zeros for the first one. A frame without runs was sent without changes, as a keep-alive.
+ * Varints are unsigned LEB128, 7 bits per byte with the lowest bits first.
+ */
+final class RecordingFormat {
+    static final int MAGIC = 0x444D5852;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Long.BYTES;
+    static final byte END = 0;
+    static final byte FRAME = 1;
+    // Larger than the largest frame, so a frame always fits in the rest of a mapped region of this size
+    static final int MAX_FRAME_SIZE = 2048;
+    // Slots that didn't change are included in a run when the gap is this short, it's smaller than two varints
+    static final int MIN_GAP = 3;
+
+    private RecordingFormat() {
+        // Hide constructor
+    }
+
+    static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long getVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            var b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Invalid varint in recording");
+    }
+}
@@ -0,0 +1,68 @@
+package be.codewriter.dmx512demo.recording;
+
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
+import javafx.scene.control.CheckMenuItem;
+import javafx.scene.control.Menu;
+import javafx.stage.FileChooser;
+import javafx.stage.Window;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Starts and stops a recording of the DMX output to a file, while the application is running.
+ */
+public class RecordingMenu extends Menu {
+    private static final Logger LOGGER = LogManager.getLogger(RecordingMenu.class.getName());
+    private static final String EXTENSION = "*.dmxrec";
+
+    private final Window owner;
+    private final DMXOutputEngine output;
+    private FrameRecorder recorder;
+
+    public RecordingMenu(Window owner, DMXOutputEngine output) {
+        super("Recording");
+        this.owner = owner;
+        this.output = output;
+
+        var record = new CheckMenuItem("Record output...");
+        record.setOnAction(_ -> {
+            if (record.isSelected()) {
+                record.setSelected(startRecording());
+            } else {
+                stopRecording();
+            }
+        });
+
+        getItems().add(record);
+    }
+
+    /**
+     * Stop the recording if one is running.
+     */
+    public void stopRecording() {
+        if (recorder == null) {
+            return;
+        }
+        output.setRecorder(null);
+        recorder.close();
+        recorder = null;
+    }
+
+    private boolean startRecording() {
+        var chooser = new FileChooser();
+        chooser.setTitle("Record DMX Output");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("DMX recording", EXTENSION));
+        var file = chooser.showSaveDialog(owner);
+        if (file == null) {
+            return false;
+        }
+        try {
+            recorder = new FrameRecorder(file.toPath());
+            output.setRecorder(recorder);
+            return true;
+        } catch (Exception e) {
+            LOGGER.error("Error starting recording to {}: {}", file, e.getMessage());
+            return false;
+        }
+    }
+}
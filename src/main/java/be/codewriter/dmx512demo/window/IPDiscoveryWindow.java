@@ -1,26 +1,26 @@
 package be.codewriter.dmx512demo.window;
 
-import be.codewriter.dmx512.controller.ip.DMXIPDiscoverTool;
-import be.codewriter.dmx512.network.DMXIPDevice;
+import be.codewriter.dmx512demo.discovery.ArtNetNode;
+import be.codewriter.dmx512demo.discovery.IPDiscovery;
 import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
 public class IPDiscoveryWindow {
-    private static final Logger LOGGER = LogManager.getLogger(IPDiscoveryWindow.class.getName());
     private final BorderPane layout;
     private Stage stage;
-    private TableView<DMXIPDevice> table;
+    private TableView<ArtNetNode> table;
     private ProgressIndicator progressIndicator;
+    private Button stopButton;
+    private IPDiscovery discovery;
 
     public IPDiscoveryWindow(Stage parentStage) {
         layout = new BorderPane();
@@ -40,21 +40,21 @@ public class IPDiscoveryWindow {
         table = new TableView<>();
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_ALL_COLUMNS);
 
-        // Create columns - adjust property names based on actual DMXIPDevice getters
-        TableColumn<DMXIPDevice, String> columnAddress = new TableColumn<>("Address");
-        columnAddress.setCellValueFactory(new PropertyValueFactory<>("address"));
+        // Create columns
+        TableColumn<ArtNetNode, String> columnAddress = new TableColumn<>("Address");
+        columnAddress.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().address().getHostAddress()));
 
-        TableColumn<DMXIPDevice, String> columnName = new TableColumn<>("Name");
-        columnName.setCellValueFactory(new PropertyValueFactory<>("name"));
+        TableColumn<ArtNetNode, String> columnName = new TableColumn<>("Name");
+        columnName.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().shortName()));
 
-        TableColumn<DMXIPDevice, String> columnProtocol = new TableColumn<>("Protocol");
-        columnProtocol.setCellValueFactory(new PropertyValueFactory<>("protocol"));
+        TableColumn<ArtNetNode, String> columnDescription = new TableColumn<>("Description");
+        columnDescription.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().longName()));
 
-        TableColumn<DMXIPDevice, String> columnUniverseCount = new TableColumn<>("Universe count");
-        columnUniverseCount.setCellValueFactory(new PropertyValueFactory<>("universeCount"));
+        TableColumn<ArtNetNode, Integer> columnUniverseCount = new TableColumn<>("Universe count");
+        columnUniverseCount.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue().portCount()));
 
         // Add columns to table
-        table.getColumns().addAll(columnAddress, columnProtocol, columnName, columnUniverseCount);
+        table.getColumns().addAll(columnAddress, columnName, columnDescription, columnUniverseCount);
 
         // Create progress indicator
         progressIndicator = new ProgressIndicator();
@@ -69,58 +69,60 @@ public class IPDiscoveryWindow {
         Button refreshButton = new Button("Refresh");
         refreshButton.setOnAction(e -> discoverDevices());
 
+        stopButton = new Button("Stop");
+        stopButton.setOnAction(e -> stopDiscovery());
+
         Button closeButton = new Button("Close");
         closeButton.setOnAction(e -> stage.close());
 
         HBox buttonBox = new HBox(10);
         buttonBox.setPadding(new Insets(10, 0, 10, 0));
-        buttonBox.getChildren().addAll(refreshButton, closeButton);
+        buttonBox.getChildren().addAll(refreshButton, stopButton, closeButton);
         layout.setTop(buttonBox);
 
         Scene scene = new Scene(layout);
         stage.setScene(scene);
         stage.setHeight(400);
         stage.setWidth(800);
+        stage.setOnHidden(e -> stopDiscovery());
 
         // Load initial data
         discoverDevices();
     }
 
     private void discoverDevices() {
-        // Show progress indicator and disable button
+        stopDiscovery();
+
+        // Show progress indicator, the table is filled while the replies arrive
         progressIndicator.setVisible(true);
+        stopButton.setDisable(false);
         table.getItems().clear();
         layout.setBottom(new Label("Discovering devices..."));
 
-        // Run discovery in background thread
-        Thread discoveryThread = new Thread(() -> {
-            try {
-                var discoveredDevices = DMXIPDiscoverTool.discoverDevices();
-
-                // Update UI on JavaFX Application Thread
-                Platform.runLater(() -> {
-                    table.getItems().clear();
-                    layout.setBottom(null);
-                    if (discoveredDevices.isEmpty()) {
-                        layout.setBottom(new Label("No IP devices found"));
-                    } else {
-                        table.getItems().addAll(discoveredDevices);
-                    }
-                    progressIndicator.setVisible(false);
-                });
-            } catch (Exception e) {
-                LOGGER.error("Error discovering IP devices: {}", e.getMessage());
-                Platform.runLater(() -> {
-                    table.getItems().clear();
-                    layout.setBottom(null);
-                    layout.setBottom(new Label("Error discovering devices: " + e.getMessage()));
-                    progressIndicator.setVisible(false);
-                });
+        var current = IPDiscovery.start(IPDiscovery.DEFAULT_TIMEOUT,
+                node -> Platform.runLater(() -> table.getItems().add(node)));
+        discovery = current;
+        current.getCompletion().thenAccept(nodes -> Platform.runLater(() -> {
+            // A newer discovery may have been started in the meantime
+            if (discovery != current) {
+                return;
             }
-        });
+            progressIndicator.setVisible(false);
+            stopButton.setDisable(true);
+            if (current.isCancelled()) {
+                layout.setBottom(new Label("Discovery stopped, " + nodes.size() + " device(s) found"));
+            } else if (nodes.isEmpty()) {
+                layout.setBottom(new Label("No IP devices found"));
+            } else {
+                layout.setBottom(new Label(nodes.size() + " device(s) found"));
+            }
+        }));
+    }
 
-        discoveryThread.setDaemon(true);
-        discoveryThread.start();
+    private void stopDiscovery() {
+        if (discovery != null) {
+            discovery.cancel();
+        }
     }
 
     public void show() {
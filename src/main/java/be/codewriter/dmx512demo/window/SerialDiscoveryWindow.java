@@ -1,27 +1,25 @@
 package be.codewriter.dmx512demo.window;
 
-import be.codewriter.dmx512.controller.serial.DMXSerialDiscoverTool;
-import be.codewriter.dmx512.serial.SerialConnection;
+import be.codewriter.dmx512demo.discovery.SerialPortInfo;
+import be.codewriter.dmx512demo.discovery.SerialScanner;
 import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
 import java.util.List;
 
 public class SerialDiscoveryWindow {
-    private static final Logger LOGGER = LogManager.getLogger(SerialDiscoveryWindow.class.getName());
     private final BorderPane layout;
+    private final SerialScanner scanner = new SerialScanner(ports -> Platform.runLater(() -> showPorts(ports)));
     private Stage stage;
-    private TableView<SerialConnection> table;
+    private TableView<SerialPortInfo> table;
     private ProgressIndicator progressIndicator;
 
     public SerialDiscoveryWindow(Stage parentStage) {
@@ -42,18 +40,24 @@ public class SerialDiscoveryWindow {
         table = new TableView<>();
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_ALL_COLUMNS);
 
-        // Create columns - adjust property names based on actual SerialConnection getters
-        TableColumn<SerialConnection, String> columnPortName = new TableColumn<>("Port Name");
-        columnPortName.setCellValueFactory(new PropertyValueFactory<>("path"));
+        // Create columns
+        TableColumn<SerialPortInfo, String> columnPortName = new TableColumn<>("Port Name");
+        columnPortName.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().path()));
 
-        TableColumn<SerialConnection, String> columnName = new TableColumn<>("Name");
-        columnName.setCellValueFactory(new PropertyValueFactory<>("name"));
+        TableColumn<SerialPortInfo, String> columnName = new TableColumn<>("Name");
+        columnName.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().name()));
 
-        TableColumn<SerialConnection, String> columnDescription = new TableColumn<>("Description");
-        columnDescription.setCellValueFactory(new PropertyValueFactory<>("description"));
+        TableColumn<SerialPortInfo, String> columnDescription = new TableColumn<>("Description");
+        columnDescription.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().description()));
+
+        TableColumn<SerialPortInfo, String> columnUsbId = new TableColumn<>("USB ID");
+        columnUsbId.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().usbId()));
+
+        TableColumn<SerialPortInfo, String> columnProduct = new TableColumn<>("Product");
+        columnProduct.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().product()));
 
         // Add columns to table
-        table.getColumns().addAll(columnPortName, columnName, columnDescription);
+        table.getColumns().addAll(columnPortName, columnName, columnDescription, columnUsbId, columnProduct);
 
         // Create progress indicator
         progressIndicator = new ProgressIndicator();
@@ -66,7 +70,7 @@ public class SerialDiscoveryWindow {
 
         // Create buttons
         Button refreshButton = new Button("Refresh");
-        refreshButton.setOnAction(e -> discoverDevices());
+        refreshButton.setOnAction(e -> scanner.scanNow());
 
         Button closeButton = new Button("Close");
         closeButton.setOnAction(e -> stage.close());
@@ -81,45 +85,22 @@ public class SerialDiscoveryWindow {
         stage.setHeight(400);
         stage.setWidth(800);
 
-        // Load initial data
-        discoverDevices();
+        // Show the ports that are already known, the scanner keeps the list up-to-date while the window is open
+        var cachedPorts = SerialScanner.getCachedPorts();
+        if (cachedPorts.isEmpty()) {
+            progressIndicator.setVisible(true);
+            layout.setBottom(new Label("Discovering devices..."));
+        } else {
+            table.getItems().setAll(cachedPorts);
+        }
+        stage.setOnShown(e -> scanner.start(SerialScanner.DEFAULT_INTERVAL));
+        stage.setOnHidden(e -> scanner.stop());
     }
 
-    private void discoverDevices() {
-        // Show progress indicator and disable button
-        progressIndicator.setVisible(true);
-        table.getItems().clear();
-        layout.setBottom(new Label("Discovering devices..."));
-
-        // Run discovery in background thread
-        var discoveryThread = new Thread(() -> {
-            try {
-                List<SerialConnection> availablePorts = DMXSerialDiscoverTool.getAvailablePorts();
-
-                // Update UI on JavaFX Application Thread
-                Platform.runLater(() -> {
-                    progressIndicator.setVisible(false);
-                    table.getItems().clear();
-                    layout.setBottom(null);
-                    if (availablePorts.isEmpty()) {
-                        layout.setBottom(new Label("No serial ports found"));
-                    } else {
-                        table.getItems().addAll(availablePorts);
-                    }
-                });
-            } catch (Exception e) {
-                LOGGER.error("Error discovering serial ports: {}", e.getMessage());
-                Platform.runLater(() -> {
-                    progressIndicator.setVisible(false);
-                    table.getItems().clear();
-                    layout.setBottom(null);
-                    layout.setBottom(new Label("Error discovering ports: " + e.getMessage()));
-                });
-            }
-        });
-
-        discoveryThread.setDaemon(true);
-        discoveryThread.start();
+    private void showPorts(List<SerialPortInfo> ports) {
+        progressIndicator.setVisible(false);
+        table.getItems().setAll(ports);
+        layout.setBottom(ports.isEmpty() ? new Label("No serial ports found") : null);
     }
 
     public void show() {
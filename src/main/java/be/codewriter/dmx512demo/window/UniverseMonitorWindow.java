@@ -0,0 +1,269 @@
+package be.codewriter.dmx512demo.window;
+
+import be.codewriter.dmx512demo.library.ModeLayout;
+import be.codewriter.dmx512demo.output.DMXOutputEngine;
+import be.codewriter.dmx512demo.output.DMXUniverse;
+import be.codewriter.dmx512demo.output.UniverseSnapshot;
+import be.codewriter.dmx512demo.patch.UniversePatch;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import javafx.stage.Stage;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Shows the values that are sent for all 512 slots of every universe, drawn on one canvas. The slots of a fixture
+ * are colored by the kind of channel, unpatched slots are grey, and a tooltip shows the fixture and channel.
+ * <p>
+ * The canvas is only as high as the window, so it stays within the texture size of the GPU for any number of
+ * universes, and only the universes that are scrolled into view are drawn. Once per pulse, each visible universe is
+ * copied from its {@link UniverseSnapshot} without holding up the output, and only the cells of the slots that changed
+ * since the previous pulse are drawn again. After scrolling or resizing, the whole canvas is drawn again.
+ */
+public class UniverseMonitorWindow {
+    private static final int COLUMNS = 32;
+    private static final int ROWS = DMXUniverse.SIZE / COLUMNS;
+    private static final double CELL_WIDTH = 26;
+    private static final double CELL_HEIGHT = 18;
+    private static final double HEADER_HEIGHT = 22;
+    private static final double BLOCK_HEIGHT = HEADER_HEIGHT + ROWS * CELL_HEIGHT + 10;
+    private static final Color BACKGROUND = Color.rgb(30, 30, 30);
+    private static final Color UNPATCHED = Color.rgb(90, 90, 90);
+    private static final Color FIXTURE_START = Color.WHITE;
+    private static final Font VALUE_FONT = Font.font(9);
+    private static final Font HEADER_FONT = Font.font(13);
+    private static final String[] NUMBERS = new String[256];
+
+    static {
+        for (int i = 0; i < NUMBERS.length; i++) {
+            NUMBERS[i] = Integer.toString(i);
+        }
+    }
+
+    private final Stage stage;
+    private final Canvas canvas = new Canvas(COLUMNS * CELL_WIDTH, 0);
+    private final ScrollBar scrollBar = new ScrollBar();
+    private final List<Monitor> monitors;
+    private final double totalHeight;
+    private final Tooltip tooltip = new Tooltip();
+    private boolean redraw = true;
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            var gc = canvas.getGraphicsContext2D();
+            if (redraw) {
+                drawBackground(gc);
+            }
+            var scroll = scrollBar.getValue();
+            for (int i = 0; i < monitors.size(); i++) {
+                var top = i * BLOCK_HEIGHT - scroll;
+                if (isVisible(top)) {
+                    monitors.get(i).update(gc, top);
+                }
+            }
+        }
+    };
+
+    public UniverseMonitorWindow(Stage parentStage, DMXOutputEngine output) {
+        monitors = output.getUniverses().stream()
+                .map(u -> new Monitor(output.getSnapshot(u.getId()), output.getPatch().getUniversePatch(u.getId())))
+                .toList();
+        totalHeight = Math.max(1, monitors.size()) * BLOCK_HEIGHT;
+
+        var viewport = new Pane(canvas);
+        viewport.setMinSize(0, 0);
+        canvas.heightProperty().bind(viewport.heightProperty());
+        canvas.heightProperty().addListener(_ -> updateScrollBar());
+        Tooltip.install(canvas, tooltip);
+        canvas.setOnMouseMoved(this::showTooltip);
+        canvas.setOnScroll(this::scroll);
+
+        scrollBar.setOrientation(Orientation.VERTICAL);
+        scrollBar.setUnitIncrement(CELL_HEIGHT);
+        scrollBar.setBlockIncrement(BLOCK_HEIGHT);
+        scrollBar.valueProperty().addListener(_ -> redraw = true);
+
+        var root = new BorderPane(viewport);
+        root.setRight(scrollBar);
+        root.setStyle("-fx-background-color: rgb(30, 30, 30);");
+
+        stage = new Stage();
+        stage.initOwner(parentStage);
+        stage.setTitle("Universe Monitor");
+        stage.setScene(new Scene(root, COLUMNS * CELL_WIDTH + 20, Math.min(totalHeight, 800)));
+        // Only sample while the window is open
+        stage.setOnShown(_ -> timer.start());
+        stage.setOnHidden(_ -> timer.stop());
+    }
+
+    public void show() {
+        stage.show();
+        stage.toFront();
+    }
+
+    private boolean isVisible(double top) {
+        return top + BLOCK_HEIGHT > 0 && top < canvas.getHeight();
+    }
+
+    private void updateScrollBar() {
+        var height = canvas.getHeight();
+        var max = Math.max(0, totalHeight - height);
+        scrollBar.setMax(max);
+        // The thumb shows the part of all universes that fits in the window
+        scrollBar.setVisibleAmount(max * height / totalHeight);
+        scrollBar.setValue(Math.min(scrollBar.getValue(), max));
+        scrollBar.setDisable(max == 0);
+        redraw = true;
+    }
+
+    private void scroll(ScrollEvent event) {
+        scrollBar.setValue(Math.clamp(scrollBar.getValue() - event.getDeltaY(), 0, scrollBar.getMax()));
+    }
+
+    /**
+     * Clear the canvas and draw the headers of the visible universes. All their cells are drawn again after it.
+     */
+    private void drawBackground(GraphicsContext gc) {
+        redraw = false;
+        gc.setFill(BACKGROUND);
+        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        gc.setTextBaseline(VPos.CENTER);
+        gc.setFont(HEADER_FONT);
+        gc.setTextAlign(TextAlignment.LEFT);
+        gc.setFill(Color.WHITE);
+        var scroll = scrollBar.getValue();
+        for (int i = 0; i < monitors.size(); i++) {
+            var top = i * BLOCK_HEIGHT - scroll;
+            monitors.get(i).complete = false;
+            if (isVisible(top)) {
+                gc.fillText("Universe " + monitors.get(i).snapshot.getUniverse(), 2, top + HEADER_HEIGHT / 2);
+            }
+        }
+    }
+
+    private void showTooltip(MouseEvent event) {
+        var canvasY = event.getY() + scrollBar.getValue();
+        var block = (int) (canvasY / BLOCK_HEIGHT);
+        var y = canvasY - block * BLOCK_HEIGHT - HEADER_HEIGHT;
+        var column = (int) (event.getX() / CELL_WIDTH);
+        if (block >= monitors.size() || y < 0 || y >= ROWS * CELL_HEIGHT || column >= COLUMNS) {
+            tooltip.setText("");
+            return;
+        }
+        var offset = (int) (y / CELL_HEIGHT) * COLUMNS + column;
+        var monitor = monitors.get(block);
+        var text = monitor.descriptions[offset];
+        tooltip.setText((offset + 1) + " = " + (monitor.drawn[offset] & 0xFF) + (text == null ? "" : "\n" + text));
+    }
+
+    private static Color getChannelColor(String channel, boolean intensity) {
+        if (intensity) {
+            return Color.rgb(255, 220, 120);
+        }
+        var name = channel.toLowerCase(Locale.ROOT);
+        if (name.contains("red")) {
+            return Color.rgb(230, 60, 60);
+        } else if (name.contains("green")) {
+            return Color.rgb(60, 200, 80);
+        } else if (name.contains("blue")) {
+            return Color.rgb(70, 110, 240);
+        } else if (name.contains("white")) {
+            return Color.rgb(235, 235, 235);
+        } else if (name.contains("amber")) {
+            return Color.rgb(255, 160, 40);
+        } else if (name.contains("pan") || name.contains("tilt")) {
+            return Color.rgb(170, 100, 230);
+        }
+        return Color.rgb(80, 190, 200);
+    }
+
+    /**
+     * The state of one universe on the canvas.
+     */
+    private static final class Monitor {
+        private final UniverseSnapshot snapshot;
+        private final byte[] values = new byte[DMXUniverse.SIZE];
+        private final byte[] drawn = new byte[DMXUniverse.SIZE];
+        private final Color[] colors = new Color[DMXUniverse.SIZE];
+        private final Color[] dimColors = new Color[DMXUniverse.SIZE];
+        private final boolean[] fixtureStarts = new boolean[DMXUniverse.SIZE];
+        private final String[] descriptions = new String[DMXUniverse.SIZE];
+        private boolean complete;
+
+        private Monitor(UniverseSnapshot snapshot, UniversePatch universe) {
+            this.snapshot = snapshot;
+            for (var entry : universe.getEntries()) {
+                var client = entry.client();
+                var layout = ModeLayout.of(entry);
+                var start = entry.start() - 1;
+                fixtureStarts[start] = true;
+                for (int c = 0; c < layout.getChannelCount() && start + c < DMXUniverse.SIZE; c++) {
+                    // A slot that the mode leaves empty is shown as unpatched
+                    var unused = layout.isUnused(c);
+                    var channel = unused ? "(no channel)" : layout.getChannels().get(c);
+                    if (!unused) {
+                        colors[start + c] = getChannelColor(channel, layout.isIntensity(c));
+                    }
+                    descriptions[start + c] = client.getFixture().name() + " at " + client.getAddress()
+                            + " (" + layout.getName() + ")\n" + channel;
+                }
+            }
+            for (int i = 0; i < DMXUniverse.SIZE; i++) {
+                if (colors[i] == null) {
+                    colors[i] = UNPATCHED;
+                }
+                dimColors[i] = colors[i].deriveColor(0, 1, 0.35, 1);
+            }
+        }
+
+        private void update(GraphicsContext gc, double top) {
+            if (!snapshot.copyTo(values)) {
+                return;
+            }
+            for (int offset = 0; offset < DMXUniverse.SIZE; offset++) {
+                // All cells are drawn the first time
+                if (complete && values[offset] == drawn[offset]) {
+                    continue;
+                }
+                drawn[offset] = values[offset];
+                drawCell(gc, top, offset);
+            }
+            complete = true;
+        }
+
+        private void drawCell(GraphicsContext gc, double top, int offset) {
+            var x = (offset % COLUMNS) * CELL_WIDTH;
+            var y = top + HEADER_HEIGHT + (offset / COLUMNS) * CELL_HEIGHT;
+            var value = drawn[offset] & 0xFF;
+
+            gc.setFill(dimColors[offset]);
+            gc.fillRect(x + 1, y + 1, CELL_WIDTH - 2, CELL_HEIGHT - 2);
+            var barHeight = (CELL_HEIGHT - 2) * value / 255;
+            gc.setFill(colors[offset]);
+            gc.fillRect(x + 1, y + CELL_HEIGHT - 1 - barHeight, CELL_WIDTH - 2, barHeight);
+            if (fixtureStarts[offset]) {
+                gc.setFill(FIXTURE_START);
+                gc.fillRect(x, y + 1, 2, CELL_HEIGHT - 2);
+            }
+
+            gc.setFont(VALUE_FONT);
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.setFill(value > 150 ? Color.BLACK : Color.WHITE);
+            gc.fillText(NUMBERS[value], x + CELL_WIDTH / 2, y + CELL_HEIGHT / 2);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package be.codewriter.dmx512demo.control;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ControlCommandTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            // A decimal point makes the line levels
+            "'/universe/1/1 1.0', true, 255",
+            "'/universe/1/1 0.5', true, 128",
+            "'/universe/1/1 .25', true, 64",
+            "'/universe/1/1 1', false, 1",
+            "'/universe/1/1 128', false, 128",
+            "'/universe/1/1 0', false, 0",
+            // Out of range values are clamped
+            "'/universe/1/1 1.5', true, 255",
+            "'/universe/1/1 -0.5', true, 0",
+            "'/universe/1/1 300', false, 255",
+            "'/universe/1/1 -1', false, 0"
+    })
+    void levelsOrDmxValues(String text, boolean levels, int value) {
+        var command = ControlCommand.parse(text).getFirst();
+
+        assertThat(command.levels()).isEqualTo(levels);
+        assertThat(Byte.toUnsignedInt(command.getValue(0))).isEqualTo(value);
+    }
+
+    @Test
+    void oneLevelMakesTheWholeLineLevels() {
+        var command = ControlCommand.parse("/group/Pars/red,green,blue 1 0.5 0").getFirst();
+
+        assertThat(command.levels()).isTrue();
+        assertThat(command.getValue(0)).isEqualTo((byte) 255);
+        assertThat(command.getValue(1)).isEqualTo((byte) 128);
+        assertThat(command.getValue(2)).isZero();
+    }
+
+    @Test
+    void commandPerLine() {
+        var commands = ControlCommand.parse("""
+                # Opening
+                /universe/1/12   255
+
+                \t/cue/go
+                """);
+
+        assertThat(commands).extracting(ControlCommand::address).containsExactly("/universe/1/12", "/cue/go");
+        assertThat(commands.get(0).values()).containsExactly(255);
+        assertThat(commands.get(1).values()).isEmpty();
+    }
+
+    @Test
+    void valueThatIsNotANumberIsRejected() {
+        assertThatThrownBy(() -> ControlCommand.parse("/universe/1/1 full"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,151 @@
+package be.codewriter.dmx512demo.control;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OscServerTest {
+
+    @Test
+    void messageWithInts() {
+        var commands = parse(new Packet().string("/universe/1/12").string(",ii").putInt(255).putInt(10).bytes());
+
+        assertThat(commands).singleElement().satisfies(command -> {
+            assertThat(command.address()).isEqualTo("/universe/1/12");
+            assertThat(command.values()).containsExactly(255, 10);
+            assertThat(command.levels()).isFalse();
+        });
+    }
+
+    @Test
+    void floatsAreLevels() {
+        var commands = parse(new Packet().string("/group/Pars/red,green").string(",fi")
+                .putFloat(0.5f).putInt(1).bytes());
+
+        assertThat(commands.getFirst().levels()).isTrue();
+        assertThat(commands.getFirst().getValue(0)).isEqualTo((byte) 128);
+        assertThat(commands.getFirst().getValue(1)).isEqualTo((byte) 255);
+    }
+
+    @Test
+    void messageWithoutTypeTags() {
+        var commands = parse(new Packet().string("/cue/go").bytes());
+
+        assertThat(commands).singleElement().satisfies(command -> assertThat(command.values()).isEmpty());
+    }
+
+    @Test
+    void nestedBundlesKeepTheirOrder() {
+        var go = new Packet().string("/cue/go").string(",").bytes();
+        var level = new Packet().string("/universe/1/1").string(",i").putInt(7).bytes();
+        var back = new Packet().string("/cue/back").string(",").bytes();
+        var inner = new Packet().string("#bundle").putLong(1).element(level).element(back).bytes();
+        var outer = new Packet().string("#bundle").putLong(1).element(go).element(inner).bytes();
+
+        assertThat(parse(outer)).extracting(ControlCommand::address)
+                .containsExactly("/cue/go", "/universe/1/1", "/cue/back");
+    }
+
+    @Test
+    void blobIsSkippedWithItsPadding() {
+        var packet = new Packet().string("/universe/1/1").string(",bi")
+                .putInt(5).raw(new byte[]{1, 2, 3, 4, 5, 0, 0, 0}).putInt(42).bytes();
+
+        assertThat(parse(packet).getFirst().values()).containsExactly(42);
+    }
+
+    @Test
+    void negativeBlobSizeIsRejected() {
+        var packet = new Packet().string("/universe/1/1").string(",bi").putInt(-4).putInt(42).bytes();
+
+        assertThatThrownBy(() -> parse(packet)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void unterminatedStringIsRejected() {
+        var packet = "/cue/go".getBytes(StandardCharsets.US_ASCII);
+
+        assertThatThrownBy(() -> parse(packet)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void truncatedValueIsRejected() {
+        var packet = new Packet().string("/universe/1/1").string(",ii").putInt(1).bytes();
+
+        assertThatThrownBy(() -> parse(packet)).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void negativeBundleElementSizeIsRejected() {
+        var packet = new Packet().string("#bundle").putLong(1).putInt(-8).raw(new byte[8]).bytes();
+
+        assertThatThrownBy(() -> parse(packet)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bundleElementLargerThanPacketIsRejected() {
+        var message = new Packet().string("/cue/go").string(",").bytes();
+        var packet = new Packet().string("#bundle").putLong(1).putInt(message.length + 4).raw(message).bytes();
+
+        assertThatThrownBy(() -> parse(packet)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void unsupportedTypeIsRejected() {
+        var packet = new Packet().string("/cue/go").string(",x").bytes();
+
+        assertThatThrownBy(() -> parse(packet)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<ControlCommand> parse(byte[] packet) {
+        var commands = new ArrayList<ControlCommand>();
+        OscServer.parsePacket(ByteBuffer.wrap(packet), commands);
+        return commands;
+    }
+
+    /**
+     * Builds an OSC packet, big-endian with strings padded to four bytes.
+     */
+    private static final class Packet {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Packet string(String value) {
+            var bytes = value.getBytes(StandardCharsets.US_ASCII);
+            out.writeBytes(bytes);
+            out.writeBytes(new byte[4 - bytes.length % 4]);
+            return this;
+        }
+
+        Packet putInt(int value) {
+            return raw(ByteBuffer.allocate(Integer.BYTES).putInt(value).array());
+        }
+
+        Packet putLong(long value) {
+            return raw(ByteBuffer.allocate(Long.BYTES).putLong(value).array());
+        }
+
+        Packet putFloat(float value) {
+            return raw(ByteBuffer.allocate(Float.BYTES).putFloat(value).array());
+        }
+
+        Packet element(byte[] content) {
+            return putInt(content.length).raw(content);
+        }
+
+        Packet raw(byte[] bytes) {
+            out.writeBytes(bytes);
+            return this;
+        }
+
+        byte[] bytes() {
+            return out.toByteArray();
+        }
+    }
+}
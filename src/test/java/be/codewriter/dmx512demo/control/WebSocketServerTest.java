@@ -0,0 +1,196 @@
+package be.codewriter.dmx512demo.control;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WebSocketServerTest {
+    private static final int FIN = 0x80;
+    private static final int TEXT = 0x1;
+    private static final int CONTINUATION = 0x0;
+    private static final int PING = 0x9;
+    private static final byte[] MASK = {0x12, 0x34, 0x56, 0x78};
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream message = new ByteArrayOutputStream();
+
+    @Test
+    void shortTextMessage() throws IOException {
+        var frames = new Frames().masked(FIN | TEXT, "/cue/go".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(read(frames)).isEqualTo("/cue/go");
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    void sixteenBitLength() throws IOException {
+        var text = "/universe/1/1 " + "1 ".repeat(150);
+
+        assertThat(read(new Frames().masked(FIN | TEXT, text.getBytes(StandardCharsets.UTF_8)))).isEqualTo(text);
+    }
+
+    @Test
+    void sixtyFourBitLength() throws IOException {
+        var text = "/universe/1/1 " + "255 ".repeat(100);
+        var payload = text.getBytes(StandardCharsets.UTF_8);
+        // Shorter than 64 KiB, but a client may still use the 64 bit form
+        var frames = new Frames().header(FIN | TEXT, 0x80 | 127)
+                .raw(ByteBuffer.allocate(8).putLong(payload.length).array())
+                .payload(payload);
+
+        assertThat(read(frames)).isEqualTo(text);
+    }
+
+    @Test
+    void fragmentedTextWithPingInBetween() throws IOException {
+        var frames = new Frames()
+                .masked(TEXT, "/cue".getBytes(StandardCharsets.UTF_8))
+                .masked(FIN | PING, new byte[]{1, 2})
+                .masked(FIN | CONTINUATION, "/go".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(read(frames)).isEqualTo("/cue/go");
+        // The pong echoes the ping payload, unmasked
+        assertThat(out.toByteArray()).containsExactly(0x8A, 2, 1, 2);
+        assertThat(message.size()).isZero();
+    }
+
+    @Test
+    void unmaskedFrameIsClosedAsProtocolError() throws IOException {
+        var frames = new Frames().header(FIN | TEXT, 3).raw("abc".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(read(frames)).isNull();
+        assertThat(out.toByteArray()).containsExactly(0x88, 2, 1002 >> 8, 1002 & 0xFF);
+    }
+
+    @Test
+    void messageAboveLimitIsClosedAsTooBig() throws IOException {
+        var frames = new Frames().header(FIN | TEXT, 0x80 | 127).raw(ByteBuffer.allocate(8).putLong(64 * 1024).array());
+
+        assertThat(read(frames)).isNull();
+        assertThat(out.toByteArray()).containsExactly(0x88, 2, 1009 >> 8, 1009 & 0xFF);
+    }
+
+    @Test
+    void negativeLengthIsClosedAsTooBig() throws IOException {
+        var frames = new Frames().header(FIN | TEXT, 0x80 | 127).raw(ByteBuffer.allocate(8).putLong(-1).array());
+
+        assertThat(read(frames)).isNull();
+        assertThat(out.toByteArray()).containsExactly(0x88, 2, 1009 >> 8, 1009 & 0xFF);
+    }
+
+    @Test
+    void fragmentsAboveLimitAreClosedAsTooBig() throws IOException {
+        var half = new byte[40 * 1024];
+        var frames = new Frames().masked(TEXT, half).masked(FIN | CONTINUATION, half);
+
+        assertThat(read(frames)).isNull();
+        assertThat(out.toByteArray()).containsExactly(0x88, 2, 1009 >> 8, 1009 & 0xFF);
+    }
+
+    @Test
+    void endOfStreamInFrame() {
+        var frames = new Frames().header(FIN | TEXT, 0x80 | 10).raw(MASK).raw(new byte[3]);
+
+        assertThatThrownBy(() -> read(frames)).isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    void handshakeAnswersWithAcceptKey() throws IOException {
+        // The example of RFC 6455
+        var request = "GET / HTTP/1.1\r\nHost: localhost\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n\r\n";
+
+        assertThat(handshake(request)).isTrue();
+        assertThat(out.toString(StandardCharsets.US_ASCII))
+                .startsWith("HTTP/1.1 101")
+                .contains("Sec-WebSocket-Accept: s3pPLMBiTxaQ9kYGzzhZRbK+xOo=");
+    }
+
+    @Test
+    void handshakeFromOtherOriginIsRefused() throws IOException {
+        var request = "GET / HTTP/1.1\r\nUpgrade: websocket\r\nOrigin: http://evil.example\r\n"
+                + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n\r\n";
+
+        assertThat(handshake(request)).isFalse();
+        assertThat(out.toString(StandardCharsets.US_ASCII)).startsWith("HTTP/1.1 403");
+    }
+
+    @Test
+    void handshakeFromAllowedOriginIsAccepted() throws IOException {
+        var request = "GET / HTTP/1.1\r\nUpgrade: websocket\r\nOrigin: http://tablet.local\r\n"
+                + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n\r\n";
+
+        assertThat(handshake(request)).isTrue();
+    }
+
+    @Test
+    void handshakeWithTooManyHeadersIsRejected() {
+        var request = "GET / HTTP/1.1\r\n" + "X-Padding: 0123456789\r\n".repeat(1000) + "\r\n";
+
+        assertThatThrownBy(() -> handshake(request)).isInstanceOf(IOException.class);
+    }
+
+    private String read(Frames frames) throws IOException {
+        return WebSocketServer.readMessage(frames.input(), out, message);
+    }
+
+    private boolean handshake(String request) throws IOException {
+        var server = new WebSocketServer(null, InetAddress.getLoopbackAddress(), Set.of("http://tablet.local"), 0);
+        var in = new DataInputStream(new ByteArrayInputStream(request.getBytes(StandardCharsets.US_ASCII)));
+        return server.handshake(in, out);
+    }
+
+    /**
+     * Builds the frames a client sends.
+     */
+    private static final class Frames {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        Frames masked(int first, byte[] payload) {
+            if (payload.length < 126) {
+                header(first, 0x80 | payload.length);
+            } else if (payload.length <= 0xFFFF) {
+                header(first, 0x80 | 126).raw(new byte[]{(byte) (payload.length >> 8), (byte) payload.length});
+            } else {
+                header(first, 0x80 | 127).raw(ByteBuffer.allocate(8).putLong(payload.length).array());
+            }
+            return payload(payload);
+        }
+
+        Frames header(int first, int second) {
+            bytes.write(first);
+            bytes.write(second);
+            return this;
+        }
+
+        Frames payload(byte[] payload) {
+            raw(MASK);
+            var masked = Arrays.copyOf(payload, payload.length);
+            for (int i = 0; i < masked.length; i++) {
+                masked[i] ^= MASK[i & 3];
+            }
+            return raw(masked);
+        }
+
+        Frames raw(byte[] data) {
+            bytes.writeBytes(data);
+            return this;
+        }
+
+        DataInputStream input() {
+            return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        }
+    }
+}
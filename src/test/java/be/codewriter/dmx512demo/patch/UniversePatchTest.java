@@ -0,0 +1,68 @@
+package be.codewriter.dmx512demo.patch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UniversePatchTest {
+    private final UniversePatch patch = new UniversePatch(1);
+
+    @BeforeEach
+    void patchTwoClients() {
+        patch.add(entry(10, 19));
+        patch.add(entry(30, 35));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // Adjacent before, between and after
+            "1, 9, 0",
+            "20, 29, 0",
+            "36, 512, 0",
+            // Touching by one address at either end
+            "5, 10, 10",
+            "19, 25, 10",
+            "25, 30, 30",
+            "35, 40, 30",
+            // Containing a patched range, or more than one
+            "5, 25, 10",
+            "9, 36, 30",
+            // Contained in a patched range
+            "12, 15, 10",
+            "10, 19, 10",
+            "31, 31, 30"
+    })
+    void findOverlap(int start, int end, int overlapStart) {
+        var overlap = patch.findOverlap(start, end);
+
+        if (overlapStart == 0) {
+            assertThat(overlap).isNull();
+        } else {
+            assertThat(overlap).isNotNull().extracting(PatchEntry::start).isEqualTo(overlapStart);
+        }
+    }
+
+    @Test
+    void getEntry() {
+        assertThat(patch.getEntry(9)).isNull();
+        assertThat(patch.getEntry(10).start()).isEqualTo(10);
+        assertThat(patch.getEntry(19).start()).isEqualTo(10);
+        assertThat(patch.getEntry(20)).isNull();
+    }
+
+    @Test
+    void rangeOutsideOfUniverseIsRejected() {
+        assertThatThrownBy(() -> patch.add(entry(0, 3))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> patch.add(entry(510, 513))).isInstanceOf(IllegalArgumentException.class);
+        assertThat(patch.getEntries()).hasSize(2);
+    }
+
+    private static PatchEntry entry(int start, int end) {
+        // The client is only needed to describe an overlap
+        return new PatchEntry(1, start, end, null, null);
+    }
+}
@@ -0,0 +1,186 @@
+package be.codewriter.dmx512demo.recording;
+
+import be.codewriter.dmx512demo.output.DMXUniverse;
+import be.codewriter.dmx512demo.output.UniverseOutput;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FrameRecorderTest {
+    private static final int UNIVERSES = 3;
+    private static final int FRAMES = 30_000;
+    // The region size of the recorder
+    private static final long REGION_SIZE = 4L * 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replayIsBitExact() throws IOException {
+        var random = new Random(512);
+        var universes = new ArrayList<DMXUniverse>();
+        var expected = new ArrayList<List<byte[]>>();
+        for (int u = 0; u < UNIVERSES; u++) {
+            universes.add(new DMXUniverse(u + 1, List.of()));
+            expected.add(new ArrayList<>());
+        }
+        var deltas = new long[FRAMES];
+
+        var file = directory.resolve("show.dmxrec");
+        try (var recorder = new FrameRecorder(file)) {
+            var now = System.nanoTime();
+            for (int i = 0; i < FRAMES; i++) {
+                var u = random.nextInt(UNIVERSES);
+                var universe = universes.get(u);
+                change(universe, random);
+                deltas[i] = 1_000 + random.nextInt(50_000);
+                now += deltas[i];
+                recorder.record(now, universe);
+
+                var values = new byte[DMXUniverse.SIZE];
+                universe.getValues(values);
+                expected.get(u).add(values);
+            }
+            assertThat(recorder.getFrameCount()).isEqualTo(FRAMES);
+        }
+        assertThat(Files.size(file)).isGreaterThan(2 * REGION_SIZE);
+        var recorded = readDeltas(file);
+        assertThat(recorded).hasSize(FRAMES);
+        // The first delta is from the start of the recording
+        assertThat(recorded.subList(1, FRAMES)).containsExactly(boxed(deltas, 1));
+
+        var outputs = new ArrayList<CapturingOutput>();
+        for (int u = 0; u < UNIVERSES; u++) {
+            // A fresh universe, so nothing is left from the recording
+            outputs.add(new CapturingOutput(new DMXUniverse(u + 1, List.of())));
+        }
+        var started = System.nanoTime();
+        var sent = new FramePlayer(file).play(List.copyOf(outputs));
+
+        assertThat(sent).isEqualTo(FRAMES);
+        var times = new ArrayList<Long>();
+        for (int u = 0; u < UNIVERSES; u++) {
+            var output = outputs.get(u);
+            assertThat(output.frames).hasSameSizeAs(expected.get(u));
+            for (int i = 0; i < output.frames.size(); i++) {
+                assertThat(output.frames.get(i)).as("frame %d of universe %d", i, u + 1)
+                        .isEqualTo(expected.get(u).get(i));
+            }
+            times.addAll(output.times);
+        }
+        // No frame is sent before its time after the start of the replay, the frames are sent in recorded order
+        times.sort(null);
+        var elapsed = 0L;
+        for (int i = 0; i < FRAMES; i++) {
+            elapsed += deltas[i];
+            assertThat(times.get(i) - started).isGreaterThanOrEqualTo(elapsed);
+        }
+    }
+
+    @Test
+    void unknownMarkerStopsReplay() throws IOException {
+        var file = directory.resolve("corrupt.dmxrec");
+        var universe = new DMXUniverse(1, List.of());
+        try (var recorder = new FrameRecorder(file)) {
+            universe.setValue(1, (byte) 10);
+            recorder.record(System.nanoTime(), universe);
+            universe.setValue(2, (byte) 20);
+            recorder.record(System.nanoTime(), universe);
+        }
+        // Overwrite the marker of the second frame
+        var bytes = Files.readAllBytes(file);
+        var second = RecordingFormat.HEADER_SIZE + frameSize(bytes, RecordingFormat.HEADER_SIZE);
+        bytes[second] = 7;
+        Files.write(file, bytes);
+
+        var output = new CapturingOutput(new DMXUniverse(1, List.of()));
+        assertThat(new FramePlayer(file).play(List.of(output))).isEqualTo(1);
+        assertThat(output.frames.getFirst()[0]).isEqualTo((byte) 10);
+        assertThat(output.frames.getFirst()[1]).isZero();
+    }
+
+    /**
+     * A full frame, a few slots, or a keep-alive without changes.
+     */
+    private static void change(DMXUniverse universe, Random random) {
+        var kind = random.nextInt(10);
+        if (kind < 6) {
+            for (int address = 1; address <= DMXUniverse.SIZE; address++) {
+                universe.setValue(address, (byte) random.nextInt(256));
+            }
+        } else if (kind < 9) {
+            for (int i = random.nextInt(20); i >= 0; i--) {
+                universe.setValue(1 + random.nextInt(DMXUniverse.SIZE), (byte) random.nextInt(256));
+            }
+        }
+    }
+
+    private static List<Long> readDeltas(Path file) throws IOException {
+        var buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        buffer.position(RecordingFormat.HEADER_SIZE);
+        var deltas = new ArrayList<Long>();
+        while (buffer.hasRemaining() && buffer.get() == RecordingFormat.FRAME) {
+            deltas.add(RecordingFormat.getVarint(buffer));
+            skipUniverseAndRuns(buffer);
+        }
+        return deltas;
+    }
+
+    private static int frameSize(byte[] bytes, int position) {
+        var buffer = ByteBuffer.wrap(bytes).position(position + 1);
+        RecordingFormat.getVarint(buffer);
+        skipUniverseAndRuns(buffer);
+        return buffer.position() - position;
+    }
+
+    private static void skipUniverseAndRuns(ByteBuffer buffer) {
+        RecordingFormat.getVarint(buffer);
+        var runs = RecordingFormat.getVarint(buffer);
+        for (int i = 0; i < runs; i++) {
+            RecordingFormat.getVarint(buffer);
+            var length = (int) RecordingFormat.getVarint(buffer);
+            buffer.position(buffer.position() + length);
+        }
+    }
+
+    private static Long[] boxed(long[] values, int from) {
+        var boxed = new Long[values.length - from];
+        for (int i = from; i < values.length; i++) {
+            boxed[i - from] = values[i];
+        }
+        return boxed;
+    }
+
+    private static final class CapturingOutput implements UniverseOutput {
+        private final DMXUniverse universe;
+        private final List<byte[]> frames = new ArrayList<>();
+        private final List<Long> times = new ArrayList<>();
+
+        private CapturingOutput(DMXUniverse universe) {
+            this.universe = universe;
+        }
+
+        @Override
+        public DMXUniverse getUniverse() {
+            return universe;
+        }
+
+        @Override
+        public boolean send(long now, long keepAliveNanos) {
+            var values = new byte[DMXUniverse.SIZE];
+            universe.getValues(values);
+            frames.add(values);
+            times.add(now);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package be.codewriter.dmx512demo.recording;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecordingFormatTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 1",
+            "1, 1",
+            "127, 1",
+            "128, 2",
+            "16383, 2",
+            "16384, 3",
+            "2147483647, 5",
+            "4294967296, 5",
+            "9223372036854775807, 9",
+            "-9223372036854775808, 10",
+            "-1, 10"
+    })
+    void varintRoundTrip(long value, int size) {
+        var buffer = ByteBuffer.allocate(16);
+        RecordingFormat.putVarint(buffer, value);
+        assertThat(buffer.position()).isEqualTo(size);
+
+        buffer.flip();
+        assertThat(RecordingFormat.getVarint(buffer)).isEqualTo(value);
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void varintIsLowestBitsFirst() {
+        var buffer = ByteBuffer.allocate(2);
+        RecordingFormat.putVarint(buffer, 300);
+        assertThat(buffer.array()).containsExactly(0xAC, 0x02);
+    }
+
+    @Test
+    void varintOfMoreThanTenBytesIsRejected() {
+        var buffer = ByteBuffer.allocate(11);
+        for (int i = 0; i < 10; i++) {
+            buffer.put((byte) 0x80);
+        }
+        buffer.put((byte) 0x01).flip();
+        assertThatThrownBy(() -> RecordingFormat.getVarint(buffer)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void truncatedVarintIsRejected() {
+        var buffer = ByteBuffer.wrap(new byte[]{(byte) 0x80, (byte) 0x80});
+        assertThatThrownBy(() -> RecordingFormat.getVarint(buffer)).isInstanceOf(BufferUnderflowException.class);
+    }
+}